@@ -0,0 +1,111 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.appcds;
+
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsFactory;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider;
+import de.mossgrabers.nativefiledialogs.OperatingSystem;
+import de.mossgrabers.nativefiledialogs.PlatformNotSupported;
+import de.mossgrabers.nativefiledialogs.linux.NativeLinuxFileDialogs;
+import de.mossgrabers.nativefiledialogs.macos.NativeMacosFileDialogs;
+import de.mossgrabers.nativefiledialogs.script.DialogScript;
+import de.mossgrabers.nativefiledialogs.script.ScriptedFileDialogs;
+import de.mossgrabers.nativefiledialogs.windows.NativeWindowsFileDialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ServiceLoader;
+
+
+/**
+ * The workload from which the classes of the AppCDS archive are recorded. Calls the factory and
+ * each backend like an application which opens one dialog, with the stub zenity and osascript
+ * executables of the benchmarks on the PATH, which answer immediately. The Windows dialogs cannot
+ * be answered by a stub, therefore the Windows backend is only created, also by the factory on
+ * Windows.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class TrainingRun
+{
+    private static final FileFilter [] FILTERS =
+    {
+        new FileFilter ("Audio", "wav", "aif", "flac"),
+        new FileFilter ("All files", "*")
+    };
+
+    private static final String        SCRIPT  = String.join ("\n", "# NFD-TRACE-1", "0\tOPEN_FILE\t\tSELECT\t/tmp/sample.wav", "0\tOPEN_FILES\t\tSELECT\t/tmp/sample1.wav\t/tmp/sample2.wav", "0\tSAVE_FILE\t\tSELECT\t/tmp/new.wav", "0\tSELECT_FOLDER\t\tCANCEL");
+
+
+    /**
+     * Constructor.
+     */
+    private TrainingRun ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * The entry function.
+     *
+     * @param args Not used
+     * @throws IOException Could not parse the script
+     */
+    public static void main (final String [] args) throws IOException
+    {
+        final File directory = new File (System.getProperty ("user.dir"));
+
+        for (final NativeFileDialogsProvider provider: ServiceLoader.load (NativeFileDialogsProvider.class))
+            System.out.println (provider.getClass ().getSimpleName () + ": supported=" + provider.isSupported () + ", available=" + provider.isAvailable ());
+
+        try
+        {
+            final NativeFileDialogs dialogs = NativeFileDialogsFactory.create (directory);
+            if (OperatingSystem.get () != OperatingSystem.WINDOWS)
+                train ("Factory", dialogs);
+        }
+        catch (final PlatformNotSupported ex)
+        {
+            System.out.println ("Factory: " + ex.getMessage ());
+        }
+
+        train ("Linux", new NativeLinuxFileDialogs (directory));
+        train ("macOS", new NativeMacosFileDialogs (directory));
+        train ("Scripted", new ScriptedFileDialogs (directory, DialogScript.parse (SCRIPT)));
+        new NativeWindowsFileDialogs (directory, "bitwig").setCurrentDirectory (directory);
+    }
+
+
+    /**
+     * Call each kind of dialog once.
+     *
+     * @param name The name of the backend for the output
+     * @param dialogs The dialogs
+     */
+    private static void train (final String name, final NativeFileDialogs dialogs)
+    {
+        try
+        {
+            dialogs.warmUp (true).join ();
+            dialogs.selectFile ("Open", FILTERS);
+            dialogs.selectFiles ("Open several", FILTERS);
+            dialogs.selectNewFile ("Save", FILTERS);
+            dialogs.selectFolder ("Folder");
+            dialogs.select (new DialogRequest (DialogKind.OPEN_FILE, "Import", "import", FILTERS));
+            dialogs.selectFileAsync ("Open", FILTERS).join ();
+            System.out.println (name + ": trained");
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            // E.g. the stubs cannot be executed on Windows, the loaded classes are still recorded
+            System.out.println (name + ": " + ex);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+
+/**
+ * Measures checking a large multi-selection against the filters. The regular expression is the
+ * straightforward alternative for comparison. Run with '-prof gc' to check that matching does not
+ * allocate memory.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterMatcherBenchmark
+{
+    private static final String [] EXTENSIONS =
+    {
+        "nki",
+        "nkm",
+        "nkb",
+        "wav",
+        "aif",
+        "aiff",
+        "flac",
+        "ogg",
+        "mp3",
+        "tar.gz",
+        "sf2",
+        "sfz"
+    };
+
+    @Param("5000")
+    private int                    count;
+
+    private File []                files;
+    private FilterMatcher          matcher;
+    private Pattern                pattern;
+
+    /**
+     * Create the selected files, half of them match.
+     */
+    @Setup
+    public void setup ()
+    {
+        this.matcher = FilterMatcher.of (FilterSet.of (new FileFilter ("Instruments", "nki", "nkm", "nkb", "sf2", "sfz"), new FileFilter ("Audio", "wav", "aif", "aiff", "flac", "ogg", "mp3"), new FileFilter ("Archives", "tar.gz")));
+        this.pattern = Pattern.compile (".+\\.(nki|nkm|nkb|sf2|sfz|wav|aif|aiff|flac|ogg|mp3|tar\\.gz)", Pattern.CASE_INSENSITIVE);
+
+        this.files = new File [this.count];
+        for (int i = 0; i < this.count; i++)
+        {
+            final String extension = EXTENSIONS[i % EXTENSIONS.length];
+            final String name = i % 2 == 0 ? "Sample " + i + "." + extension.toUpperCase () : "Document " + i + "." + extension + ".txt";
+            this.files[i] = new File ("/home/user/Music/Library/" + name);
+        }
+    }
+
+
+    /**
+     * Check all files with the compiled matcher.
+     *
+     * @return The number of matching files
+     */
+    @Benchmark
+    public int matcher ()
+    {
+        int matches = 0;
+        for (final File file: this.files)
+        {
+            if (this.matcher.matches (file))
+                matches++;
+        }
+        return matches;
+    }
+
+
+    /**
+     * Check all files with a regular expression.
+     *
+     * @return The number of matching files
+     */
+    @Benchmark
+    public int regex ()
+    {
+        int matches = 0;
+        for (final File file: this.files)
+        {
+            if (this.pattern.matcher (file.getName ()).matches ())
+                matches++;
+        }
+        return matches;
+    }
+}
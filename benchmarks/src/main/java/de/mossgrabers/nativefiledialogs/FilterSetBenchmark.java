@@ -0,0 +1,67 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+
+/**
+ * Measures looking up a cached filter set and its encoding, which happens for each dialog. Run
+ * with '-prof gc' to check that no memory is allocated.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterSetBenchmark
+{
+    private static final FileFilter []               FILTERS =
+    {
+        new FileFilter ("Kontakt", "nki", "nkm", "nkb"),
+        new FileFilter ("Audio", "wav", "aif", "aiff", "flac", "ogg"),
+        new FileFilter ("All files", "*")
+    };
+
+    private static final Function<FilterSet, String> ENCODER = FilterSet::toString;
+
+
+    /**
+     * Look up the cached set of the filters.
+     *
+     * @return The set
+     */
+    @Benchmark
+    public FilterSet lookup ()
+    {
+        return FilterSet.of (FILTERS);
+    }
+
+
+    /**
+     * Look up the cached set of the filters and its encoding.
+     *
+     * @return The encoding
+     */
+    @Benchmark
+    public String lookupEncoding ()
+    {
+        return FilterSet.of (FILTERS).getEncoding (ENCODER);
+    }
+}
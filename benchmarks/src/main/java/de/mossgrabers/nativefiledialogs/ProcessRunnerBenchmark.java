@@ -0,0 +1,66 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures running a helper process with a stub executable, which exits immediately ('true' from
+ * the PATH). This is the overhead of the process runner without any toolkit startup.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessRunnerBenchmark
+{
+    private String [] command;
+
+    /**
+     * Find the stub executable.
+     */
+    @Setup
+    public void setup ()
+    {
+        final File stub = ExecutableResolver.find ("true");
+        if (stub == null)
+            throw new IllegalStateException ("The benchmark needs the 'true' executable on the PATH.");
+        this.command = new String []
+        {
+            stub.getAbsolutePath ()
+        };
+    }
+
+
+    /**
+     * Execute the stub process.
+     *
+     * @return The result
+     * @throws IOException Could not run the process
+     */
+    @Benchmark
+    public ProcessResult execute () throws IOException
+    {
+        return ProcessRunner.execute (this.command);
+    }
+}
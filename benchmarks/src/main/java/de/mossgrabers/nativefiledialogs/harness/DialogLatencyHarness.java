@@ -0,0 +1,371 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.harness;
+
+import de.mossgrabers.nativefiledialogs.BackendFileDialogs;
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsFactory;
+import de.mossgrabers.nativefiledialogs.PlatformNotSupported;
+import de.mossgrabers.nativefiledialogs.helper.PersistentHelperBackend;
+import de.mossgrabers.nativefiledialogs.linux.GtkFileDialogs;
+import de.mossgrabers.nativefiledialogs.linux.PortalFileDialogs;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusConnection;
+import de.mossgrabers.nativefiledialogs.macos.NativeMacosFileDialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Measures the time from calling a dialog method until it returns, with stub zenity and osascript
+ * executables on the PATH which answer immediately (or after STUB_DELAY seconds). Each dialog
+ * method is called many times from one thread and from many threads at once. The p99 latencies
+ * are compared against a stored baseline. Since absolute latencies depend on the machine and the
+ * JDK, the baseline records both next to the numbers. The harness only exits with an error code if
+ * a scenario regressed by more than the tolerance when the check is enabled and the baseline was
+ * recorded on the same machine and JDK, otherwise the comparison is only printed.
+ * <p>
+ * The persistent helper backend is measured with the dialog-helper stand-in, which stays running
+ * and answers the requests of the helper protocol. Its p50 latencies are compared to the zenity
+ * stub, which is started for each dialog.
+ * <p>
+ * On Linux the file chooser portal can be measured as well against a {@link PortalStandIn}, which
+ * the harness registers on the session bus. Since this replaces a real portal, the harness must
+ * run on a private bus, e.g. 'dbus-run-session -- mvn -f benchmarks/pom.xml verify -Platency
+ * -Dharness.portal=true'. The p50 latencies of the portal are then compared to the zenity stub.
+ * <p>
+ * The in-process GTK file chooser can be measured on a display (e.g. Xvfb) if GTK uses the portal
+ * and therefore the stand-in, e.g. 'GTK_USE_PORTAL=1 xvfb-run dbus-run-session -- mvn -f
+ * benchmarks/pom.xml verify -Platency -Dharness.gtk=true'. Its p50 latencies are compared to the
+ * zenity stub as well.
+ * <p>
+ * System properties:
+ * <ul>
+ * <li>harness.iterations - the number of calls per scenario (default 2000)</li>
+ * <li>harness.threads - the number of threads of the concurrent scenarios (default 16)</li>
+ * <li>harness.baseline - the baseline file (default baseline/latency.properties)</li>
+ * <li>harness.tolerance - the allowed factor over the baseline p99 (default 2.0)</li>
+ * <li>harness.checkBaseline - true to fail if a scenario regressed against the baseline</li>
+ * <li>harness.writeBaseline - true to store the measured values as the new baseline</li>
+ * <li>harness.portal - true to measure the file chooser portal with a stand-in on the (private)
+ * session bus</li>
+ * <li>harness.gtk - true to measure the in-process GTK file chooser, which requires a display and
+ * GTK_USE_PORTAL=1</li>
+ * </ul>
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogLatencyHarness
+{
+    private static final FileFilter [] FILTERS =
+    {
+        new FileFilter ("Audio", "wav", "aif", "flac"),
+        new FileFilter ("All files", "*")
+    };
+
+    /** Answers the portal and GTK dialogs, runs until the harness exits. */
+    private static PortalStandIn       portalStandIn;
+
+
+    /** A dialog call of a scenario. */
+    private interface DialogCall
+    {
+        /**
+         * Call the dialog.
+         *
+         * @param dialogs The dialogs
+         * @return The result, must not be null
+         * @throws IOException Could not call the dialog
+         */
+        Object call (NativeFileDialogs dialogs) throws IOException;
+    }
+
+
+    /**
+     * Constructor.
+     */
+    private DialogLatencyHarness ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * The entry function.
+     *
+     * @param args Not used
+     * @throws Exception Could not run the harness
+     */
+    public static void main (final String [] args) throws Exception
+    {
+        final int iterations = Integer.getInteger ("harness.iterations", 2000).intValue ();
+        final int threads = Integer.getInteger ("harness.threads", 16).intValue ();
+
+        final List<LatencyStatistics> results = new ArrayList<> ();
+        for (final String backend: getBackends ())
+        {
+            final NativeFileDialogs dialogs = createDialogs (backend);
+            results.addAll (measure (backend, "selectFile", dialogs, d -> d.selectFile ("Open", FILTERS), iterations, threads));
+            results.addAll (measure (backend, "selectNewFile", dialogs, d -> d.selectNewFile ("Save", FILTERS), iterations, threads));
+            results.addAll (measure (backend, "selectFolder", dialogs, d -> d.selectFolder ("Folder"), iterations, threads));
+            results.addAll (measure (backend, "selectFiles", dialogs, d -> d.selectFiles ("Open several", FILTERS), iterations, threads));
+        }
+
+        for (final LatencyStatistics result: results)
+            System.out.println (result);
+        printComparison ("helper", results);
+        printComparison ("portal", results);
+        printComparison ("gtk", results);
+
+        final Path baselineFile = Paths.get (System.getProperty ("harness.baseline", "baseline/latency.properties"));
+        if (Boolean.getBoolean ("harness.writeBaseline"))
+        {
+            writeBaseline (baselineFile, results);
+            System.out.println ("Baseline written to " + baselineFile.toAbsolutePath ());
+            return;
+        }
+
+        if (!checkBaseline (baselineFile, results) && Boolean.getBoolean ("harness.checkBaseline"))
+            System.exit (1);
+    }
+
+
+    /**
+     * Get the backends which can be measured with stubs on this platform.
+     *
+     * @return The backend names
+     */
+    private static List<String> getBackends ()
+    {
+        final List<String> backends = new ArrayList<> ();
+        final String osName = System.getProperty ("os.name", "").toLowerCase (Locale.ENGLISH);
+        // The Windows dialogs are native calls which cannot be replaced by a stub
+        if (!osName.contains ("windows"))
+        {
+            if (osName.contains ("linux"))
+            {
+                backends.add ("factory");
+                backends.add ("helper");
+                if (Boolean.getBoolean ("harness.portal"))
+                    backends.add ("portal");
+                if (Boolean.getBoolean ("harness.gtk"))
+                    backends.add ("gtk");
+            }
+            backends.add ("macos");
+        }
+        return backends;
+    }
+
+
+    private static NativeFileDialogs createDialogs (final String backend) throws PlatformNotSupported, IOException
+    {
+        final File directory = new File (System.getProperty ("java.io.tmpdir"));
+        switch (backend)
+        {
+            case "macos":
+                return new NativeMacosFileDialogs (directory);
+
+            case "helper":
+                return new BackendFileDialogs (directory, new PersistentHelperBackend ("dialog-helper"));
+
+            case "portal":
+                startPortalStandIn ();
+                return new PortalFileDialogs (directory);
+
+            case "gtk":
+                startPortalStandIn ();
+                return new GtkFileDialogs (directory);
+
+            default:
+                return NativeFileDialogsFactory.create (directory);
+        }
+    }
+
+
+    private static void startPortalStandIn () throws IOException
+    {
+        if (portalStandIn == null)
+            portalStandIn = new PortalStandIn (DBusConnection.openSessionBus ());
+    }
+
+
+    /**
+     * Print the p50 latencies of the scenarios of a backend relative to the zenity (factory) ones,
+     * which start a process for each dialog.
+     *
+     * @param backend The name of the backend
+     * @param results The results of all scenarios
+     */
+    private static void printComparison (final String backend, final List<LatencyStatistics> results)
+    {
+        final String prefix = backend + ".";
+        for (final LatencyStatistics result: results)
+        {
+            if (!result.getScenario ().startsWith (prefix))
+                continue;
+            final String scenario = result.getScenario ().substring (prefix.length ());
+            for (final LatencyStatistics zenity: results)
+            {
+                if (!zenity.getScenario ().equals ("factory." + scenario))
+                    continue;
+                final double backendP50 = result.getPercentileMicros (50);
+                final double zenityP50 = zenity.getPercentileMicros (50);
+                System.out.println (String.format (Locale.ENGLISH, "%s: %s p50 %.1f us, zenity p50 %.1f us (%.1fx)", scenario, backend, Double.valueOf (backendP50), Double.valueOf (zenityP50), Double.valueOf (zenityP50 / backendP50)));
+            }
+        }
+    }
+
+
+    private static List<LatencyStatistics> measure (final String backend, final String method, final NativeFileDialogs dialogs, final DialogCall call, final int iterations, final int threads) throws Exception
+    {
+        // Warm-up
+        run (dialogs, call, new long [Math.max (1, iterations / 10)]);
+
+        final List<LatencyStatistics> results = new ArrayList<> ();
+
+        final long [] latencies = new long [iterations];
+        long start = System.nanoTime ();
+        run (dialogs, call, latencies);
+        results.add (new LatencyStatistics (backend + "." + method + ".single", latencies, System.nanoTime () - start));
+
+        final long [][] threadLatencies = new long [threads][Math.max (1, iterations / threads)];
+        final CountDownLatch startSignal = new CountDownLatch (1);
+        final AtomicReference<Exception> failure = new AtomicReference<> ();
+        final List<Thread> workers = new ArrayList<> ();
+        for (int i = 0; i < threads; i++)
+        {
+            final long [] measurements = threadLatencies[i];
+            final Thread worker = new Thread ( () -> {
+                try
+                {
+                    startSignal.await ();
+                    run (dialogs, call, measurements);
+                }
+                catch (final Exception ex)
+                {
+                    failure.compareAndSet (null, ex);
+                }
+            });
+            worker.start ();
+            workers.add (worker);
+        }
+        start = System.nanoTime ();
+        startSignal.countDown ();
+        for (final Thread worker: workers)
+            worker.join ();
+        final long duration = System.nanoTime () - start;
+        if (failure.get () != null)
+            throw failure.get ();
+
+        final long [] all = new long [threads * threadLatencies[0].length];
+        for (int i = 0; i < threads; i++)
+            System.arraycopy (threadLatencies[i], 0, all, i * threadLatencies[i].length, threadLatencies[i].length);
+        results.add (new LatencyStatistics (backend + "." + method + ".concurrent", all, duration));
+        return results;
+    }
+
+
+    private static void run (final NativeFileDialogs dialogs, final DialogCall call, final long [] latencies) throws IOException
+    {
+        for (int i = 0; i < latencies.length; i++)
+        {
+            final long start = System.nanoTime ();
+            final Object result = call.call (dialogs);
+            latencies[i] = System.nanoTime () - start;
+            if (result == null)
+                throw new IOException ("The stub did not answer, is it on the PATH?");
+        }
+    }
+
+
+    private static boolean checkBaseline (final Path baselineFile, final List<LatencyStatistics> results) throws IOException
+    {
+        if (!Files.isRegularFile (baselineFile))
+        {
+            System.out.println ("No baseline found at " + baselineFile.toAbsolutePath () + ", run with -Dharness.writeBaseline=true to create one.");
+            return true;
+        }
+
+        final Properties baseline = new Properties ();
+        try (final InputStream in = Files.newInputStream (baselineFile))
+        {
+            baseline.load (in);
+        }
+
+        final Properties machine = getMachine ();
+        for (final String key: machine.stringPropertyNames ())
+        {
+            final String recorded = baseline.getProperty (key);
+            if (!machine.getProperty (key).equals (recorded))
+            {
+                System.out.println (String.format ("The baseline was recorded with %s=%s but this is %s, the latencies are not comparable. Run with -Dharness.writeBaseline=true to record a baseline on this machine.", key, recorded, machine.getProperty (key)));
+                return true;
+            }
+        }
+
+        final double tolerance = Double.parseDouble (System.getProperty ("harness.tolerance", "2.0"));
+        boolean success = true;
+        for (final LatencyStatistics result: results)
+        {
+            final String value = baseline.getProperty (result.getScenario () + ".p99");
+            if (value == null)
+                continue;
+            final double limit = Double.parseDouble (value) * tolerance;
+            final double p99 = result.getPercentileMicros (99);
+            if (p99 > limit)
+            {
+                System.out.println (String.format ("REGRESSION: %s p99 %.1f us exceeds %.1f us (baseline %s us x %.2f)", result.getScenario (), Double.valueOf (p99), Double.valueOf (limit), value, Double.valueOf (tolerance)));
+                success = false;
+            }
+        }
+        return success;
+    }
+
+
+    private static void writeBaseline (final Path baselineFile, final List<LatencyStatistics> results) throws IOException
+    {
+        final Properties baseline = getMachine ();
+        for (final LatencyStatistics result: results)
+        {
+            baseline.setProperty (result.getScenario () + ".p50", String.format (Locale.ENGLISH, "%.1f", Double.valueOf (result.getPercentileMicros (50))));
+            baseline.setProperty (result.getScenario () + ".p99", String.format (Locale.ENGLISH, "%.1f", Double.valueOf (result.getPercentileMicros (99))));
+            baseline.setProperty (result.getScenario () + ".p999", String.format (Locale.ENGLISH, "%.1f", Double.valueOf (result.getPercentileMicros (99.9))));
+        }
+        if (baselineFile.getParent () != null)
+            Files.createDirectories (baselineFile.getParent ());
+        try (final OutputStream out = Files.newOutputStream (baselineFile))
+        {
+            baseline.store (out, "p50/p99/p999 dialog latencies in microseconds of the stub helpers");
+        }
+    }
+
+
+    /**
+     * Get the properties of the machine and the JDK which the latencies depend on. They are stored
+     * with the baseline, which is only comparable if they are equal.
+     *
+     * @return The properties
+     */
+    private static Properties getMachine ()
+    {
+        final Properties machine = new Properties ();
+        machine.setProperty ("machine.os", System.getProperty ("os.name") + " " + System.getProperty ("os.arch"));
+        machine.setProperty ("machine.cpus", Integer.toString (Runtime.getRuntime ().availableProcessors ()));
+        machine.setProperty ("machine.jdk", System.getProperty ("java.vm.name") + " " + System.getProperty ("java.version"));
+        return machine;
+    }
+}
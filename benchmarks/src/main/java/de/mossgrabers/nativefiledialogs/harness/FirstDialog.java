@@ -0,0 +1,38 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.harness;
+
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsFactory;
+
+
+/**
+ * A short-lived application, which opens one dialog and exits. Started by the
+ * {@link StartupHarness}, which measures the time until the selected file is printed.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class FirstDialog
+{
+    /**
+     * Constructor.
+     */
+    private FirstDialog ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * The entry function.
+     *
+     * @param args Not used
+     * @throws Exception Could not open the dialog
+     */
+    public static void main (final String [] args) throws Exception
+    {
+        System.out.println (NativeFileDialogsFactory.create (null).selectFile ("Open", new FileFilter ("Audio", "wav", "aif", "flac")));
+    }
+}
@@ -0,0 +1,80 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.harness;
+
+import java.util.Arrays;
+
+
+/**
+ * Percentiles and throughput of the measured latencies of one scenario.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class LatencyStatistics
+{
+    private final String   scenario;
+    private final long []  sortedNanos;
+    private final double   throughput;
+
+    /**
+     * Constructor.
+     *
+     * @param scenario The name of the scenario
+     * @param latencyNanos The measured latencies in nanoseconds
+     * @param durationNanos The total (wall clock) duration of the scenario in nanoseconds
+     */
+    public LatencyStatistics (final String scenario, final long [] latencyNanos, final long durationNanos)
+    {
+        this.scenario = scenario;
+        this.sortedNanos = latencyNanos.clone ();
+        Arrays.sort (this.sortedNanos);
+        this.throughput = durationNanos == 0 ? 0 : latencyNanos.length * 1_000_000_000.0 / durationNanos;
+    }
+
+
+    /**
+     * Get the name of the scenario.
+     *
+     * @return The name
+     */
+    public String getScenario ()
+    {
+        return this.scenario;
+    }
+
+
+    /**
+     * Get a percentile of the latencies.
+     *
+     * @param percentile The percentile, e.g. 99.9
+     * @return The latency in microseconds
+     */
+    public double getPercentileMicros (final double percentile)
+    {
+        if (this.sortedNanos.length == 0)
+            return 0;
+        final int index = (int) Math.ceil (percentile / 100.0 * this.sortedNanos.length) - 1;
+        return this.sortedNanos[Math.max (0, Math.min (index, this.sortedNanos.length - 1))] / 1000.0;
+    }
+
+
+    /**
+     * Get the throughput.
+     *
+     * @return The number of dialogs per second
+     */
+    public double getThroughput ()
+    {
+        return this.throughput;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString ()
+    {
+        return String.format ("%-40s n=%7d  p50=%10.1f us  p99=%10.1f us  p999=%10.1f us  %10.1f ops/s", this.scenario, Integer.valueOf (this.sortedNanos.length), Double.valueOf (this.getPercentileMicros (50)), Double.valueOf (this.getPercentileMicros (99)), Double.valueOf (this.getPercentileMicros (99.9)), Double.valueOf (this.throughput));
+    }
+}
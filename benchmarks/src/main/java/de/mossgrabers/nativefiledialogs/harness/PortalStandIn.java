@@ -0,0 +1,157 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.harness;
+
+import de.mossgrabers.nativefiledialogs.linux.PortalFileDialogs;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusConnection;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusMessage;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusVariant;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A stand-in for the file chooser of the XDG desktop portal, which answers immediately (or after
+ * STUB_DELAY seconds) like a user who selects a file. It registers the portal name on the bus,
+ * therefore run it only on a private bus, e.g. with 'dbus-run-session'. The selected files are the
+ * same as the ones of the zenity stub to make the latencies comparable.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class PortalStandIn implements Closeable
+{
+    private static final String            PROPERTIES       = "org.freedesktop.DBus.Properties";
+    private static final int               VERSION          = 4;
+    private static final int               RESPONSE_SUCCESS = 0;
+    private static final int               RESPONSE_CANCEL  = 1;
+    private static final List<String>      SINGLE_FILE      = Collections.singletonList ("file:///tmp/stub/sample.wav");
+    private static final List<String>      SEVERAL_FILES    = Arrays.asList ("file:///tmp/stub/sample1.wav", "file:///tmp/stub/sample2.wav", "file:///tmp/stub/sample3.wav");
+    private static final List<String>      FOLDER           = Collections.singletonList ("file:///tmp/stub");
+
+    private final DBusConnection           connection;
+    private final long                     delayMillis;
+    private final ScheduledExecutorService responder;
+
+    /**
+     * Constructor. Registers the portal on the bus.
+     *
+     * @param connection The connection to a private bus
+     * @throws IOException The portal name is already owned, e.g. this is not a private bus
+     */
+    public PortalStandIn (final DBusConnection connection) throws IOException
+    {
+        this.connection = connection;
+
+        final String delay = System.getenv ("STUB_DELAY");
+        this.delayMillis = delay == null || delay.isBlank () ? 0 : (long) (Double.parseDouble (delay) * 1000);
+        this.responder = Executors.newSingleThreadScheduledExecutor (runnable -> {
+            final Thread thread = new Thread (runnable, "Portal stand-in");
+            thread.setDaemon (true);
+            return thread;
+        });
+
+        connection.setMethodHandler (this::handle);
+        connection.requestName (PortalFileDialogs.PORTAL_NAME);
+    }
+
+
+    /**
+     * Run the stand-in until the process is terminated.
+     *
+     * @param args Not used
+     * @throws Exception Could not register the portal
+     */
+    public static void main (final String [] args) throws Exception
+    {
+        try (final PortalStandIn standIn = new PortalStandIn (DBusConnection.openSessionBus ()))
+        {
+            System.out.println ("The file chooser portal stand-in is running.");
+            Thread.sleep (Long.MAX_VALUE);
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void close () throws IOException
+    {
+        this.responder.shutdownNow ();
+        this.connection.close ();
+    }
+
+
+    private DBusMessage handle (final DBusMessage call) throws IOException
+    {
+        if (PROPERTIES.equals (call.getInterface ()) && "Get".equals (call.getMember ()))
+        {
+            if (!PortalFileDialogs.FILE_CHOOSER.equals (call.getArgument (0)) || !"version".equals (call.getArgument (1)))
+                return null;
+            return DBusMessage.methodReturn (call, "v", new DBusVariant ("u", Integer.valueOf (VERSION)));
+        }
+
+        // Used by GTK to read the version
+        if (PROPERTIES.equals (call.getInterface ()) && "GetAll".equals (call.getMember ()))
+        {
+            if (!PortalFileDialogs.FILE_CHOOSER.equals (call.getArgument (0)))
+                return null;
+            return DBusMessage.methodReturn (call, "a{sv}", Collections.singletonMap ("version", new DBusVariant ("u", Integer.valueOf (VERSION))));
+        }
+
+        if (PortalFileDialogs.REQUEST.equals (call.getInterface ()) && "Close".equals (call.getMember ()))
+        {
+            this.respond (call.getSender (), call.getPath (), RESPONSE_CANCEL, Collections.emptyList ());
+            return DBusMessage.methodReturn (call, "");
+        }
+
+        if (!PortalFileDialogs.FILE_CHOOSER.equals (call.getInterface ()))
+            return null;
+
+        final List<String> uris;
+        final Map<?, ?> options = (Map<?, ?>) call.getArgument (2);
+        switch (call.getMember ())
+        {
+            case "OpenFile":
+                if (Boolean.TRUE.equals (DBusVariant.getValue (options, "directory", "b")))
+                    uris = FOLDER;
+                else
+                    uris = Boolean.TRUE.equals (DBusVariant.getValue (options, "multiple", "b")) ? SEVERAL_FILES : SINGLE_FILE;
+                break;
+
+            case "SaveFile":
+                uris = SINGLE_FILE;
+                break;
+
+            default:
+                return null;
+        }
+
+        final Object token = DBusVariant.getValue (options, "handle_token", "s");
+        final String handle = PortalFileDialogs.REQUEST_PATH_PREFIX + call.getSender ().substring (1).replace ('.', '_') + "/" + (token == null ? "t" + call.getSerial () : token);
+        this.responder.schedule ( () -> this.respond (call.getSender (), handle, RESPONSE_SUCCESS, uris), this.delayMillis, TimeUnit.MILLISECONDS);
+        return DBusMessage.methodReturn (call, "o", handle);
+    }
+
+
+    private void respond (final String sender, final String handle, final int code, final List<String> uris)
+    {
+        final Map<String, DBusVariant> results = uris.isEmpty () ? Collections.emptyMap () : Collections.singletonMap ("uris", new DBusVariant ("as", uris));
+        try
+        {
+            this.connection.send (DBusMessage.signal (sender, handle, PortalFileDialogs.REQUEST, "Response", "ua{sv}", Integer.valueOf (code), results));
+        }
+        catch (final IOException ex)
+        {
+            // The caller is gone
+        }
+    }
+}
@@ -0,0 +1,144 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.harness;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+
+/**
+ * Measures the time-to-first-dialog of a new JVM, which opens one dialog with the stub helpers
+ * and exits (see {@link FirstDialog}). The JVM is started without class data sharing, with the
+ * default CDS archive of the JDK and with the AppCDS archive of the library. The archive is taken
+ * from the unpacked release of the appcds module, which contains the library jars, the archive and
+ * the class path for which it was created.
+ * <p>
+ * The modes are run alternately to spread out disturbances. The AppCDS mode uses -Xshare:on, so
+ * that the harness fails instead of silently measuring without the archive, e.g. if the JDK is
+ * not the one which created it.
+ * <p>
+ * System properties:
+ * <ul>
+ * <li>startup.directory - the unpacked release of the appcds module (default target/appcds)</li>
+ * <li>startup.runs - the number of JVM starts per mode (default 20)</li>
+ * </ul>
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class StartupHarness
+{
+    private static final int WARM_UP_RUNS = 2;
+
+
+    /**
+     * Constructor.
+     */
+    private StartupHarness ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * The entry function.
+     *
+     * @param args Not used
+     * @throws Exception Could not run the harness
+     */
+    public static void main (final String [] args) throws Exception
+    {
+        final Path directory = Paths.get (System.getProperty ("startup.directory", "target/appcds")).toAbsolutePath ();
+        final int runs = Integer.getInteger ("startup.runs", 20).intValue ();
+
+        final String libraryClasspath = Files.readString (directory.resolve ("classpath.txt"), StandardCharsets.UTF_8).trim ();
+        final String harnessClasses = Paths.get (FirstDialog.class.getProtectionDomain ().getCodeSource ().getLocation ().toURI ()).toString ();
+        final String classpath = libraryClasspath + File.pathSeparator + harnessClasses;
+
+        final Map<String, List<String>> modes = new LinkedHashMap<> ();
+        modes.put ("startup.noCDS", List.of ("-Xshare:off"));
+        modes.put ("startup.jdkCDS", List.of ());
+        modes.put ("startup.appCDS", List.of ("-Xshare:on", "-XX:SharedArchiveFile=nativefiledialogs.jsa"));
+
+        final Map<String, long []> latencies = new LinkedHashMap<> ();
+        for (final String mode: modes.keySet ())
+            latencies.put (mode, new long [runs]);
+
+        for (int run = -WARM_UP_RUNS; run < runs; run++)
+        {
+            for (final Map.Entry<String, List<String>> mode: modes.entrySet ())
+            {
+                final long latency = startFirstDialog (directory, classpath, mode.getValue ());
+                if (run >= 0)
+                    latencies.get (mode.getKey ())[run] = latency;
+            }
+        }
+
+        final List<LatencyStatistics> results = new ArrayList<> ();
+        for (final Map.Entry<String, long []> entry: latencies.entrySet ())
+        {
+            // The throughput is the number of JVM starts per second of the mode
+            final LatencyStatistics statistics = new LatencyStatistics (entry.getKey (), entry.getValue (), LongStream.of (entry.getValue ()).sum ());
+            System.out.println (statistics);
+            results.add (statistics);
+        }
+
+        final double jdk = results.get (1).getPercentileMicros (50);
+        final double app = results.get (2).getPercentileMicros (50);
+        System.out.println (String.format (Locale.US, "AppCDS p50 time-to-first-dialog is %.1f ms (%.0f%%) faster than with the JDK archive", Double.valueOf ((jdk - app) / 1000.0), Double.valueOf (jdk == 0 ? 0 : (jdk - app) * 100.0 / jdk)));
+    }
+
+
+    /**
+     * Start a JVM which opens one dialog.
+     *
+     * @param directory The working directory, which contains the library jars and the archive
+     * @param classpath The class path
+     * @param options The additional JVM options
+     * @return The time until the dialog returned its result, in nanoseconds
+     * @throws IOException Could not start the JVM or the JVM failed
+     * @throws InterruptedException Interrupted while waiting for the JVM to exit
+     */
+    private static long startFirstDialog (final Path directory, final String classpath, final List<String> options) throws IOException, InterruptedException
+    {
+        final List<String> command = new ArrayList<> ();
+        command.add (Paths.get (System.getProperty ("java.home"), "bin", "java").toString ());
+        command.addAll (options);
+        command.add ("-classpath");
+        command.add (classpath);
+        command.add (FirstDialog.class.getName ());
+
+        final ProcessBuilder builder = new ProcessBuilder (command).directory (directory.toFile ()).redirectErrorStream (true);
+        final long start = System.nanoTime ();
+        final Process process = builder.start ();
+        final List<String> output = new ArrayList<> ();
+        long latency = 0;
+        try (final BufferedReader reader = new BufferedReader (new InputStreamReader (process.getInputStream (), StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine ()) != null)
+            {
+                if (latency == 0)
+                    latency = System.nanoTime () - start;
+                output.add (line);
+            }
+        }
+        final int exitCode = process.waitFor ();
+        if (exitCode != 0 || output.isEmpty ())
+            throw new IOException ("The JVM with " + options + " failed with exit code " + exitCode + ": " + String.join ("\n", output));
+        return latency;
+    }
+}
@@ -0,0 +1,82 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the assembly of the zenity command line.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZenityArgumentsBenchmark
+{
+    private static final FilterSet FILTERS = FilterSet.of (new FileFilter ("Kontakt", "nki", "nkm", "nkb"), new FileFilter ("Audio", "wav", "aif", "aiff", "flac", "ogg"), new FileFilter ("All files", "*"));
+
+    private File                   directory;
+    private NativeLinuxFileDialogs dialogs;
+
+    /**
+     * Create the dialogs with a fake zenity, which is never executed.
+     */
+    @Setup
+    public void setup ()
+    {
+        final ToolCapabilities zenity = new ToolCapabilities ("zenity", new File ("/usr/bin/zenity"), "3.44.0", Set.of (ToolCapabilities.OPTION_MULTIPLE, ToolCapabilities.OPTION_SEPARATOR, ToolCapabilities.OPTION_CONFIRM_OVERWRITE));
+        this.directory = new File (System.getProperty ("java.io.tmpdir"));
+        this.dialogs = new NativeLinuxFileDialogs (this.directory, zenity);
+    }
+
+
+    /**
+     * The arguments of an open dialog with filters.
+     *
+     * @return The arguments
+     * @throws IOException Cannot happen
+     */
+    @Benchmark
+    public List<String> openDialog () throws IOException
+    {
+        return this.dialogs.createParameters (false, false, "Open sample...", this.directory, FILTERS);
+    }
+
+
+    /**
+     * The arguments of a save dialog with filters.
+     *
+     * @return The arguments
+     * @throws IOException Cannot happen
+     */
+    @Benchmark
+    public List<String> saveDialog () throws IOException
+    {
+        return this.dialogs.createParameters (false, true, "Save sample...", this.directory, FILTERS);
+    }
+}
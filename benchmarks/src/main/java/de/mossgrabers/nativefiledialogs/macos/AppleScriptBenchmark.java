@@ -0,0 +1,73 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.macos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures building the AppleScript commands.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppleScriptBenchmark
+{
+    private File directory;
+
+    /**
+     * Use an existing start directory.
+     */
+    @Setup
+    public void setup ()
+    {
+        this.directory = new File (System.getProperty ("java.io.tmpdir"));
+    }
+
+
+    /**
+     * Add title and directory for a file dialog.
+     *
+     * @return The script
+     */
+    @Benchmark
+    public String fileDialog ()
+    {
+        final StringBuilder sb = new StringBuilder ();
+        NativeMacosFileDialogs.addTitleAndDirectory (sb, "Open sample...", this.directory, false);
+        return sb.toString ();
+    }
+
+
+    /**
+     * Add title, directory and name for a save dialog.
+     *
+     * @return The script
+     */
+    @Benchmark
+    public String saveDialog ()
+    {
+        final StringBuilder sb = new StringBuilder ();
+        NativeMacosFileDialogs.addTitleAndDirectory (sb, "Save sample...", this.directory, true);
+        return sb.toString ();
+    }
+}
@@ -0,0 +1,54 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.windows;
+
+import de.mossgrabers.nativefiledialogs.FileFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures building the filter string of the Windows dialogs. Runs on all platforms since no
+ * native code is called.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterStringBenchmark
+{
+    private static final FileFilter [] FILTERS =
+    {
+        new FileFilter ("Kontakt", "nki", "nkm", "nkb"),
+        new FileFilter ("Audio", "wav", "aif", "aiff", "flac", "ogg"),
+        new FileFilter ("All files", "*")
+    };
+
+
+    /**
+     * Build the filter string.
+     *
+     * @return The filter string
+     */
+    @Benchmark
+    public String buildFilterString ()
+    {
+        return NativeWindowsFileDialogs.buildFilterString (FILTERS);
+    }
+}
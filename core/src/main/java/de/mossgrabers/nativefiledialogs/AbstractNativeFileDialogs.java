@@ -0,0 +1,809 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+
+/**
+ * Abstract implementation of the file selection dialogs. All dialog calls end up in
+ * {@link #select(DialogRequest)}, which traces the call and lets the platform display the dialog
+ * with {@link #showDialog(DialogRequest, File)}.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public abstract class AbstractNativeFileDialogs implements NativeFileDialogs
+{
+    private static final Executor      DEFAULT_EXECUTOR = createDefaultExecutor ();
+    private static final PathProbe     PATH_PROBE       = new PathProbe ();
+    /** The maximum number of entries of the start directory, which are read by the warm-up. */
+    private static final int           WARM_UP_ENTRIES  = 1000;
+    private static final FileFilter [] WARM_UP_FILTERS  =
+    {
+        new FileFilter ("Audio", "wav", "aif", "flac"),
+        new FileFilter ("All files", "*")
+    };
+
+    protected File                     currentDirectory;
+    private Executor                   executor         = DEFAULT_EXECUTOR;
+    private volatile RecentDirectories recentDirectories;
+    private volatile FolderIndex       folderIndex;
+    private volatile DialogRecorder    recorder;
+    private volatile DialogScheduler   scheduler;
+    private volatile Duration          timeout;
+    private final List<DialogListener> listeners        = new CopyOnWriteArrayList<> ();
+    private CompletableFuture<Void>    warmUp;
+    private CompletableFuture<Void>    toolkitWarmUp;
+
+
+    /** A step of the warm-up. */
+    @FunctionalInterface
+    private interface WarmUpTask
+    {
+        /**
+         * Run the step.
+         *
+         * @throws IOException The backend cannot display dialogs
+         */
+        void run () throws IOException;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param currentDirectory The initial directory, may be null
+     */
+    protected AbstractNativeFileDialogs (final File currentDirectory)
+    {
+        // Keep an unreachable directory, it is checked again with each dialog
+        final File probed = PATH_PROBE.resolve (currentDirectory);
+        this.currentDirectory = probed != null && probed.isFile () ? probed.getParentFile () : currentDirectory;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setCurrentDirectory (final File currentDirectory)
+    {
+        this.currentDirectory = currentDirectory;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectFile () throws IOException
+    {
+        return this.selectFile ((String) null);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectFile (final FileFilter... filters) throws IOException
+    {
+        return this.selectFile ((String) null, filters);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectFile (final String title, final FileFilter... filters) throws IOException
+    {
+        return getFirst (this.select (new DialogRequest (DialogKind.OPEN_FILE, title, filters)));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public List<File> selectFiles (final String title, final FileFilter... filters) throws IOException
+    {
+        return this.select (new DialogRequest (DialogKind.OPEN_FILES, title, filters));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Stream<Path> selectFilesAsStream (final String title, final FileFilter... filters) throws IOException
+    {
+        return this.selectAsStream (new DialogRequest (DialogKind.OPEN_FILES, title, filters));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Stream<Path> selectAsStream (final DialogRequest request) throws IOException
+    {
+        final DialogScheduler scheduler = this.scheduler;
+        if (scheduler == null)
+            return this.selectAsStreamNow (request);
+        return scheduler.executeStream (this.getOwner (request), request, () -> this.selectAsStreamNow (request));
+    }
+
+
+    /**
+     * Display a dialog, whose result is streamed, without scheduling.
+     *
+     * @param request The parameters of the dialog
+     * @return The lazily populated stream of the selected files, empty if the dialog was canceled
+     * @throws IOException Could not start the dialog
+     */
+    private Stream<Path> selectAsStreamNow (final DialogRequest request) throws IOException
+    {
+        final DialogTrace trace = DialogTrace.start (this.getBackendName (), request, this.listeners);
+        final Stream<Path> paths;
+        try
+        {
+            DialogDeadline.start (this.timeout);
+            paths = this.showStreamingDialog (request, this.getStartDirectory (request));
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            trace.finish (-1, true);
+            throw ex;
+        }
+        finally
+        {
+            DialogDeadline.clear ();
+            // The paths are read on the thread which consumes the stream
+            trace.detach ();
+        }
+
+        final AtomicInteger count = new AtomicInteger ();
+        final AtomicReference<Path> firstPath = new AtomicReference<> ();
+        final FilterMatcher matcher = FilterMatcher.of (request.getFilterSet ());
+        final Stream<Path> matchingPaths = matcher.matchesAll () ? paths : paths.filter (path -> matcher.matches (path.toString ()));
+        return matchingPaths.peek (path -> {
+            if (count.getAndIncrement () == 0)
+                firstPath.set (path);
+        }).onClose ( () -> {
+            final Path path = firstPath.get ();
+            if (path != null)
+                this.remember (request, path.toFile ());
+            trace.finish (count.get (), false);
+        });
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectNewFile () throws IOException
+    {
+        return this.selectNewFile ((String) null);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectNewFile (final FileFilter... filters) throws IOException
+    {
+        return this.selectNewFile ((String) null, filters);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectFolder () throws IOException
+    {
+        return this.selectFolder ((String) null);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectNewFile (final String title, final FileFilter... filters) throws IOException
+    {
+        return getFirst (this.select (new DialogRequest (DialogKind.SAVE_FILE, title, filters)));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File selectFolder (final String title) throws IOException
+    {
+        return getFirst (this.select (new DialogRequest (DialogKind.SELECT_FOLDER, title)));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Stream<Path> selectFolderAndScan (final String title, final FileFilter... filters) throws IOException
+    {
+        return this.selectFolderAndScan (title, new ScanOptions (), filters);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Stream<Path> selectFolderAndScan (final String title, final ScanOptions options, final FileFilter... filters) throws IOException
+    {
+        final File folder = this.selectFolder (title);
+        if (folder == null)
+            return Stream.empty ();
+        final FolderIndex index = this.folderIndex;
+        if (index == null)
+            return FolderScanner.scan (folder.toPath (), FilterSet.of (filters), options);
+        return index.get (folder.toPath (), FilterSet.of (filters), options);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public List<File> select (final DialogRequest request) throws IOException
+    {
+        final DialogScheduler scheduler = this.scheduler;
+        if (scheduler == null)
+            return this.selectNow (request);
+        return scheduler.execute (this.getOwner (request), request, () -> this.selectNow (request));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setTimeout (final Duration timeout)
+    {
+        this.timeout = timeout;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setScheduler (final DialogScheduler scheduler)
+    {
+        this.scheduler = scheduler;
+    }
+
+
+    /**
+     * Display a dialog without scheduling.
+     *
+     * @param request The parameters of the dialog
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    private List<File> selectNow (final DialogRequest request) throws IOException
+    {
+        final DialogTrace trace = DialogTrace.start (this.getBackendName (), request, this.listeners);
+        final DialogRecorder dialogRecorder = this.recorder;
+        final long start = System.nanoTime ();
+        try
+        {
+            DialogDeadline.start (this.timeout);
+            final List<File> files = applyFilters (request, this.showDialog (request, this.getStartDirectory (request)));
+            if (!files.isEmpty ())
+                this.remember (request, files.get (0));
+            trace.finish (files.size (), false);
+            if (dialogRecorder != null)
+                dialogRecorder.record (request, System.nanoTime () - start, files);
+            return files;
+        }
+        catch (final IOException ex)
+        {
+            trace.finish (-1, true);
+            if (dialogRecorder != null)
+                dialogRecorder.record (request, System.nanoTime () - start, ex);
+            throw ex;
+        }
+        catch (final RuntimeException ex)
+        {
+            trace.finish (-1, true);
+            throw ex;
+        }
+        finally
+        {
+            DialogDeadline.clear ();
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setRecentDirectories (final RecentDirectories recentDirectories)
+    {
+        this.recentDirectories = recentDirectories;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setFolderIndex (final FolderIndex folderIndex)
+    {
+        this.folderIndex = folderIndex;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setRecorder (final DialogRecorder recorder)
+    {
+        this.recorder = recorder;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void addDialogListener (final DialogListener listener)
+    {
+        this.listeners.add (listener);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeDialogListener (final DialogListener listener)
+    {
+        this.listeners.remove (listener);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void setExecutor (final Executor executor)
+    {
+        this.executor = executor == null ? DEFAULT_EXECUTOR : executor;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<File> selectFileAsync (final String title, final FileFilter... filters)
+    {
+        return this.runAsync ( () -> this.selectFile (title, filters));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<File> selectNewFileAsync (final String title, final FileFilter... filters)
+    {
+        return this.runAsync ( () -> this.selectNewFile (title, filters));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<File> selectFolderAsync (final String title)
+    {
+        return this.runAsync ( () -> this.selectFolder (title));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized CompletableFuture<Void> warmUp (final boolean startToolkit)
+    {
+        if (this.warmUp == null)
+            this.warmUp = runWarmUp (this::warmUpNow);
+        if (!startToolkit)
+            return this.warmUp;
+
+        if (this.toolkitWarmUp == null)
+        {
+            final CompletableFuture<Void> preparation = this.warmUp;
+            this.toolkitWarmUp = runWarmUp ( () -> {
+                preparation.join ();
+                this.startToolkit ();
+            });
+        }
+        return this.toolkitWarmUp;
+    }
+
+
+    /**
+     * Prepare the first dialog.
+     *
+     * @throws IOException The backend cannot display dialogs
+     */
+    private void warmUpNow () throws IOException
+    {
+        DialogTrace.registerEvents ();
+        this.warmUpPlatform ();
+
+        // The backends might allocate native resources or look up windows, prepare each kind once
+        final File directory = PATH_PROBE.resolve (this.currentDirectory);
+        for (final DialogKind kind: DialogKind.values ())
+            this.prepareDialog (new DialogRequest (kind, "Warm-up", WARM_UP_FILTERS), directory);
+
+        readDirectory (directory != null && !directory.isDirectory () ? directory.getParentFile () : directory);
+    }
+
+
+    /**
+     * Run a step of the warm-up on a daemon thread.
+     *
+     * @param task The step
+     * @return The future which completes when the step is finished
+     */
+    private static CompletableFuture<Void> runWarmUp (final WarmUpTask task)
+    {
+        final CompletableFuture<Void> future = new CompletableFuture<> ();
+        final Thread thread = new Thread ( () -> {
+            try
+            {
+                task.run ();
+                future.complete (null);
+            }
+            catch (final Exception | LinkageError ex)
+            {
+                future.completeExceptionally (ex);
+            }
+        }, "NativeFileDialogs Warm-up");
+        thread.setDaemon (true);
+        thread.start ();
+        return future;
+    }
+
+
+    /**
+     * Read the entries of a directory and their attributes like a dialog does, which fills the
+     * caches of the file system.
+     *
+     * @param directory The directory, may be null
+     */
+    private static void readDirectory (final File directory)
+    {
+        if (directory == null || !directory.isDirectory ())
+            return;
+
+        int count = 0;
+        try (final DirectoryStream<Path> entries = Files.newDirectoryStream (directory.toPath ()))
+        {
+            for (final Path entry: entries)
+            {
+                Files.readAttributes (entry, BasicFileAttributes.class);
+                count++;
+                if (count == WARM_UP_ENTRIES)
+                    break;
+            }
+        }
+        catch (final IOException | DirectoryIteratorException ex)
+        {
+            // The dialog displays what it can read, the warm-up is only an optimization
+        }
+    }
+
+
+    /**
+     * Run a dialog call on the configured executor. Cancelling the future interrupts the thread
+     * which runs the call, which closes the dialog of a helper process.
+     *
+     * @param call The dialog call
+     * @return The future which receives the result of the call
+     */
+    private <T> CompletableFuture<T> runAsync (final Callable<T> call)
+    {
+        final CompletableFuture<T> future = new CompletableFuture<> ();
+        final AsyncCall<T> asyncCall = new AsyncCall<> (call, future);
+        future.whenComplete ( (result, ex) -> {
+            if (future.isCancelled ())
+                asyncCall.interrupt ();
+        });
+        try
+        {
+            this.executor.execute (asyncCall);
+        }
+        catch (final RejectedExecutionException ex)
+        {
+            future.completeExceptionally (ex);
+        }
+        return future;
+    }
+
+
+    /**
+     * Display a dialog.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    protected abstract List<File> showDialog (DialogRequest request, File directory) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting several files and stream the selected files. Streams the
+     * result of showDialog. Override if the platform can provide the paths while they are read.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The lazily populated stream of the selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    protected Stream<Path> showStreamingDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        return this.showDialog (request, directory).stream ().map (File::toPath);
+    }
+
+
+    /**
+     * Prepare the platform for the first dialog, e.g. look up the helper tool. Called once on the
+     * warm-up thread.
+     *
+     * @throws IOException The platform cannot display dialogs
+     */
+    protected void warmUpPlatform () throws IOException
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Prepare a dialog without displaying it, e.g. create the command line of the helper. Called
+     * once on the warm-up thread for each kind of dialog.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     */
+    protected void prepareDialog (final DialogRequest request, final File directory)
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Start the toolkit of the helper, e.g. by starting the helper once. Called on the warm-up
+     * thread after the other preparations, if requested.
+     *
+     * @throws IOException Could not start the toolkit
+     */
+    protected void startToolkit () throws IOException
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Get the owner of a dialog for scheduling, only one dialog of an owner is displayed at a
+     * time. This is the key of the request or, if there is none, this instance.
+     *
+     * @param request The parameters of the dialog
+     * @return The owner
+     */
+    protected Object getOwner (final DialogRequest request)
+    {
+        return request.getKey () == null ? this : request.getKey ();
+    }
+
+
+    /**
+     * Get the name of the backend, which displays the dialogs, for tracing.
+     *
+     * @return The name
+     */
+    protected String getBackendName ()
+    {
+        return this.getClass ().getSimpleName ();
+    }
+
+
+    /**
+     * Enforce the filters of the request, since not all platforms support them (fully). Removes
+     * selected files, which do not match. A new file, which does not match, is rejected as well
+     * instead of changing its name, since the user confirmed the name (and maybe overwriting it)
+     * in the dialog.
+     *
+     * @param request The request
+     * @param files The selected files
+     * @return The matching files
+     */
+    private static List<File> applyFilters (final DialogRequest request, final List<File> files)
+    {
+        final FilterMatcher matcher = FilterMatcher.of (request.getFilterSet ());
+        if (matcher.matchesAll () || files.isEmpty ())
+            return files;
+
+        switch (request.getKind ())
+        {
+            case SAVE_FILE:
+                return matcher.matches (files.get (0)) ? files : new ArrayList<> ();
+
+            case OPEN_FILE:
+            case OPEN_FILES:
+                int index = 0;
+                while (index < files.size () && matcher.matches (files.get (index)))
+                    index++;
+                if (index == files.size ())
+                    return files;
+                final List<File> matchingFiles = new ArrayList<> (files.subList (0, index));
+                for (int i = index + 1; i < files.size (); i++)
+                {
+                    final File selectedFile = files.get (i);
+                    if (matcher.matches (selectedFile))
+                        matchingFiles.add (selectedFile);
+                }
+                return matchingFiles;
+
+            default:
+                return files;
+        }
+    }
+
+
+    /**
+     * Get the directory in which a dialog starts. This is the last directory of the dialog, if the
+     * request has a key and it is stored, otherwise the current directory.
+     *
+     * @param request The request
+     * @return The directory (or file for pre-selection), may be null
+     */
+    private File getStartDirectory (final DialogRequest request)
+    {
+        final RecentDirectories recent = this.recentDirectories;
+        if (recent != null && request.getKey () != null)
+        {
+            final File directory = recent.get (request.getKey ());
+            if (directory != null)
+                return PATH_PROBE.resolve (directory);
+        }
+        return PATH_PROBE.resolve (this.currentDirectory);
+    }
+
+
+    /**
+     * Use the folder of the selected file as the start of the next dialogs. Only the file of a save
+     * dialog is kept, to pre-select it. A selected folder is kept as well.
+     *
+     * @param request The request of the dialog
+     * @param selectedFile The first selected file
+     */
+    private void remember (final DialogRequest request, final File selectedFile)
+    {
+        File start = selectedFile;
+        if (request.getKind () == DialogKind.OPEN_FILE || request.getKind () == DialogKind.OPEN_FILES)
+        {
+            final File parent = selectedFile.getParentFile ();
+            if (parent != null)
+                start = parent;
+        }
+        this.currentDirectory = start;
+
+        final RecentDirectories recent = this.recentDirectories;
+        if (recent != null && request.getKey () != null)
+            recent.put (request.getKey (), start);
+    }
+
+
+    private static File getFirst (final List<File> files)
+    {
+        return files.isEmpty () ? null : files.get (0);
+    }
+
+
+    /**
+     * Creates the default executor for the asynchronous dialog calls. Uses a virtual thread per
+     * call if the runtime supports it (Java 21+), otherwise a pool of daemon threads.
+     *
+     * @return The executor
+     */
+    private static Executor createDefaultExecutor ()
+    {
+        try
+        {
+            final Method method = Executors.class.getMethod ("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke (null);
+        }
+        catch (final ReflectiveOperationException ex)
+        {
+            return Executors.newCachedThreadPool (runnable -> {
+                final Thread thread = new Thread (runnable, "NativeFileDialogs");
+                thread.setDaemon (true);
+                return thread;
+            });
+        }
+    }
+
+
+    /**
+     * Execute a command line process.
+     *
+     * @param args The arguments of the process.
+     * @return The read output
+     * @throws IOException Could not execute the process
+     */
+    protected static ProcessResult executeProcess (final String [] args) throws IOException
+    {
+        return ProcessRunner.execute (args);
+    }
+
+
+    /**
+     * Get the time which is left until the timeout of the dialog running on the current thread.
+     * Backends, which do not use the process runner, must close their dialog when it has passed.
+     *
+     * @return The remaining time, zero if the timeout has passed, null if there is no timeout
+     */
+    protected static Duration getRemainingTime ()
+    {
+        return DialogDeadline.remaining ();
+    }
+
+
+    /**
+     * Runs a dialog call and completes a future with its result. Remembers the executing thread
+     * to be able to interrupt it.
+     */
+    private static class AsyncCall<T> implements Runnable
+    {
+        private final Callable<T>          call;
+        private final CompletableFuture<T> future;
+        private Thread                     thread;
+
+        /**
+         * Constructor.
+         *
+         * @param call The dialog call
+         * @param future The future to complete
+         */
+        AsyncCall (final Callable<T> call, final CompletableFuture<T> future)
+        {
+            this.call = call;
+            this.future = future;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void run ()
+        {
+            synchronized (this)
+            {
+                // Cancelled before it started
+                if (this.future.isDone ())
+                    return;
+                this.thread = Thread.currentThread ();
+            }
+
+            try
+            {
+                this.future.complete (this.call.call ());
+            }
+            catch (final Exception ex)
+            {
+                this.future.completeExceptionally (ex);
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    this.thread = null;
+                    // Do not leak an interrupt of a late cancel to the next task of a pooled thread
+                    Thread.interrupted ();
+                }
+            }
+        }
+
+
+        /**
+         * Interrupt the thread which runs the call, if any.
+         */
+        synchronized void interrupt ()
+        {
+            if (this.thread != null)
+                this.thread.interrupt ();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * File dialogs which are displayed by a dialog backend.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class BackendFileDialogs extends AbstractNativeFileDialogs implements Closeable
+{
+    private final DialogBackend backend;
+
+    /**
+     * Creates a new file dialog instance with the initial directory.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @param backend The backend which displays the dialogs
+     */
+    public BackendFileDialogs (final File currentDirectory, final DialogBackend backend)
+    {
+        super (currentDirectory);
+
+        this.backend = backend;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        return this.backend.show (request, directory);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void startToolkit () throws IOException
+    {
+        this.backend.start ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getBackendName ()
+    {
+        return this.backend.getClass ().getSimpleName ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void close () throws IOException
+    {
+        this.backend.close ();
+    }
+}
@@ -0,0 +1,58 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+
+/**
+ * Interface for a backend which displays the dialogs. In contrast to the NativeFileDialogs
+ * interface a backend gets all parameters of a dialog with each call and might keep resources
+ * (e.g. a helper process) open between the calls.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public interface DialogBackend extends Closeable
+{
+    /**
+     * Display a dialog.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    List<File> show (DialogRequest request, File directory) throws IOException;
+
+
+    /**
+     * Start the resources of the backend in advance, e.g. the helper process. Called by the
+     * warm-up, if the toolkit should be started.
+     *
+     * @throws IOException Could not start the backend
+     */
+    default void start () throws IOException
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Get the time which is left until the timeout of the dialog running on the current thread.
+     * Backends, which do not use the process runner, must close their dialog when it has passed
+     * and fail with a DialogTimeoutException.
+     *
+     * @return The remaining time, zero if the timeout has passed, null if there is no timeout
+     */
+    static Duration getRemainingTime ()
+    {
+        return DialogDeadline.remaining ();
+    }
+}
@@ -0,0 +1,64 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.time.Duration;
+
+
+/**
+ * The point in time until which the dialog running on the current thread must be closed. The
+ * process runner reads it to limit the run time of the helper processes.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+final class DialogDeadline
+{
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<> ();
+
+    /**
+     * Constructor.
+     */
+    private DialogDeadline ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Set the deadline of the dialog on the current thread.
+     *
+     * @param timeout The maximum time from now, null for no limit
+     */
+    static void start (final Duration timeout)
+    {
+        if (timeout == null)
+            CURRENT.remove ();
+        else
+            CURRENT.set (Long.valueOf (System.nanoTime () + timeout.toNanos ()));
+    }
+
+
+    /**
+     * Remove the deadline from the current thread.
+     */
+    static void clear ()
+    {
+        CURRENT.remove ();
+    }
+
+
+    /**
+     * Get the time which is left until the deadline of the current thread.
+     *
+     * @return The remaining time, zero if the deadline has passed, null if there is no deadline
+     */
+    static Duration remaining ()
+    {
+        final Long deadline = CURRENT.get ();
+        if (deadline == null)
+            return null;
+        return Duration.ofNanos (Math.max (0, deadline.longValue () - System.nanoTime ()));
+    }
+}
@@ -0,0 +1,22 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+/**
+ * The different kinds of file dialogs.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public enum DialogKind
+{
+    /** Select a file, which should be opened. */
+    OPEN_FILE,
+    /** Select several files, which should be opened. */
+    OPEN_FILES,
+    /** Select a file, which should be saved. */
+    SAVE_FILE,
+    /** Select a folder. */
+    SELECT_FOLDER
+}
@@ -0,0 +1,22 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+/**
+ * Callback interface to get the timings of each dialog, e.g. to feed them into a metrics system.
+ * The same timings are recorded as Java Flight Recorder events.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public interface DialogListener
+{
+    /**
+     * Called after a dialog was closed (or failed). Called on the thread which executed the
+     * dialog, therefore implementations should return quickly.
+     *
+     * @param timings The timings of the dialog
+     */
+    void dialogFinished (DialogTimings timings);
+}
@@ -0,0 +1,169 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Records the dialogs of a backend into a trace file, which can be replayed with the scripted
+ * backend (see de.mossgrabers.nativefiledialogs.script.ScriptedFileDialogs). Set the recorder
+ * with {@link NativeFileDialogs#setRecorder(DialogRecorder)}. The file is created with the first
+ * dialog, following recordings are appended. Each dialog is written as one line of tab separated
+ * fields:
+ *
+ * <pre>
+ * delay-in-ms  kind  key  outcome  path...
+ * </pre>
+ *
+ * The delay is the time the dialog was open, the kind is the name of the DialogKind, the key is
+ * empty if the request has none. The outcome is SELECT followed by the selected paths, CANCEL,
+ * TIMEOUT or FAIL followed by the error message. Lines starting with '#' are comments. Tabs and
+ * line breaks in the recorded texts are replaced by spaces.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogRecorder implements Closeable
+{
+    /** The first line of a trace file. */
+    public static final String FILE_HEADER = "# NFD-TRACE-1";
+    /** The outcome of a dialog in which files were selected. */
+    public static final String SELECT      = "SELECT";
+    /** The outcome of a canceled dialog. */
+    public static final String CANCEL      = "CANCEL";
+    /** The outcome of a dialog which was closed by the timeout. */
+    public static final String TIMEOUT     = "TIMEOUT";
+    /** The outcome of a dialog which failed. */
+    public static final String FAIL        = "FAIL";
+
+    private final Path         file;
+    private Writer             writer;
+    private boolean            isClosed    = false;
+
+
+    /**
+     * Constructor.
+     *
+     * @param file The trace file
+     */
+    public DialogRecorder (final Path file)
+    {
+        this.file = file;
+    }
+
+
+    /**
+     * Record a dialog in which files were selected or which was canceled.
+     *
+     * @param request The parameters of the dialog
+     * @param durationNanos The time the dialog was open
+     * @param files The selected files, empty if the dialog was canceled
+     */
+    public void record (final DialogRequest request, final long durationNanos, final List<File> files)
+    {
+        final StringBuilder line = startLine (request, durationNanos).append (files.isEmpty () ? CANCEL : SELECT);
+        for (final File f: files)
+            line.append ('\t').append (clean (f.getPath ()));
+        this.write (line);
+    }
+
+
+    /**
+     * Record a dialog which failed. Interrupted dialogs are not recorded, since they were not
+     * closed by the user.
+     *
+     * @param request The parameters of the dialog
+     * @param durationNanos The time the dialog was open
+     * @param error The error
+     */
+    public void record (final DialogRequest request, final long durationNanos, final IOException error)
+    {
+        if (error instanceof InterruptedIOException)
+            return;
+        final StringBuilder line = startLine (request, durationNanos);
+        if (error instanceof DialogTimeoutException)
+            line.append (TIMEOUT);
+        else
+            line.append (FAIL).append ('\t').append (clean (String.valueOf (error.getMessage ())));
+        this.write (line);
+    }
+
+
+    /**
+     * Close the trace file.
+     *
+     * @throws IOException Could not close the file
+     */
+    @Override
+    public synchronized void close () throws IOException
+    {
+        this.isClosed = true;
+        if (this.writer != null)
+        {
+            this.writer.close ();
+            this.writer = null;
+        }
+    }
+
+
+    private static StringBuilder startLine (final DialogRequest request, final long durationNanos)
+    {
+        final String key = request.getKey ();
+        return new StringBuilder (128).append (TimeUnit.NANOSECONDS.toMillis (durationNanos)).append ('\t').append (request.getKind ().name ()).append ('\t').append (key == null ? "" : clean (key)).append ('\t');
+    }
+
+
+    /**
+     * Write a line and flush it, so the trace is complete even if the application is killed.
+     * Errors are ignored, the recording must not break the dialogs.
+     *
+     * @param line The line
+     */
+    private synchronized void write (final CharSequence line)
+    {
+        if (this.isClosed)
+            return;
+        try
+        {
+            if (this.writer == null)
+            {
+                final boolean isNew = !Files.exists (this.file);
+                if (this.file.getParent () != null)
+                    Files.createDirectories (this.file.getParent ());
+                this.writer = Files.newBufferedWriter (this.file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (isNew)
+                    this.writer.append (FILE_HEADER).append ('\n');
+            }
+            this.writer.append (line).append ('\n');
+            this.writer.flush ();
+        }
+        catch (final IOException ex)
+        {
+            // The trace is only a diagnostic aid, try again with the next dialog
+        }
+    }
+
+
+    /**
+     * Replace the separator characters, which cannot be stored.
+     *
+     * @param text The text
+     * @return The cleaned text
+     */
+    private static String clean (final String text)
+    {
+        return text.replace ('\t', ' ').replace ('\n', ' ').replace ('\r', ' ');
+    }
+}
@@ -0,0 +1,142 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.util.Objects;
+
+
+/**
+ * The parameters of a dialog, which should be displayed.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogRequest
+{
+    private final DialogKind kind;
+    private final String     title;
+    private final String     key;
+    private final FilterSet  filters;
+
+    /**
+     * Constructor.
+     *
+     * @param kind The kind of the dialog
+     * @param title The title of the dialog, may be null
+     * @param filters Display only the files matching the given filters
+     */
+    public DialogRequest (final DialogKind kind, final String title, final FileFilter... filters)
+    {
+        this (kind, title, null, FilterSet.of (filters));
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param kind The kind of the dialog
+     * @param title The title of the dialog, may be null
+     * @param key Identifies the dialog in the application to remember its last directory, may be
+     *            null
+     * @param filters Display only the files matching the given filters
+     */
+    public DialogRequest (final DialogKind kind, final String title, final String key, final FileFilter... filters)
+    {
+        this (kind, title, key, FilterSet.of (filters));
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param kind The kind of the dialog
+     * @param title The title of the dialog, may be null
+     * @param key Identifies the dialog in the application to remember its last directory, may be
+     *            null
+     * @param filters Display only the files matching the given filters
+     */
+    public DialogRequest (final DialogKind kind, final String title, final String key, final FilterSet filters)
+    {
+        this.kind = kind;
+        this.title = title;
+        this.key = key;
+        this.filters = filters == null ? FilterSet.EMPTY : filters;
+    }
+
+
+    /**
+     * Get the kind of the dialog.
+     *
+     * @return The kind
+     */
+    public DialogKind getKind ()
+    {
+        return this.kind;
+    }
+
+
+    /**
+     * Get the title of the dialog.
+     *
+     * @return The title, may be null
+     */
+    public String getTitle ()
+    {
+        return this.title;
+    }
+
+
+    /**
+     * Get the key, which identifies the dialog in the application.
+     *
+     * @return The key, may be null
+     */
+    public String getKey ()
+    {
+        return this.key;
+    }
+
+
+    /**
+     * Get the file filters.
+     *
+     * @return A copy of the filters, never null
+     */
+    public FileFilter [] getFilters ()
+    {
+        return this.filters.getFilters ();
+    }
+
+
+    /**
+     * Get the file filters as a set, which caches the backend specific encodings.
+     *
+     * @return The filters, never null
+     */
+    public FilterSet getFilterSet ()
+    {
+        return this.filters;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode ()
+    {
+        return Objects.hash (this.kind, this.title, this.key, this.filters);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals (final Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof DialogRequest))
+            return false;
+        final DialogRequest other = (DialogRequest) obj;
+        return this.kind == other.kind && Objects.equals (this.title, other.title) && Objects.equals (this.key, other.key) && this.filters.equals (other.filters);
+    }
+}
@@ -0,0 +1,438 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+
+/**
+ * Schedules modal dialogs. Only one dialog is displayed at a time for each owner (e.g. a parent
+ * window), further dialogs of the same owner wait until it is closed. A request, which is
+ * identical to one that is displayed or waiting for the same owner (e.g. from a double-click), is
+ * not displayed again but gets the result of the first one. The number of dialogs which are
+ * displayed at the same time for different owners is limited. The dialogs are displayed on the
+ * threads of the callers, which wait for their turn. If the caller, which displays a merged dialog,
+ * is interrupted, one of the other callers displays it again. A dialog whose result is streamed
+ * counts as displayed until its stream is closed and is never merged, since a stream can only be
+ * consumed once.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogScheduler
+{
+    /**
+     * Displays a dialog.
+     */
+    @FunctionalInterface
+    public interface Dialog
+    {
+        /**
+         * Display the dialog.
+         *
+         * @return The selected files, empty if the dialog was canceled
+         * @throws IOException A problem with the dialog appeared
+         */
+        List<File> show () throws IOException;
+    }
+
+
+    /**
+     * Displays a dialog, whose result is streamed.
+     */
+    @FunctionalInterface
+    public interface StreamingDialog
+    {
+        /**
+         * Display the dialog.
+         *
+         * @return The lazily populated stream of the selected files, empty if the dialog was
+         *         canceled
+         * @throws IOException A problem with the dialog appeared
+         */
+        Stream<Path> show () throws IOException;
+    }
+
+
+    private final int                       maxConcurrentDialogs;
+    private final Map<Object, Deque<Entry>> queues         = new HashMap<> ();
+    private int                             runningCount   = 0;
+    private int                             queuedCount    = 0;
+    private long                            startedCount   = 0;
+    private long                            coalescedCount = 0;
+    private long                            totalWaitNanos = 0;
+    private long                            maxWaitNanos   = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxConcurrentDialogs The maximum number of dialogs of different owners, which are
+     *            displayed at the same time
+     */
+    public DialogScheduler (final int maxConcurrentDialogs)
+    {
+        if (maxConcurrentDialogs < 1)
+            throw new IllegalArgumentException ("At least one dialog must be allowed.");
+        this.maxConcurrentDialogs = maxConcurrentDialogs;
+    }
+
+
+    /**
+     * Display a dialog as soon as it is its turn. Blocks until the dialog is closed.
+     *
+     * @param owner The owner of the dialog, dialogs of the same owner are displayed one after the
+     *            other
+     * @param request The parameters of the dialog, identical requests of the same owner are
+     *            merged
+     * @param dialog Displays the dialog
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared or the waiting thread was interrupted
+     */
+    public List<File> execute (final Object owner, final DialogRequest request, final Dialog dialog) throws IOException
+    {
+        final Entry entry = this.enqueue (owner, request, true);
+
+        // Wait for the result of the identical dialog
+        if (!this.awaitTurn (entry))
+            return entry.getResult ();
+
+        try
+        {
+            final List<File> files = dialog.show ();
+            this.finished (entry, files, null);
+            return files;
+        }
+        catch (final InterruptedIOException ex)
+        {
+            // Only this caller was interrupted, the dialog is still wanted by the merged callers
+            this.release (entry);
+            throw ex;
+        }
+        catch (final IOException | RuntimeException | Error ex)
+        {
+            this.finished (entry, null, ex);
+            throw ex;
+        }
+    }
+
+
+    /**
+     * Display a dialog, whose result is streamed, as soon as it is its turn. Blocks until the
+     * dialog is displayed. The dialog counts as displayed until the returned stream is closed,
+     * therefore it must be closed.
+     *
+     * @param owner The owner of the dialog, dialogs of the same owner are displayed one after the
+     *            other
+     * @param request The parameters of the dialog
+     * @param dialog Displays the dialog
+     * @return The lazily populated stream of the selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared or the waiting thread was interrupted
+     */
+    public Stream<Path> executeStream (final Object owner, final DialogRequest request, final StreamingDialog dialog) throws IOException
+    {
+        final Entry entry = this.enqueue (owner, request, false);
+        this.awaitTurn (entry);
+
+        final Stream<Path> paths;
+        try
+        {
+            paths = dialog.show ();
+        }
+        catch (final IOException | RuntimeException | Error ex)
+        {
+            this.finished (entry, null, ex);
+            throw ex;
+        }
+        return paths.onClose ( () -> this.finished (entry, null, null));
+    }
+
+
+    /**
+     * Get the number of dialogs, which wait for their turn.
+     *
+     * @return The number of waiting dialogs
+     */
+    public synchronized int getQueueDepth ()
+    {
+        return this.queuedCount;
+    }
+
+
+    /**
+     * Get the number of dialogs, which are currently displayed.
+     *
+     * @return The number of displayed dialogs
+     */
+    public synchronized int getRunningCount ()
+    {
+        return this.runningCount;
+    }
+
+
+    /**
+     * Get the number of dialogs, which were displayed.
+     *
+     * @return The number of dialogs
+     */
+    public synchronized long getStartedCount ()
+    {
+        return this.startedCount;
+    }
+
+
+    /**
+     * Get the number of requests, which were merged into an identical request.
+     *
+     * @return The number of merged requests
+     */
+    public synchronized long getCoalescedCount ()
+    {
+        return this.coalescedCount;
+    }
+
+
+    /**
+     * Get the average time the displayed dialogs waited for their turn.
+     *
+     * @return The time in nanoseconds
+     */
+    public synchronized long getAverageWaitNanos ()
+    {
+        return this.startedCount == 0 ? 0 : this.totalWaitNanos / this.startedCount;
+    }
+
+
+    /**
+     * Get the longest time a displayed dialog waited for its turn.
+     *
+     * @return The time in nanoseconds
+     */
+    public synchronized long getMaxWaitNanos ()
+    {
+        return this.maxWaitNanos;
+    }
+
+
+    /**
+     * Add a caller of a dialog. If the request can be merged and an identical one is displayed or
+     * waiting for the same owner, the caller is added to it, otherwise a new dialog is queued.
+     *
+     * @param owner The owner of the dialog
+     * @param request The parameters of the dialog
+     * @param isMergeable True if the request can be merged with an identical one
+     * @return The entry of the dialog
+     */
+    private synchronized Entry enqueue (final Object owner, final DialogRequest request, final boolean isMergeable)
+    {
+        final Deque<Entry> queue = this.queues.computeIfAbsent (owner, key -> new ArrayDeque<> ());
+        Entry entry = isMergeable ? find (queue, request) : null;
+        if (entry == null)
+        {
+            entry = new Entry (owner, request, isMergeable);
+            queue.add (entry);
+            this.queuedCount++;
+            this.dispatch ();
+        }
+        else
+            this.coalescedCount++;
+        entry.callerCount++;
+        return entry;
+    }
+
+
+    /**
+     * Wait until the dialog is finished or it is the turn of the dialog and no other caller
+     * displays it. In the latter case the calling thread has to display it.
+     *
+     * @param entry The entry of the dialog
+     * @return True if the calling thread has to display the dialog, false if it is finished
+     * @throws InterruptedIOException The waiting thread was interrupted, this does not affect the
+     *             other callers of the dialog
+     */
+    private synchronized boolean awaitTurn (final Entry entry) throws InterruptedIOException
+    {
+        try
+        {
+            while (!entry.isFinished && (!entry.isStarted || entry.isClaimed))
+                this.wait ();
+        }
+        catch (final InterruptedException ex)
+        {
+            this.leave (entry);
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+
+        if (entry.isFinished)
+        {
+            entry.callerCount--;
+            return false;
+        }
+        entry.isClaimed = true;
+        return true;
+    }
+
+
+    /**
+     * Start waiting dialogs, the longest waiting first, as long as the limit is not reached. The
+     * first entry of an owner queue is the one which is displayed.
+     */
+    private void dispatch ()
+    {
+        boolean isDispatched = false;
+        while (this.runningCount < this.maxConcurrentDialogs)
+        {
+            Entry next = null;
+            for (final Deque<Entry> queue: this.queues.values ())
+            {
+                final Entry head = queue.peekFirst ();
+                if (head != null && !head.isStarted && (next == null || head.enqueueTime < next.enqueueTime))
+                    next = head;
+            }
+            if (next == null)
+                break;
+
+            final long waitTime = System.nanoTime () - next.enqueueTime;
+            this.totalWaitNanos += waitTime;
+            this.maxWaitNanos = Math.max (this.maxWaitNanos, waitTime);
+            this.startedCount++;
+            this.queuedCount--;
+            this.runningCount++;
+            next.isStarted = true;
+            isDispatched = true;
+        }
+        if (isDispatched)
+            this.notifyAll ();
+    }
+
+
+    /**
+     * Finish a displayed dialog and hand its result to the merged callers.
+     *
+     * @param entry The entry of the dialog
+     * @param files The selected files, null if the dialog failed
+     * @param error The error of the dialog, null if it succeeded
+     */
+    private synchronized void finished (final Entry entry, final List<File> files, final Throwable error)
+    {
+        if (entry.isFinished)
+            return;
+        entry.files = files;
+        entry.error = error;
+        entry.isFinished = true;
+        entry.callerCount--;
+        this.runningCount--;
+        this.remove (entry);
+        this.dispatch ();
+        this.notifyAll ();
+    }
+
+
+    /**
+     * Release a dialog, whose displaying caller was interrupted. If other callers wait for it, one
+     * of them displays it again.
+     *
+     * @param entry The entry of the dialog
+     */
+    private synchronized void release (final Entry entry)
+    {
+        entry.isClaimed = false;
+        this.leave (entry);
+        this.notifyAll ();
+    }
+
+
+    /**
+     * Remove a caller, which stopped waiting for a dialog. The dialog is removed if no caller is
+     * left.
+     *
+     * @param entry The entry of the dialog
+     */
+    private void leave (final Entry entry)
+    {
+        entry.callerCount--;
+        if (entry.callerCount > 0 || entry.isFinished)
+            return;
+
+        // The turn might have been given while the caller was interrupted
+        if (entry.isStarted)
+            this.runningCount--;
+        else
+            this.queuedCount--;
+        entry.isFinished = true;
+        this.remove (entry);
+        this.dispatch ();
+    }
+
+
+    private void remove (final Entry entry)
+    {
+        final Deque<Entry> queue = this.queues.get (entry.owner);
+        queue.remove (entry);
+        if (queue.isEmpty ())
+            this.queues.remove (entry.owner);
+    }
+
+
+    private static Entry find (final Deque<Entry> queue, final DialogRequest request)
+    {
+        for (final Entry entry: queue)
+        {
+            if (entry.isMergeable && entry.request.equals (request))
+                return entry;
+        }
+        return null;
+    }
+
+
+    /** A dialog, which is displayed or waits for its turn. */
+    private static class Entry
+    {
+        final Object        owner;
+        final DialogRequest request;
+        final boolean       isMergeable;
+        final long          enqueueTime = System.nanoTime ();
+        int                 callerCount = 0;
+        boolean             isStarted   = false;
+        boolean             isClaimed   = false;
+        boolean             isFinished  = false;
+        List<File>          files;
+        Throwable           error;
+
+        Entry (final Object owner, final DialogRequest request, final boolean isMergeable)
+        {
+            this.owner = owner;
+            this.request = request;
+            this.isMergeable = isMergeable;
+        }
+
+
+        /**
+         * Get the result of the finished dialog. Only call after it is finished.
+         *
+         * @return A copy of the selected files
+         * @throws IOException The dialog failed
+         */
+        List<File> getResult () throws IOException
+        {
+            if (this.error instanceof IOException)
+                throw (IOException) this.error;
+            if (this.error instanceof RuntimeException)
+                throw (RuntimeException) this.error;
+            if (this.error instanceof Error)
+                throw (Error) this.error;
+            return new ArrayList<> (this.files);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.IOException;
+
+
+/**
+ * An exception indicating that a dialog was not closed within the configured timeout. The dialog
+ * was closed by terminating its helper process.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogTimeoutException extends IOException
+{
+    private static final long serialVersionUID = 3279411385806651246L;
+
+
+    /**
+     * Constructor.
+     *
+     * @param message The message
+     */
+    public DialogTimeoutException (final String message)
+    {
+        super (message);
+    }
+}
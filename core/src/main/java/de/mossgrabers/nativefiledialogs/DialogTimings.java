@@ -0,0 +1,165 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+/**
+ * The timings of a dialog call. The process related timings are only available for backends which
+ * run a helper process, otherwise they are -1. If several processes were run for one dialog their
+ * timings are summed up.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogTimings
+{
+    private final String     backend;
+    private final DialogKind kind;
+    private final int        filterCount;
+    private final int        selectedCount;
+    private final boolean    failed;
+    private final long       spawnNanos;
+    private final long       firstOutputNanos;
+    private final long       exitNanos;
+    private final long       parseNanos;
+    private final long       totalNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param backend The name of the backend
+     * @param kind The kind of the dialog
+     * @param filterCount The number of file filters
+     * @param selectedCount The number of selected files, -1 if unknown
+     * @param failed True if the dialog failed
+     * @param spawnNanos The time to start the helper process
+     * @param firstOutputNanos The time from the process start until its first output
+     * @param exitNanos The time from the process start until its exit
+     * @param parseNanos The time spent for splitting and decoding the output
+     * @param totalNanos The total time of the dialog call
+     */
+    DialogTimings (final String backend, final DialogKind kind, final int filterCount, final int selectedCount, final boolean failed, final long spawnNanos, final long firstOutputNanos, final long exitNanos, final long parseNanos, final long totalNanos)
+    {
+        this.backend = backend;
+        this.kind = kind;
+        this.filterCount = filterCount;
+        this.selectedCount = selectedCount;
+        this.failed = failed;
+        this.spawnNanos = spawnNanos;
+        this.firstOutputNanos = firstOutputNanos;
+        this.exitNanos = exitNanos;
+        this.parseNanos = parseNanos;
+        this.totalNanos = totalNanos;
+    }
+
+
+    /**
+     * Get the name of the backend which displayed the dialog.
+     *
+     * @return The name
+     */
+    public String getBackend ()
+    {
+        return this.backend;
+    }
+
+
+    /**
+     * Get the kind of the dialog.
+     *
+     * @return The kind
+     */
+    public DialogKind getKind ()
+    {
+        return this.kind;
+    }
+
+
+    /**
+     * Get the number of file filters of the dialog.
+     *
+     * @return The number of filters
+     */
+    public int getFilterCount ()
+    {
+        return this.filterCount;
+    }
+
+
+    /**
+     * Get the number of selected files.
+     *
+     * @return The number of files, 0 if canceled, -1 if unknown (streamed results)
+     */
+    public int getSelectedCount ()
+    {
+        return this.selectedCount;
+    }
+
+
+    /**
+     * Did the dialog fail with an exception?
+     *
+     * @return True if failed
+     */
+    public boolean isFailed ()
+    {
+        return this.failed;
+    }
+
+
+    /**
+     * Get the time to start the helper process.
+     *
+     * @return The time in nanoseconds or -1 if no process was started
+     */
+    public long getSpawnNanos ()
+    {
+        return this.spawnNanos;
+    }
+
+
+    /**
+     * Get the time from the start of the helper process until it printed the first output byte.
+     * This contains the toolkit startup and the think time of the user.
+     *
+     * @return The time in nanoseconds or -1 if there was no output
+     */
+    public long getFirstOutputNanos ()
+    {
+        return this.firstOutputNanos;
+    }
+
+
+    /**
+     * Get the time from the start of the helper process until it exited.
+     *
+     * @return The time in nanoseconds or -1 if no process was started
+     */
+    public long getExitNanos ()
+    {
+        return this.exitNanos;
+    }
+
+
+    /**
+     * Get the time which was spent for splitting and decoding the output of the helper process.
+     *
+     * @return The time in nanoseconds or -1 if no process was started
+     */
+    public long getParseNanos ()
+    {
+        return this.parseNanos;
+    }
+
+
+    /**
+     * Get the total time of the dialog call.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getTotalNanos ()
+    {
+        return this.totalNanos;
+    }
+}
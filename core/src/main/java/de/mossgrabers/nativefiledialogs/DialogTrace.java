@@ -0,0 +1,189 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import de.mossgrabers.nativefiledialogs.jfr.DialogEvent;
+import de.mossgrabers.nativefiledialogs.jfr.FirstOutputEvent;
+import de.mossgrabers.nativefiledialogs.jfr.ParseEvent;
+import de.mossgrabers.nativefiledialogs.jfr.ProcessExitEvent;
+import de.mossgrabers.nativefiledialogs.jfr.ProcessSpawnEvent;
+
+import java.util.List;
+
+
+/**
+ * Collects the timings of one dialog call. The trace is bound to the thread which executes the
+ * dialog, which allows the process runner to add the timings of the helper processes. The flight
+ * recorder events are only created if the jdk.jfr module is present, it is optional.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class DialogTrace
+{
+    /** True if the flight recorder events can be created. */
+    static final boolean                          FLIGHT_RECORDER  = isFlightRecorderPresent ();
+
+    private static final ThreadLocal<DialogTrace> CURRENT          = new ThreadLocal<> ();
+
+    private final String                          backend;
+    private final DialogRequest                   request;
+    private final List<DialogListener>            listeners;
+    private final DialogEvent                     event            = FLIGHT_RECORDER ? new DialogEvent () : null;
+    private final long                            startTime        = System.nanoTime ();
+    private long                                  spawnNanos       = -1;
+    private long                                  firstOutputNanos = -1;
+    private long                                  exitNanos        = -1;
+    private long                                  parseNanos       = -1;
+    private boolean                               isFinished       = false;
+
+    /**
+     * Constructor.
+     *
+     * @param backend The name of the backend
+     * @param request The dialog request
+     * @param listeners The listeners to notify when the dialog is finished
+     */
+    private DialogTrace (final String backend, final DialogRequest request, final List<DialogListener> listeners)
+    {
+        this.backend = backend;
+        this.request = request;
+        this.listeners = listeners;
+
+        if (this.event != null)
+            this.event.begin ();
+    }
+
+
+    /**
+     * Start a trace and bind it to the current thread.
+     *
+     * @param backend The name of the backend
+     * @param request The dialog request
+     * @param listeners The listeners to notify when the dialog is finished
+     * @return The trace
+     */
+    static DialogTrace start (final String backend, final DialogRequest request, final List<DialogListener> listeners)
+    {
+        final DialogTrace trace = new DialogTrace (backend, request, listeners);
+        CURRENT.set (trace);
+        return trace;
+    }
+
+
+    /**
+     * Register the flight recorder events of the dialogs and the helper processes. Otherwise this
+     * is done by the first dialog, which takes a few hundred milliseconds.
+     */
+    static void registerEvents ()
+    {
+        if (!FLIGHT_RECORDER)
+            return;
+        new DialogEvent ();
+        new ProcessSpawnEvent ();
+        new FirstOutputEvent ();
+        new ProcessExitEvent ();
+        new ParseEvent ();
+    }
+
+
+    /**
+     * Get the trace of the dialog which runs on the current thread.
+     *
+     * @return The trace or null if none
+     */
+    static DialogTrace current ()
+    {
+        return CURRENT.get ();
+    }
+
+
+    /**
+     * Remove the binding of this trace from the current thread, e.g. if the dialog continues on
+     * another thread.
+     */
+    void detach ()
+    {
+        if (CURRENT.get () == this)
+            CURRENT.remove ();
+    }
+
+
+    /**
+     * Add the timings of a helper process.
+     *
+     * @param spawn The time to start the process
+     * @param firstOutput The time from the process start until its first output byte, -1 if none
+     * @param exit The time from the process start until its exit
+     * @param parse The time spent for splitting and decoding the output
+     */
+    synchronized void addProcess (final long spawn, final long firstOutput, final long exit, final long parse)
+    {
+        this.spawnNanos = add (this.spawnNanos, spawn);
+        this.firstOutputNanos = add (this.firstOutputNanos, firstOutput);
+        this.exitNanos = add (this.exitNanos, exit);
+        this.parseNanos = add (this.parseNanos, parse);
+    }
+
+
+    /**
+     * Finish the trace, commit the flight recorder event and notify the listeners. Further calls
+     * are ignored.
+     *
+     * @param selectedCount The number of selected files, -1 if unknown
+     * @param failed True if the dialog failed
+     */
+    void finish (final int selectedCount, final boolean failed)
+    {
+        this.detach ();
+
+        final DialogTimings timings;
+        synchronized (this)
+        {
+            if (this.isFinished)
+                return;
+            this.isFinished = true;
+            timings = new DialogTimings (this.backend, this.request.getKind (), this.request.getFilterSet ().size (), selectedCount, failed, this.spawnNanos, this.firstOutputNanos, this.exitNanos, this.parseNanos, System.nanoTime () - this.startTime);
+        }
+
+        if (this.event != null)
+        {
+            this.event.end ();
+            if (this.event.shouldCommit ())
+            {
+                this.event.backend = this.backend;
+                this.event.kind = this.request.getKind ().name ();
+                this.event.filterCount = timings.getFilterCount ();
+                this.event.selectedCount = selectedCount;
+                this.event.failed = failed;
+                this.event.commit ();
+            }
+        }
+
+        for (final DialogListener listener: this.listeners)
+            listener.dialogFinished (timings);
+    }
+
+
+    /**
+     * Check if the jdk.jfr module is present. It is optional, e.g. a runtime image created with
+     * jlink might not contain it. The event classes must not be loaded without it.
+     *
+     * @return True if present
+     */
+    private static boolean isFlightRecorderPresent ()
+    {
+        final Module module = DialogTrace.class.getModule ();
+        final ModuleLayer layer = module.isNamed () ? module.getLayer () : ModuleLayer.boot ();
+        return layer != null && layer.findModule ("jdk.jfr").isPresent ();
+    }
+
+
+    private static long add (final long sum, final long value)
+    {
+        if (value < 0)
+            return sum;
+        return sum < 0 ? value : sum + value;
+    }
+}
@@ -0,0 +1,69 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Finds executables by scanning the directories of the PATH environment variable. This replaces
+ * calling 'which' and therefore saves starting a process. The results are cached for the lifetime
+ * of the process.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class ExecutableResolver
+{
+    private static final Map<String, Optional<File>> CACHE = new ConcurrentHashMap<> ();
+
+    /**
+     * Constructor.
+     */
+    private ExecutableResolver ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Get the content of the PATH environment variable.
+     *
+     * @return The search path, never null
+     */
+    public static String getSearchPath ()
+    {
+        final String path = System.getenv ("PATH");
+        return path == null ? "" : path;
+    }
+
+
+    /**
+     * Find an executable in the directories of the PATH environment variable.
+     *
+     * @param name The name of the executable, e.g. 'zenity'
+     * @return The absolute executable file or null if it is not present
+     */
+    public static File find (final String name)
+    {
+        return CACHE.computeIfAbsent (name, ExecutableResolver::search).orElse (null);
+    }
+
+
+    private static Optional<File> search (final String name)
+    {
+        for (final String directory: getSearchPath ().split (File.pathSeparator))
+        {
+            if (directory.isEmpty ())
+                continue;
+            final File file = new File (directory, name);
+            if (file.isFile () && file.canExecute ())
+                return Optional.of (file.getAbsoluteFile ());
+        }
+        return Optional.empty ();
+    }
+}
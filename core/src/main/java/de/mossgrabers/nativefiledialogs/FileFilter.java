@@ -0,0 +1,104 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * A file filter. Filters are immutable and compared by value, therefore they can be kept in
+ * constants and used as keys. Subclasses cannot change the label and extensions which are used by
+ * the dialogs.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class FileFilter
+{
+    private final String       label;
+    private final String []    extensions;
+    private final List<String> extensionList;
+    private final int          hashCode;
+
+    /**
+     * Constructor.
+     *
+     * @param label The label of the filter
+     * @param extensions The file extensions to filter for
+     */
+    public FileFilter (final String label, final String... extensions)
+    {
+        this.label = label;
+        this.extensions = extensions == null ? new String [0] : extensions.clone ();
+        this.extensionList = Collections.unmodifiableList (Arrays.asList (this.extensions));
+        this.hashCode = 31 * (label == null ? 0 : label.hashCode ()) + Arrays.hashCode (this.extensions);
+    }
+
+
+    /**
+     * Get the label of the file filter.
+     *
+     * @return The label
+     */
+    public String getLabel ()
+    {
+        return this.label;
+    }
+
+
+    /**
+     * Get the file extensions to filter for of the file filter.
+     *
+     * @return A copy of the extensions
+     */
+    public String [] getExtensions ()
+    {
+        return this.extensions.clone ();
+    }
+
+
+    /**
+     * Get the file extensions to filter for of the file filter without copying them, e.g. to
+     * encode them for a dialog.
+     *
+     * @return The unmodifiable extensions
+     */
+    public final List<String> getExtensionList ()
+    {
+        return this.extensionList;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode ()
+    {
+        return this.hashCode;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals (final Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FileFilter))
+            return false;
+        final FileFilter other = (FileFilter) obj;
+        if (this.hashCode != other.hashCode)
+            return false;
+        return (this.label == null ? other.label == null : this.label.equals (other.label)) && Arrays.equals (this.extensions, other.extensions);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString ()
+    {
+        return this.label + " " + Arrays.toString (this.extensions);
+    }
+}
@@ -0,0 +1,187 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.function.Function;
+
+
+/**
+ * Checks if file names match the extensions of a filter set. The extensions are compiled into a
+ * trie of the reversed extensions, which is walked from the end of a name, therefore the costs
+ * only depend on the length of the extension and not on the number of filters. Extensions are
+ * compared case-insensitive, might contain dots (e.g. 'tar.gz') and '*' matches all files. Matching
+ * does not allocate memory.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public final class FilterMatcher
+{
+    private static final Function<FilterSet, FilterMatcher> COMPILER = FilterMatcher::new;
+
+    private final Node                                      root     = new Node ();
+    private final boolean                                   matchesAll;
+
+    /**
+     * Constructor.
+     *
+     * @param filters The filters to compile
+     */
+    private FilterMatcher (final FilterSet filters)
+    {
+        boolean all = filters.isEmpty ();
+        for (int i = 0; i < filters.size (); i++)
+        {
+            for (final String extension: filters.get (i).getExtensionList ())
+            {
+                final String normalized = normalize (extension);
+                if (normalized.isEmpty ())
+                {
+                    all = true;
+                    continue;
+                }
+                this.add (normalized);
+            }
+        }
+        this.matchesAll = all;
+    }
+
+
+    /**
+     * Get the matcher of a filter set. The matcher is compiled once and kept with the set.
+     *
+     * @param filters The filters
+     * @return The matcher
+     */
+    public static FilterMatcher of (final FilterSet filters)
+    {
+        return filters.getEncoding (COMPILER);
+    }
+
+
+    /**
+     * Check if all files match, which is the case if there are no filters or one of the filters
+     * contains the '*' wildcard.
+     *
+     * @return True if all files match
+     */
+    public boolean matchesAll ()
+    {
+        return this.matchesAll;
+    }
+
+
+    /**
+     * Check if a file matches one of the filters.
+     *
+     * @param file The file
+     * @return True if it matches
+     */
+    public boolean matches (final File file)
+    {
+        return this.matches (file.getPath ());
+    }
+
+
+    /**
+     * Check if a file name or path matches one of the filters. The extension must be preceded by
+     * a non-empty name, e.g. '.wav' does not match the extension 'wav'.
+     *
+     * @param path The file name or path
+     * @return True if it matches
+     */
+    public boolean matches (final CharSequence path)
+    {
+        if (this.matchesAll)
+            return true;
+
+        Node node = this.root;
+        for (int i = path.length () - 1; i > 0; i--)
+        {
+            final char c = path.charAt (i);
+            if (isSeparator (c))
+                return false;
+            node = node.get (Character.toLowerCase (c));
+            if (node == null)
+                return false;
+            if (node.isEnd && !isSeparator (path.charAt (i - 1)))
+                return true;
+        }
+        return false;
+    }
+
+
+    private void add (final String extension)
+    {
+        // Store the extension with its dot in reverse order
+        Node node = this.root;
+        for (int i = extension.length () - 1; i >= 0; i--)
+            node = node.getOrAdd (Character.toLowerCase (extension.charAt (i)));
+        node.getOrAdd ('.').isEnd = true;
+    }
+
+
+    /**
+     * Remove leading wildcards and dots, e.g. '*.wav' becomes 'wav'.
+     *
+     * @param extension The extension of a filter
+     * @return The extension without leading dot, empty if it matches all files
+     */
+    private static String normalize (final String extension)
+    {
+        if (extension == null)
+            return "";
+        int start = 0;
+        final String trimmed = extension.trim ();
+        while (start < trimmed.length () && (trimmed.charAt (start) == '*' || trimmed.charAt (start) == '.'))
+            start++;
+        return trimmed.substring (start);
+    }
+
+
+    private static boolean isSeparator (final char c)
+    {
+        return c == '/' || c == File.separatorChar;
+    }
+
+
+    /** A node of the trie. */
+    private static final class Node
+    {
+        private static final char [] NO_KEYS     = new char [0];
+        private static final Node [] NO_CHILDREN = new Node [0];
+
+        private char []              keys        = NO_KEYS;
+        private Node []              children    = NO_CHILDREN;
+        private boolean              isEnd       = false;
+
+        Node get (final char key)
+        {
+            final char [] k = this.keys;
+            for (int i = 0; i < k.length; i++)
+            {
+                if (k[i] == key)
+                    return this.children[i];
+            }
+            return null;
+        }
+
+
+        Node getOrAdd (final char key)
+        {
+            final Node child = this.get (key);
+            if (child != null)
+                return child;
+
+            final int length = this.keys.length;
+            this.keys = Arrays.copyOf (this.keys, length + 1);
+            this.children = Arrays.copyOf (this.children, length + 1);
+            this.keys[length] = key;
+            this.children[length] = new Node ();
+            return this.children[length];
+        }
+    }
+}
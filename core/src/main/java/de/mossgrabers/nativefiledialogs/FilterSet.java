@@ -0,0 +1,181 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+
+/**
+ * An immutable set of file filters, which keeps the backend specific encodings of the filters
+ * (e.g. the zenity arguments). The sets are cached, therefore a dialog which is opened again with
+ * the same filters gets the same set and the encodings are not created again. Looking up a cached
+ * set and its encodings does not allocate memory.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public final class FilterSet
+{
+    /** The set without any filters. */
+    public static final FilterSet                     EMPTY      = new FilterSet (new FileFilter [0], 1);
+
+    /** The number of cached sets, applications use only a handful of different filter sets. */
+    private static final int                          CACHE_SIZE = 32;
+    private static final FilterSet []                 CACHE      = new FilterSet [CACHE_SIZE];
+    private static final long []                      LAST_USE   = new long [CACHE_SIZE];
+    private static long                               useCounter = 0;
+
+    private final FileFilter []                       filters;
+    private final int                                 hashCode;
+    private final Map<Function<FilterSet, ?>, Object> encodings  = new ConcurrentHashMap<> (4);
+
+    /**
+     * Constructor.
+     *
+     * @param filters The filters, not copied
+     * @param hashCode The hash code of the filters
+     */
+    private FilterSet (final FileFilter [] filters, final int hashCode)
+    {
+        this.filters = filters;
+        this.hashCode = hashCode;
+    }
+
+
+    /**
+     * Get the set for the given filters. Returns the cached set if the same filters were requested
+     * before. If the cache is full, the least recently used set is replaced.
+     *
+     * @param filters The filters, may be null
+     * @return The set
+     */
+    public static FilterSet of (final FileFilter... filters)
+    {
+        if (filters == null || filters.length == 0)
+            return EMPTY;
+
+        final int hashCode = Arrays.hashCode (filters);
+        synchronized (CACHE)
+        {
+            int oldest = 0;
+            for (int i = 0; i < CACHE_SIZE; i++)
+            {
+                final FilterSet set = CACHE[i];
+                if (set == null)
+                {
+                    // The slots are filled in order, all following slots are empty as well
+                    oldest = i;
+                    break;
+                }
+                if (set.hashCode == hashCode && Arrays.equals (set.filters, filters))
+                {
+                    LAST_USE[i] = ++useCounter;
+                    return set;
+                }
+                if (LAST_USE[i] < LAST_USE[oldest])
+                    oldest = i;
+            }
+
+            final FilterSet set = new FilterSet (filters.clone (), hashCode);
+            CACHE[oldest] = set;
+            LAST_USE[oldest] = ++useCounter;
+            return set;
+        }
+    }
+
+
+    /**
+     * Get the number of filters.
+     *
+     * @return The number of filters
+     */
+    public int size ()
+    {
+        return this.filters.length;
+    }
+
+
+    /**
+     * Check if the set contains no filters.
+     *
+     * @return True if empty
+     */
+    public boolean isEmpty ()
+    {
+        return this.filters.length == 0;
+    }
+
+
+    /**
+     * Get a filter.
+     *
+     * @param index The index of the filter
+     * @return The filter
+     */
+    public FileFilter get (final int index)
+    {
+        return this.filters[index];
+    }
+
+
+    /**
+     * Get all filters.
+     *
+     * @return A copy of the filters
+     */
+    public FileFilter [] getFilters ()
+    {
+        return this.filters.clone ();
+    }
+
+
+    /**
+     * Get an encoding of the filters. The encoding is created once by the encoder and then kept
+     * with the set. The encoder is the key of the encoding, therefore it should be a constant.
+     *
+     * @param encoder Creates the encoding from the filters, the result must be immutable
+     * @param <T> The type of the encoding
+     * @return The encoding
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getEncoding (final Function<FilterSet, T> encoder)
+    {
+        final Object encoding = this.encodings.get (encoder);
+        if (encoding != null)
+            return (T) encoding;
+        return (T) this.encodings.computeIfAbsent (encoder, key -> encoder.apply (this));
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode ()
+    {
+        return this.hashCode;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals (final Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FilterSet))
+            return false;
+        final FilterSet other = (FilterSet) obj;
+        return this.hashCode == other.hashCode && Arrays.equals (this.filters, other.filters);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString ()
+    {
+        return Arrays.toString (this.filters);
+    }
+}
@@ -0,0 +1,838 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+
+/**
+ * Keeps the matching files of recently scanned folders (e.g. the library folders which are
+ * selected again and again). The first request of a folder scans it, all folders of the tree are
+ * then watched for changes with a WatchService. A following request of the same folder with the
+ * same filters and depth only applies the changes which happened in the meantime instead of
+ * scanning the tree again. The trees are identified by the folder, the filters and the depth. If
+ * the estimated memory of all trees exceeds the budget, the least recently used trees are removed.
+ * The first scan of a tree runs in parallel and without blocking the other requests of the index.
+ * If a folder cannot be watched (e.g. the limit of watches of the operating system is reached),
+ * its files are still contained but the tree is scanned again on the next request. Set the index
+ * with {@link NativeFileDialogs#setFolderIndex(FolderIndex)} to use it for
+ * {@link NativeFileDialogs#selectFolderAndScan(String, ScanOptions, FileFilter...)}.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class FolderIndex implements Closeable
+{
+    /** The default memory budget of all trees in bytes. */
+    public static final long                         DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /** The estimated memory of a folder without its path. */
+    private static final long                        FOLDER_BYTES      = 160;
+    /** The estimated memory of a file without its path. */
+    private static final long                        FILE_BYTES        = 80;
+
+    private final long                               maxBytes;
+    private final Map<TreeKey, Tree>                 trees             = new LinkedHashMap<> (16, 0.75f, true);
+    private final Map<WatchKey, List<Folder>>        watched           = new HashMap<> ();
+    private final Map<WatchKey, List<WatchEvent<?>>> pendingEvents     = new HashMap<> ();
+    private WatchService                             watchService;
+    private long                                     usedBytes         = 0;
+    private int                                      buildCount        = 0;
+    private boolean                                  isClosed          = false;
+
+
+    /**
+     * Constructor. Uses the default memory budget.
+     */
+    public FolderIndex ()
+    {
+        this (DEFAULT_MAX_BYTES);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxBytes The memory budget of all trees in bytes
+     */
+    public FolderIndex (final long maxBytes)
+    {
+        if (maxBytes < 1)
+            throw new IllegalArgumentException ("The memory budget must be at least 1 byte.");
+
+        this.maxBytes = maxBytes;
+    }
+
+
+    /**
+     * Get the files in a folder and its sub-folders, which match the filters. Scans the folder if
+     * it is not indexed yet, otherwise only the changes since the last call are applied. Changes
+     * are reported by the operating system with a short delay (on some platforms the JDK polls
+     * every few seconds), therefore a change immediately before the call might not be contained.
+     *
+     * @param folder The folder
+     * @param filters The filters which the files must match, all files match if empty
+     * @param options The options of the scan, the parallelism is used for the first scan
+     * @return The matching files
+     * @throws IOException The folder could not be read or the index is closed
+     */
+    public Stream<Path> get (final Path folder, final FilterSet filters, final ScanOptions options) throws IOException
+    {
+        final TreeKey key = new TreeKey (folder.toAbsolutePath ().normalize (), filters, options.getMaxDepth ());
+        Tree tree = this.findTree (key);
+        if (tree == null)
+        {
+            // Scan outside of the lock, the index can be used by other requests in the meantime
+            tree = new Tree (key);
+            boolean isComplete = false;
+            try
+            {
+                this.build (tree, options);
+                isComplete = true;
+            }
+            finally
+            {
+                this.finishBuild (tree, isComplete);
+            }
+        }
+        return this.collect (tree, options.getListener ());
+    }
+
+
+    /**
+     * Get the number of indexed trees.
+     *
+     * @return The number of trees
+     */
+    public synchronized int size ()
+    {
+        return this.trees.size ();
+    }
+
+
+    /**
+     * Get the estimated memory of all trees.
+     *
+     * @return The memory in bytes
+     */
+    public synchronized long getUsedBytes ()
+    {
+        return this.usedBytes;
+    }
+
+
+    /**
+     * Remove all trees and stop watching their folders.
+     *
+     * @throws IOException Could not close the watch service
+     */
+    @Override
+    public synchronized void close () throws IOException
+    {
+        this.isClosed = true;
+        this.trees.clear ();
+        this.watched.clear ();
+        this.pendingEvents.clear ();
+        this.usedBytes = 0;
+        if (this.watchService != null)
+            this.watchService.close ();
+    }
+
+
+    /**
+     * Get an indexed tree after applying the changes. If the tree is not indexed, a build is
+     * started, which must be ended with {@link #finishBuild(Tree, boolean)}.
+     *
+     * @param key The key of the tree
+     * @return The tree or null if it needs to be built
+     * @throws IOException The index is closed or the folder does not exist
+     */
+    private synchronized Tree findTree (final TreeKey key) throws IOException
+    {
+        if (this.isClosed)
+            throw new IOException ("The folder index is closed.");
+        if (this.watchService == null)
+            this.watchService = FileSystems.getDefault ().newWatchService ();
+
+        this.applyChanges ();
+
+        Tree tree = this.trees.get (key);
+        // The root folder was removed (and maybe created again) or not all folders are watched
+        if (tree != null && (tree.isStale || !tree.folders.containsKey (key.root)))
+        {
+            this.removeTree (tree);
+            tree = null;
+        }
+        if (tree == null)
+        {
+            if (!Files.isDirectory (key.root))
+                throw new IOException ("The folder '" + key.root + "' does not exist.");
+            this.buildCount++;
+        }
+        return tree;
+    }
+
+
+    /**
+     * Scan and watch all folders of a new tree in parallel.
+     *
+     * @param tree The tree
+     * @param options The options of the scan
+     * @throws IOException The scan was interrupted
+     */
+    private void build (final Tree tree, final ScanOptions options) throws IOException
+    {
+        final ForkJoinPool pool = new ForkJoinPool (options.getParallelism (), p -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread (p);
+            thread.setName ("NativeFileDialogs Index " + thread.getPoolIndex ());
+            return thread;
+        }, null, false);
+
+        try
+        {
+            pool.submit (new BuildTask (tree, tree.key.root, 1, options.getListener (), new AtomicLong ())).get ();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The scan was interrupted.");
+        }
+        catch (final ExecutionException ex)
+        {
+            // Only the listener can fail
+            final Throwable cause = ex.getCause ();
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw (RuntimeException) cause;
+        }
+        finally
+        {
+            pool.shutdownNow ();
+        }
+    }
+
+
+    /**
+     * Add a built tree to the index and apply the changes which happened during the build. The
+     * tree is dropped if the build failed, the index was closed or the same tree was built by a
+     * parallel request.
+     *
+     * @param tree The tree
+     * @param isComplete True if the build was successful
+     */
+    private synchronized void finishBuild (final Tree tree, final boolean isComplete)
+    {
+        this.buildCount--;
+
+        if (isComplete && !this.isClosed && !this.trees.containsKey (tree.key))
+        {
+            this.trees.put (tree.key, tree);
+            final List<Folder> folders = new ArrayList<> (tree.folders.values ());
+            for (final Folder folder: folders)
+                this.addToIndex (folder);
+            for (final Folder folder: folders)
+            {
+                if (folder.watchKey == null)
+                    continue;
+                final List<WatchEvent<?>> events = this.pendingEvents.get (folder.watchKey);
+                if (events != null)
+                    this.applyEvents (folder, events);
+                // The key was cancelled by another tree or the folder was removed
+                if (!folder.watchKey.isValid ())
+                    tree.isStale = true;
+            }
+        }
+        else
+        {
+            for (final Folder folder: tree.folders.values ())
+                if (folder.watchKey != null && this.buildCount == 0 && !this.watched.containsKey (folder.watchKey))
+                    folder.watchKey.cancel ();
+        }
+
+        if (this.buildCount == 0)
+            this.pendingEvents.clear ();
+    }
+
+
+    /**
+     * Get the files of a tree and remove the least recently used trees if the memory budget is
+     * exceeded.
+     *
+     * @param tree The tree
+     * @param listener The listener to notify, may be null
+     * @return The matching files
+     * @throws IOException The index is closed
+     */
+    private synchronized Stream<Path> collect (final Tree tree, final ScanListener listener) throws IOException
+    {
+        if (this.isClosed)
+            throw new IOException ("The folder index is closed.");
+
+        final List<Path> files = new ArrayList<> ();
+        for (final Folder f: tree.folders.values ())
+            files.addAll (f.files);
+        if (listener != null)
+            listener.scanFinished (tree.folders.size (), files.size (), false);
+
+        this.evict ();
+        return files.stream ();
+    }
+
+
+    /**
+     * Apply all changes which were reported since the last call. While trees are built, the
+     * events are kept as well since the folders of these trees are not yet in the index.
+     */
+    private void applyChanges ()
+    {
+        WatchKey watchKey;
+        try
+        {
+            while ((watchKey = this.watchService.poll ()) != null)
+            {
+                final List<Folder> folders = this.watched.get (watchKey);
+                final List<WatchEvent<?>> events = watchKey.pollEvents ();
+                if (this.buildCount > 0)
+                    this.pendingEvents.computeIfAbsent (watchKey, k -> new ArrayList<> ()).addAll (events);
+                if (folders != null)
+                    for (final Folder folder: new ArrayList<> (folders))
+                        this.applyEvents (folder, events);
+                if (!watchKey.reset ())
+                {
+                    // The folder was removed or cannot be accessed any longer
+                    final List<Folder> remaining = this.watched.get (watchKey);
+                    if (remaining != null)
+                        for (final Folder folder: new ArrayList<> (remaining))
+                            this.removeFolder (folder);
+                }
+            }
+        }
+        catch (final ClosedWatchServiceException ex)
+        {
+            // Only happens after close, which is checked before
+        }
+    }
+
+
+    /**
+     * Apply the events of a watched folder to one tree.
+     *
+     * @param folder The folder of the tree
+     * @param events The events
+     */
+    private void applyEvents (final Folder folder, final List<WatchEvent<?>> events)
+    {
+        final Tree tree = folder.tree;
+        for (final WatchEvent<?> event: events)
+        {
+            // The folder was removed by a previous event
+            if (tree.folders.get (folder.path) != folder)
+                return;
+
+            if (event.kind () == StandardWatchEventKinds.OVERFLOW)
+            {
+                this.rescanFolder (folder);
+                continue;
+            }
+
+            final Path child = folder.path.resolve ((Path) event.context ());
+            if (event.kind () == StandardWatchEventKinds.ENTRY_DELETE)
+            {
+                this.removeFile (folder, child);
+                final Folder subFolder = tree.folders.get (child);
+                if (subFolder != null)
+                    this.removeFolder (subFolder);
+            }
+            else if (event.kind () == StandardWatchEventKinds.ENTRY_CREATE)
+                this.addEntry (folder, child);
+        }
+    }
+
+
+    /**
+     * Add a folder and its sub-folders to an indexed tree and watch them.
+     *
+     * @param tree The tree
+     * @param path The path of the folder
+     * @param depth The depth of the files of the folder, 1 for the root of the tree
+     */
+    private void addFolder (final Tree tree, final Path path, final int depth)
+    {
+        if (tree.folders.containsKey (path))
+            return;
+
+        final Folder folder = this.createFolder (tree, path, depth);
+        final List<Path> subFolders = new ArrayList<> ();
+        scanFolder (folder, subFolders);
+        this.addToIndex (folder);
+        for (final Path subFolder: subFolders)
+            this.addFolder (tree, subFolder, depth + 1);
+    }
+
+
+    /**
+     * Create a folder of a tree and watch it. The folder is watched before it is listed, otherwise
+     * files added in between are missed.
+     *
+     * @param tree The tree
+     * @param path The path of the folder
+     * @param depth The depth of the files of the folder, 1 for the root of the tree
+     * @return The folder, which is not watched if the registration failed
+     */
+    private Folder createFolder (final Tree tree, final Path path, final int depth)
+    {
+        WatchKey watchKey = null;
+        try
+        {
+            watchKey = path.register (this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        catch (final IOException | ClosedWatchServiceException ex)
+        {
+            // Handled by scanFolder
+        }
+        return new Folder (tree, path, depth, watchKey);
+    }
+
+
+    /**
+     * Add the matching files of a folder and collect its sub-folders up to the maximum depth of
+     * the tree. Folders which cannot be read are kept empty, they are updated when they change. If
+     * the folder can be read but is not watched, its tree is marked as stale.
+     *
+     * @param folder The folder
+     * @param subFolders Where to add the sub-folders
+     */
+    private static void scanFolder (final Folder folder, final List<Path> subFolders)
+    {
+        final Tree tree = folder.tree;
+        try (final DirectoryStream<Path> entries = Files.newDirectoryStream (folder.path))
+        {
+            for (final Path entry: entries)
+            {
+                final BasicFileAttributes attributes = readAttributes (entry);
+                if (attributes == null)
+                    continue;
+                if (attributes.isDirectory ())
+                {
+                    if (folder.depth < tree.key.maxDepth)
+                        subFolders.add (entry);
+                }
+                else if (attributes.isRegularFile () && tree.matcher.matches (entry.getFileName ().toString ()))
+                    folder.files.add (entry);
+            }
+        }
+        catch (final IOException | DirectoryIteratorException ex)
+        {
+            return;
+        }
+
+        if (folder.watchKey == null)
+            tree.isStale = true;
+    }
+
+
+    /**
+     * Add a folder, which was scanned, to the index.
+     *
+     * @param folder The folder
+     */
+    private void addToIndex (final Folder folder)
+    {
+        final Tree tree = folder.tree;
+        tree.folders.put (folder.path, folder);
+        if (folder.watchKey != null)
+            this.watched.computeIfAbsent (folder.watchKey, k -> new ArrayList<> (1)).add (folder);
+        tree.fileCount += folder.files.size ();
+        this.addBytes (tree, estimate (folder));
+    }
+
+
+    /**
+     * Add a file or sub-folder to a folder of a tree.
+     *
+     * @param folder The folder
+     * @param entry The file or sub-folder
+     */
+    private void addEntry (final Folder folder, final Path entry)
+    {
+        final BasicFileAttributes attributes = readAttributes (entry);
+        if (attributes == null)
+            return;
+
+        final Tree tree = folder.tree;
+        if (attributes.isDirectory ())
+        {
+            if (folder.depth < tree.key.maxDepth)
+                this.addFolder (tree, entry, folder.depth + 1);
+        }
+        else if (attributes.isRegularFile () && tree.matcher.matches (entry.getFileName ().toString ()) && folder.files.add (entry))
+        {
+            tree.fileCount++;
+            this.addBytes (tree, FILE_BYTES + estimate (entry));
+        }
+    }
+
+
+    /**
+     * Remove a file from a folder of a tree.
+     *
+     * @param folder The folder
+     * @param file The file
+     */
+    private void removeFile (final Folder folder, final Path file)
+    {
+        if (folder.files.remove (file))
+        {
+            folder.tree.fileCount--;
+            this.addBytes (folder.tree, -(FILE_BYTES + estimate (file)));
+        }
+    }
+
+
+    /**
+     * Read a folder again after events were lost, its sub-folders are only read if they are new.
+     *
+     * @param folder The folder
+     */
+    private void rescanFolder (final Folder folder)
+    {
+        final Tree tree = folder.tree;
+        final Set<Path> entries = new HashSet<> ();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream (folder.path))
+        {
+            for (final Path entry: stream)
+            {
+                entries.add (entry);
+                this.addEntry (folder, entry);
+            }
+        }
+        catch (final IOException ex)
+        {
+            this.removeFolder (folder);
+            return;
+        }
+
+        for (final Path file: new ArrayList<> (folder.files))
+            if (!entries.contains (file))
+                this.removeFile (folder, file);
+        for (final Folder subFolder: new ArrayList<> (tree.folders.values ()))
+            if (folder.path.equals (subFolder.path.getParent ()) && !entries.contains (subFolder.path))
+                this.removeFolder (subFolder);
+    }
+
+
+    /**
+     * Remove a folder and its sub-folders from its tree and stop watching them.
+     *
+     * @param folder The folder
+     */
+    private void removeFolder (final Folder folder)
+    {
+        final Tree tree = folder.tree;
+        final Iterator<Folder> iterator = tree.folders.values ().iterator ();
+        while (iterator.hasNext ())
+        {
+            final Folder f = iterator.next ();
+            if (!f.path.startsWith (folder.path))
+                continue;
+            iterator.remove ();
+            this.unwatch (f);
+            tree.fileCount -= f.files.size ();
+            this.addBytes (tree, -estimate (f));
+        }
+    }
+
+
+    /**
+     * Stop watching a folder of a tree. The watch key is cancelled when no other tree watches the
+     * same folder.
+     *
+     * @param folder The folder
+     */
+    private void unwatch (final Folder folder)
+    {
+        if (folder.watchKey == null)
+            return;
+        final List<Folder> folders = this.watched.get (folder.watchKey);
+        if (folders == null)
+            return;
+        folders.remove (folder);
+        if (folders.isEmpty ())
+        {
+            this.watched.remove (folder.watchKey);
+            folder.watchKey.cancel ();
+        }
+    }
+
+
+    /**
+     * Remove the least recently used trees until the memory budget is kept. Removes even the most
+     * recently used tree if it does not fit alone.
+     */
+    private void evict ()
+    {
+        final Iterator<Tree> iterator = this.trees.values ().iterator ();
+        while (this.usedBytes > this.maxBytes && iterator.hasNext ())
+        {
+            final Tree tree = iterator.next ();
+            iterator.remove ();
+            this.unwatch (tree);
+        }
+    }
+
+
+    /**
+     * Remove a tree and stop watching its folders.
+     *
+     * @param tree The tree
+     */
+    private void removeTree (final Tree tree)
+    {
+        this.trees.remove (tree.key);
+        this.unwatch (tree);
+    }
+
+
+    private void unwatch (final Tree tree)
+    {
+        for (final Folder folder: tree.folders.values ())
+            this.unwatch (folder);
+        this.usedBytes -= tree.bytes;
+    }
+
+
+    private void addBytes (final Tree tree, final long bytes)
+    {
+        tree.bytes += bytes;
+        this.usedBytes += bytes;
+    }
+
+
+    /**
+     * Read the attributes of a file or folder without following symbolic links.
+     *
+     * @param path The path
+     * @return The attributes or null if the file was already removed again
+     */
+    private static BasicFileAttributes readAttributes (final Path path)
+    {
+        try
+        {
+            return Files.readAttributes (path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        catch (final IOException ex)
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * Estimate the memory of a folder with its files.
+     *
+     * @param folder The folder
+     * @return The estimated memory in bytes
+     */
+    private static long estimate (final Folder folder)
+    {
+        long bytes = FOLDER_BYTES + estimate (folder.path);
+        for (final Path file: folder.files)
+            bytes += FILE_BYTES + estimate (file);
+        return bytes;
+    }
+
+
+    /**
+     * Estimate the memory of a path, which keeps its name as bytes and as a string.
+     *
+     * @param path The path
+     * @return The estimated memory in bytes
+     */
+    private static long estimate (final Path path)
+    {
+        return 3L * path.toString ().length ();
+    }
+
+
+    /** Scans and watches one folder of a new tree and forks the tasks of its sub-folders. */
+    private final class BuildTask extends RecursiveAction
+    {
+        private static final long  serialVersionUID = 1L;
+
+        private final Tree         tree;
+        private final Path         path;
+        private final int          depth;
+        private final ScanListener listener;
+        private final AtomicLong   matchedFiles;
+
+
+        /**
+         * Constructor.
+         *
+         * @param tree The tree
+         * @param path The path of the folder
+         * @param depth The depth of the files of the folder, 1 for the root of the tree
+         * @param listener The listener to notify about the progress, may be null
+         * @param matchedFiles The number of matching files found so far
+         */
+        BuildTask (final Tree tree, final Path path, final int depth, final ScanListener listener, final AtomicLong matchedFiles)
+        {
+            this.tree = tree;
+            this.path = path;
+            this.depth = depth;
+            this.listener = listener;
+            this.matchedFiles = matchedFiles;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute ()
+        {
+            // The build was interrupted
+            if (getPool ().isShutdown ())
+                return;
+
+            final Folder folder = FolderIndex.this.createFolder (this.tree, this.path, this.depth);
+            final List<Path> subFolders = new ArrayList<> ();
+            scanFolder (folder, subFolders);
+            this.tree.folders.put (this.path, folder);
+            final long matched = this.matchedFiles.addAndGet (folder.files.size ());
+            if (this.listener != null)
+                this.listener.folderScanned (this.path, this.tree.folders.size (), matched);
+
+            final List<BuildTask> tasks = new ArrayList<> (subFolders.size ());
+            for (final Path subFolder: subFolders)
+                tasks.add (new BuildTask (this.tree, subFolder, this.depth + 1, this.listener, this.matchedFiles));
+            invokeAll (tasks);
+        }
+    }
+
+
+    /** Identifies a tree. */
+    private static final class TreeKey
+    {
+        final Path      root;
+        final FilterSet filters;
+        final int       maxDepth;
+
+
+        /**
+         * Constructor.
+         *
+         * @param root The absolute path of the folder
+         * @param filters The filters
+         * @param maxDepth The maximum depth
+         */
+        TreeKey (final Path root, final FilterSet filters, final int maxDepth)
+        {
+            this.root = root;
+            this.filters = filters;
+            this.maxDepth = maxDepth;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode ()
+        {
+            return Objects.hash (this.root, this.filters, Integer.valueOf (this.maxDepth));
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals (final Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof TreeKey))
+                return false;
+            final TreeKey other = (TreeKey) obj;
+            return this.maxDepth == other.maxDepth && this.root.equals (other.root) && this.filters.equals (other.filters);
+        }
+    }
+
+
+    /** The indexed folders of a tree. */
+    private static final class Tree
+    {
+        final TreeKey           key;
+        final FilterMatcher     matcher;
+        final Map<Path, Folder> folders   = new ConcurrentHashMap<> ();
+        long                    fileCount = 0;
+        long                    bytes     = 0;
+        volatile boolean        isStale   = false;
+
+
+        /**
+         * Constructor.
+         *
+         * @param key The key of the tree
+         */
+        Tree (final TreeKey key)
+        {
+            this.key = key;
+            this.matcher = FilterMatcher.of (key.filters);
+        }
+    }
+
+
+    /** A folder of a tree with its matching files. */
+    private static final class Folder
+    {
+        final Tree      tree;
+        final Path      path;
+        final int       depth;
+        final WatchKey  watchKey;
+        final Set<Path> files = new HashSet<> ();
+
+
+        /**
+         * Constructor.
+         *
+         * @param tree The tree
+         * @param path The path of the folder
+         * @param depth The depth of the files of the folder, 1 for the root of the tree
+         * @param watchKey The key with which the folder is watched, null if it is not watched
+         */
+        Folder (final Tree tree, final Path path, final int depth, final WatchKey watchKey)
+        {
+            this.tree = tree;
+            this.path = path;
+            this.depth = depth;
+            this.watchKey = watchKey;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Scans a folder recursively for the files matching a filter set. The folders are scanned in
+ * parallel by a fork/join pool, each folder is a task which forks the tasks of its sub-folders.
+ * The matching files are handed to the returned stream as soon as they are found, therefore the
+ * stream can be consumed while the scan is still running. Symbolic links are not followed and
+ * folders which cannot be read are skipped. The found files are queued without a limit, since the
+ * scan must not block the threads of the pool: if the stream is consumed slower than the files are
+ * found, they are kept in memory until they are consumed or the stream is closed. If the listener
+ * throws an exception, the scan is stopped and the stream throws it when all queued files are
+ * consumed.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public final class FolderScanner
+{
+    /** Marks the end of the scan in the queue. */
+    private static final Path         END            = Paths.get ("");
+
+    private final FilterMatcher       matcher;
+    private final ScanOptions         options;
+    private final ForkJoinPool        pool;
+    private final BlockingQueue<Path> queue          = new LinkedBlockingQueue<> ();
+    private final AtomicLong          scannedFolders = new AtomicLong ();
+    private final AtomicLong          matchedFiles   = new AtomicLong ();
+    private final AtomicBoolean       finished       = new AtomicBoolean ();
+    private volatile boolean          cancelled;
+    private volatile RuntimeException failure;
+
+
+    /**
+     * Constructor.
+     *
+     * @param filters The filters
+     * @param options The options of the scan
+     */
+    private FolderScanner (final FilterSet filters, final ScanOptions options)
+    {
+        this.matcher = FilterMatcher.of (filters);
+        this.options = options;
+        this.pool = new ForkJoinPool (options.getParallelism (), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread (pool);
+            thread.setName ("NativeFileDialogs Scan " + thread.getPoolIndex ());
+            return thread;
+        }, null, false);
+    }
+
+
+    /**
+     * Start to scan a folder. The scan runs until all folders are scanned or the returned stream
+     * is closed, therefore close the stream after use (e.g. with try-with-resources). The stream
+     * is sequential, call parallel() to process the paths in parallel as well.
+     *
+     * @param folder The folder to scan
+     * @param filters The filters which the files must match, all files match if empty
+     * @param options The options of the scan
+     * @return The lazily populated stream of the matching files
+     */
+    public static Stream<Path> scan (final Path folder, final FilterSet filters, final ScanOptions options)
+    {
+        final FolderScanner scanner = new FolderScanner (filters, options);
+        scanner.pool.execute (ForkJoinTask.adapt ( () -> {
+            try
+            {
+                scanner.new FolderTask (folder, 1).invoke ();
+            }
+            catch (final RuntimeException ex)
+            {
+                scanner.fail (ex);
+            }
+            finally
+            {
+                scanner.finish (false, null);
+            }
+        }));
+        return StreamSupport.stream (scanner.new QueueSpliterator (), false).onClose (scanner::cancel);
+    }
+
+
+    private void cancel ()
+    {
+        this.cancelled = true;
+        this.pool.shutdownNow ();
+        this.finish (true, null);
+    }
+
+
+    /**
+     * Stop the scan after the listener failed. The failure is thrown by the stream after the
+     * files which were found before.
+     *
+     * @param ex The failure
+     */
+    private void fail (final RuntimeException ex)
+    {
+        this.cancelled = true;
+        this.finish (true, ex);
+    }
+
+
+    /**
+     * Ends the stream and notifies the listener, only the first call has an effect.
+     *
+     * @param wasCancelled True if the scan was cancelled or failed, false if it is complete
+     * @param failure The exception of the listener, which stopped the scan, null if none
+     */
+    private void finish (final boolean wasCancelled, final RuntimeException failure)
+    {
+        if (!this.finished.compareAndSet (false, true))
+            return;
+        this.failure = failure;
+        this.queue.add (END);
+        this.pool.shutdown ();
+        final ScanListener listener = this.options.getListener ();
+        if (listener != null)
+            listener.scanFinished (this.scannedFolders.get (), this.matchedFiles.get (), wasCancelled);
+    }
+
+
+    /** Scans one folder and forks the scans of its sub-folders. */
+    private final class FolderTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Path        folder;
+        private final int         depth;
+
+
+        /**
+         * Constructor.
+         *
+         * @param folder The folder
+         * @param depth The depth of the files of the folder, 1 for the selected folder
+         */
+        FolderTask (final Path folder, final int depth)
+        {
+            this.folder = folder;
+            this.depth = depth;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        protected void compute ()
+        {
+            if (FolderScanner.this.cancelled)
+                return;
+
+            final List<FolderTask> subFolders = new ArrayList<> ();
+            long matches = 0;
+            try (final DirectoryStream<Path> entries = Files.newDirectoryStream (this.folder))
+            {
+                for (final Path entry: entries)
+                {
+                    if (FolderScanner.this.cancelled)
+                        return;
+                    final BasicFileAttributes attributes = Files.readAttributes (entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attributes.isDirectory ())
+                    {
+                        if (this.depth < FolderScanner.this.options.getMaxDepth ())
+                            subFolders.add (new FolderTask (entry, this.depth + 1));
+                    }
+                    else if (attributes.isRegularFile () && FolderScanner.this.matcher.matches (entry.getFileName ().toString ()))
+                    {
+                        FolderScanner.this.queue.add (entry);
+                        matches++;
+                    }
+                }
+            }
+            catch (final IOException | UncheckedIOException ex)
+            {
+                // The folder cannot be read or was removed, skip the rest of it
+            }
+
+            final long scanned = FolderScanner.this.scannedFolders.incrementAndGet ();
+            final long matched = FolderScanner.this.matchedFiles.addAndGet (matches);
+            final ScanListener listener = FolderScanner.this.options.getListener ();
+            if (listener != null)
+            {
+                try
+                {
+                    listener.folderScanned (this.folder, scanned, matched);
+                }
+                catch (final RuntimeException ex)
+                {
+                    FolderScanner.this.fail (ex);
+                    return;
+                }
+            }
+
+            invokeAll (subFolders);
+        }
+    }
+
+
+    /** Takes the matching files from the queue until the end of the scan. */
+    private final class QueueSpliterator extends Spliterators.AbstractSpliterator<Path>
+    {
+        private boolean done;
+
+
+        /**
+         * Constructor.
+         */
+        QueueSpliterator ()
+        {
+            super (Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.DISTINCT);
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean tryAdvance (final Consumer<? super Path> action)
+        {
+            if (this.done)
+                return false;
+
+            final Path path;
+            try
+            {
+                path = FolderScanner.this.queue.take ();
+            }
+            catch (final InterruptedException ex)
+            {
+                FolderScanner.this.cancel ();
+                Thread.currentThread ().interrupt ();
+                throw new UncheckedIOException (new InterruptedIOException ("The scan was interrupted."));
+            }
+
+            if (path == END)
+            {
+                this.done = true;
+                final RuntimeException failure = FolderScanner.this.failure;
+                if (failure != null)
+                    throw failure;
+                return false;
+            }
+            action.accept (path);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+
+/**
+ * Interface to various file selection dialogs.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public interface NativeFileDialogs
+{
+    /**
+     * Set the curent directory. Might be as well a file for pre-selection of selectFile and
+     * selectNewFile calls.
+     *
+     * @param currentDirectory The current directory
+     */
+    void setCurrentDirectory (File currentDirectory);
+
+
+    /**
+     * Display a dialog for selecting a file, which should be opened.
+     *
+     * @return The selected file or null if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectFile () throws IOException;
+
+
+    /**
+     * Display a dialog for selecting a file, which should be opened.
+     *
+     * @param filters Display only the files matching the given filters
+     * @return The selected file or null if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectFile (FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting a file, which should be opened.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters Display only the files matching the given filters
+     * @return The selected file or null if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectFile (String title, FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting several files, which should be opened.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters Display only the files matching the given filters
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    List<File> selectFiles (String title, FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting several files, which should be opened. The paths are handed
+     * to the stream as soon as they are read from the dialog, therefore the stream must be closed
+     * after use.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters Display only the files matching the given filters
+     * @return The lazily populated stream of the selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    Stream<Path> selectFilesAsStream (String title, FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting a file, which should be saved.
+     *
+     * @return The selected file or null if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectNewFile () throws IOException;
+
+
+    /**
+     * Display a dialog for selecting a file, which should be saved.
+     *
+     * @param filters Display only the files matching the given filters
+     * @return The selected file or null if the dialog was canceled or the name does not match the
+     *         filters
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectNewFile (FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting a file, which should be saved.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters Display only the files matching the given filters
+     * @return The selected file or null if the dialog was canceled or the name does not match the
+     *         filters
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectNewFile (String title, FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog to select a folder.
+     *
+     * @return The selected folder or null if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectFolder () throws IOException;
+
+
+    /**
+     * Display a dialog to select a folder.
+     *
+     * @param title The title to use for the folder, may be null
+     * @return The selected folder or null if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    File selectFolder (String title) throws IOException;
+
+
+    /**
+     * Display a dialog to select a folder and scan it recursively for the files matching the
+     * filters. The scan starts as soon as the folder is selected and runs in parallel on one
+     * thread per processor. The matching files are handed to the stream as soon as they are
+     * found, therefore the stream must be closed after use, which also cancels the scan.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters The filters which the files must match, all files match if empty
+     * @return The lazily populated stream of the matching files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    Stream<Path> selectFolderAndScan (String title, FileFilter... filters) throws IOException;
+
+
+    /**
+     * Display a dialog to select a folder and scan it recursively for the files matching the
+     * filters. The scan starts as soon as the folder is selected. The matching files are handed
+     * to the stream as soon as they are found, therefore the stream must be closed after use,
+     * which also cancels the scan.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param options The depth, the parallelism and the progress listener of the scan
+     * @param filters The filters which the files must match, all files match if empty
+     * @return The lazily populated stream of the matching files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    Stream<Path> selectFolderAndScan (String title, ScanOptions options, FileFilter... filters) throws IOException;
+
+
+    /**
+     * Set the executor which runs the asynchronous dialog calls.
+     *
+     * @param executor The executor to use, null restores the default, which uses virtual threads
+     *            if the runtime supports them
+     */
+    void setExecutor (Executor executor);
+
+
+    /**
+     * Display a dialog for selecting a file, which should be opened. Does not block the calling
+     * thread.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters Display only the files matching the given filters
+     * @return The future which completes with the selected file or null if the dialog was canceled
+     */
+    CompletableFuture<File> selectFileAsync (String title, FileFilter... filters);
+
+
+    /**
+     * Display a dialog for selecting a file, which should be saved. Does not block the calling
+     * thread.
+     *
+     * @param title The title to use for the folder, may be null
+     * @param filters Display only the files matching the given filters
+     * @return The future which completes with the selected file or null if the dialog was canceled
+     */
+    CompletableFuture<File> selectNewFileAsync (String title, FileFilter... filters);
+
+
+    /**
+     * Display a dialog to select a folder. Does not block the calling thread.
+     *
+     * @param title The title to use for the folder, may be null
+     * @return The future which completes with the selected folder or null if the dialog was
+     *         canceled
+     */
+    CompletableFuture<File> selectFolderAsync (String title);
+
+
+    /**
+     * Prepare the first dialog on a daemon thread, so that it is displayed as fast as the later
+     * ones: loads the classes of the backend, registers the flight recorder events, prepares each
+     * kind of dialog once, looks up the helper tool and reads the start directory. Calling it
+     * again returns the same future, with startToolkit only the toolkit is started additionally.
+     *
+     * @param startToolkit True to start the toolkit of the helper as well, e.g. by starting the
+     *            helper process once. On Linux each dialog is a new process of the dialog tool,
+     *            which initializes the toolkit itself, therefore only the tool and its libraries
+     *            are loaded into the disk cache
+     * @return The future which completes when the warm-up is finished, completes exceptionally if
+     *         the first dialog would fail as well, e.g. because no helper tool is installed
+     */
+    CompletableFuture<Void> warmUp (boolean startToolkit);
+
+
+    /**
+     * Display a dialog described by a request. All other dialog methods end up here.
+     *
+     * @param request The parameters of the dialog
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    List<File> select (DialogRequest request) throws IOException;
+
+
+    /**
+     * Display a dialog for selecting several files described by a request. The paths are handed
+     * to the stream as soon as they are read from the dialog, therefore the stream must be closed
+     * after use.
+     *
+     * @param request The parameters of the dialog, the kind should be OPEN_FILES
+     * @return The lazily populated stream of the selected files, empty if the dialog was canceled
+     * @throws IOException A problem with the dialog appeared
+     */
+    Stream<Path> selectAsStream (DialogRequest request) throws IOException;
+
+
+    /**
+     * Set the store of the last used directories. If set, a dialog request with a key starts in
+     * the directory in which the dialog with the same key was last used.
+     *
+     * @param recentDirectories The store, null to only use the current directory
+     */
+    void setRecentDirectories (RecentDirectories recentDirectories);
+
+
+    /**
+     * Set the index of the recently scanned folders. If set, selectFolderAndScan returns the files
+     * of a folder, which was scanned before with the same filters and depth, from the index
+     * instead of scanning it again.
+     *
+     * @param folderIndex The index, null to always scan the folders
+     */
+    void setFolderIndex (FolderIndex folderIndex);
+
+
+    /**
+     * Set the recorder of the dialogs. If set, each dialog is written to its trace file, which
+     * can be replayed with the scripted backend. Streamed selections are not recorded.
+     *
+     * @param recorder The recorder, null to stop recording
+     */
+    void setRecorder (DialogRecorder recorder);
+
+
+    /**
+     * Set the maximum time a dialog may stay open. Dialogs which are displayed by a helper process
+     * are closed by killing the process (and its child processes) when the time is over and fail
+     * with a DialogTimeoutException. Dialogs of asynchronous calls can be closed at any time by
+     * cancelling the returned future, synchronous calls by interrupting the calling thread. Dialogs
+     * which are displayed in-process (e.g. on Windows) cannot be closed.
+     *
+     * @param timeout The maximum time, null for no limit
+     */
+    void setTimeout (Duration timeout);
+
+
+    /**
+     * Set the scheduler of the dialogs, which prevents that several dialogs of the same owner are
+     * displayed at the same time. The scheduler can be shared by several instances. Streamed
+     * selections are not scheduled.
+     *
+     * @param scheduler The scheduler, null to display all dialogs immediately
+     */
+    void setScheduler (DialogScheduler scheduler);
+
+
+    /**
+     * Add a listener, which is notified with the timings of each finished dialog.
+     *
+     * @param listener The listener
+     */
+    void addDialogListener (DialogListener listener);
+
+
+    /**
+     * Remove a dialog listener.
+     *
+     * @param listener The listener
+     */
+    void removeDialogListener (DialogListener listener);
+}
@@ -0,0 +1,139 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import de.mossgrabers.nativefiledialogs.script.ScriptedFileDialogs;
+import de.mossgrabers.nativefiledialogs.swing.SwingFileDialogs;
+
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ServiceLoader;
+
+
+/**
+ * The factory for creating the platform specific accessor. The platform modules (linux, macos and
+ * windows) register a NativeFileDialogsProvider, which is found with the ServiceLoader, therefore
+ * only the module of the running platform needs to be deployed. If there is no native dialog on
+ * the platform (e.g. none of the Linux dialog tools is installed or the module is missing) but a
+ * display, the Swing file chooser is used, which starts to warm up immediately. For tests the
+ * dialogs can be answered from a script instead and the dialogs of the real backends can be
+ * recorded, both are enabled with system properties.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class NativeFileDialogsFactory
+{
+    /** The system property with the script file, which selects the scripted backend. */
+    public static final String       SCRIPT_PROPERTY       = "nativefiledialogs.script";
+    /** The system property with the factor of the delays of the scripted backend. */
+    public static final String       DELAY_FACTOR_PROPERTY = "nativefiledialogs.script.delayFactor";
+    /** The system property with the trace file in which all dialogs are recorded. */
+    public static final String       RECORD_PROPERTY       = "nativefiledialogs.record";
+
+    private static NativeFileDialogs instance;
+
+    /**
+     * Constructor.
+     */
+    private NativeFileDialogsFactory ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Creates access to native file dialogs or the Swing fallback. If the system property
+     * nativefiledialogs.script is set, creates the scripted backend which answers the dialogs from
+     * that file instead. If nativefiledialogs.record is set, all dialogs are recorded in that file.
+     *
+     * @param currentDirectory The initial directory to use, may be null
+     * @return The instance
+     * @throws PlatformNotSupported Thrown if the platform OS is not supported
+     */
+    public static synchronized NativeFileDialogs create (final File currentDirectory) throws PlatformNotSupported
+    {
+        if (instance == null)
+        {
+            final String scriptFile = System.getProperty (SCRIPT_PROPERTY);
+            if (scriptFile != null)
+                instance = createScripted (currentDirectory, scriptFile);
+            else
+                instance = createNative (currentDirectory);
+
+            final String traceFile = System.getProperty (RECORD_PROPERTY);
+            if (traceFile != null)
+                instance.setRecorder (new DialogRecorder (Paths.get (traceFile)));
+        }
+        return instance;
+    }
+
+
+    /**
+     * Creates access to native file dialogs like {@link #create(File)} and optionally starts to
+     * warm up the first dialog on a daemon thread (see {@link NativeFileDialogs#warmUp(boolean)}).
+     * The warm-up reports when it is finished with the future returned by warmUp (false), call
+     * warmUp (true) to start the toolkit of the helper as well.
+     *
+     * @param currentDirectory The initial directory to use, may be null
+     * @param warmUp True to warm up the first dialog
+     * @return The instance
+     * @throws PlatformNotSupported Thrown if the platform OS is not supported
+     */
+    public static synchronized NativeFileDialogs create (final File currentDirectory, final boolean warmUp) throws PlatformNotSupported
+    {
+        final NativeFileDialogs dialogs = create (currentDirectory);
+        if (warmUp)
+            dialogs.warmUp (false);
+        return dialogs;
+    }
+
+
+    private static NativeFileDialogs createScripted (final File currentDirectory, final String scriptFile)
+    {
+        final ScriptedFileDialogs dialogs = new ScriptedFileDialogs (currentDirectory, Paths.get (scriptFile));
+        final String delayFactor = System.getProperty (DELAY_FACTOR_PROPERTY);
+        if (delayFactor != null)
+            dialogs.setDelayFactor (Double.parseDouble (delayFactor));
+        return dialogs;
+    }
+
+
+    private static NativeFileDialogs createNative (final File currentDirectory) throws PlatformNotSupported
+    {
+        NativeFileDialogsProvider unavailable = null;
+        for (final NativeFileDialogsProvider provider: ServiceLoader.load (NativeFileDialogsProvider.class, NativeFileDialogsFactory.class.getClassLoader ()))
+        {
+            if (!provider.isSupported ())
+                continue;
+            if (provider.isAvailable ())
+                return provider.create (currentDirectory);
+            if (unavailable == null)
+                unavailable = provider;
+        }
+
+        if (hasDisplay ())
+            return new SwingFileDialogs (currentDirectory);
+        // Reports what is missing with the first dialog
+        if (unavailable != null)
+            return unavailable.create (currentDirectory);
+        throw new PlatformNotSupported ();
+    }
+
+
+    /**
+     * Check if Swing dialogs can be displayed. The java.desktop module is optional, a runtime
+     * image without it cannot display them.
+     *
+     * @return True if there is a display
+     */
+    private static boolean hasDisplay ()
+    {
+        final Module module = NativeFileDialogsFactory.class.getModule ();
+        if (module.isNamed () && module.getLayer () != null && module.getLayer ().findModule ("java.desktop").isEmpty ())
+            return false;
+        return !GraphicsEnvironment.isHeadless ();
+    }
+}
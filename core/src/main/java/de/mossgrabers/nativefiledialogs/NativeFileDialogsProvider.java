@@ -0,0 +1,44 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+
+
+/**
+ * Interface for the platform modules, which provide the native dialogs. The factory finds the
+ * providers with the ServiceLoader, therefore only the modules of the platforms which are on the
+ * class (or module) path are loaded. A provider must have a public constructor without parameters
+ * and must not load any native code before create is called.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public interface NativeFileDialogsProvider
+{
+    /**
+     * Check if the dialogs of this provider can be used on the running operating system.
+     *
+     * @return True if supported
+     */
+    boolean isSupported ();
+
+
+    /**
+     * Check if the dialogs can be displayed, e.g. if the required tools are installed. If not,
+     * the factory prefers the Swing fallback, if there is a display.
+     *
+     * @return True if available
+     */
+    boolean isAvailable ();
+
+
+    /**
+     * Create the dialogs.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @return The dialogs
+     */
+    NativeFileDialogs create (File currentDirectory);
+}
@@ -0,0 +1,61 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.util.Locale;
+
+
+/**
+ * The operating systems, which are distinguished by the backends. Detected from the os.name
+ * system property, the same way as JNA does it, but without loading JNA.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public enum OperatingSystem
+{
+    /** Microsoft Windows. */
+    WINDOWS,
+    /** Apple macOS. */
+    MAC,
+    /** Linux. */
+    LINUX,
+    /** All other systems. */
+    OTHER;
+
+
+    private static final OperatingSystem CURRENT = detect (System.getProperty ("os.name"));
+
+
+    /**
+     * Get the operating system on which the JVM runs.
+     *
+     * @return The operating system
+     */
+    public static OperatingSystem get ()
+    {
+        return CURRENT;
+    }
+
+
+    /**
+     * Get the operating system from its name.
+     *
+     * @param osName The value of the os.name system property, may be null
+     * @return The operating system
+     */
+    private static OperatingSystem detect (final String osName)
+    {
+        if (osName == null)
+            return OTHER;
+        final String name = osName.toLowerCase (Locale.ENGLISH);
+        if (name.startsWith ("windows"))
+            return WINDOWS;
+        if (name.startsWith ("mac") || name.startsWith ("darwin"))
+            return MAC;
+        if (name.startsWith ("linux"))
+            return LINUX;
+        return OTHER;
+    }
+}
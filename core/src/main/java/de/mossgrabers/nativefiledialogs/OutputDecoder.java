@@ -0,0 +1,222 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Decodes the output of a helper process into separated texts (e.g. paths). The bytes are read
+ * from a channel into a reusable buffer and split on the separator byte before they are decoded,
+ * therefore each text is decoded exactly once with the given character set. Line breaks inside of
+ * a text are kept, only the line break at the end of the output is removed. Empty texts are
+ * skipped. The total output size is limited.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class OutputDecoder
+{
+    /** Use as separator to get the whole output as one text. */
+    public static final int           NO_SEPARATOR    = -1;
+    /** Separate the texts with the NUL character. */
+    public static final int           NUL             = 0;
+
+    private static final int          BUFFER_SIZE     = 8192;
+
+    private final ReadableByteChannel channel;
+    private final Charset             charset;
+    private final int                 separator;
+    private final long                maxSize;
+    private final ByteBuffer          buffer          = ByteBuffer.allocate (BUFFER_SIZE);
+    private byte []                   text            = new byte [256];
+    private int                       textLength      = 0;
+    private long                      totalSize       = 0;
+    private boolean                   isAtEnd         = false;
+    private Runnable                  firstByteListener;
+    private long                      processingNanos = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param channel The channel from which to read the output
+     * @param charset The character set to decode the texts
+     * @param separator The byte value which separates the texts or NO_SEPARATOR
+     * @param maxSize The maximum number of bytes which are read from the channel
+     */
+    public OutputDecoder (final ReadableByteChannel channel, final Charset charset, final int separator, final long maxSize)
+    {
+        this.channel = channel;
+        this.charset = charset;
+        this.separator = separator;
+        this.maxSize = maxSize;
+
+        this.buffer.flip ();
+    }
+
+
+    /**
+     * Read and decode the next text. Blocks until the text is complete.
+     *
+     * @return The text or null if the end of the output is reached
+     * @throws IOException Could not read from the channel or the output is larger than the
+     *             maximum size
+     */
+    public String next () throws IOException
+    {
+        while (true)
+        {
+            if (!this.buffer.hasRemaining ())
+            {
+                if (this.isAtEnd || !this.fill ())
+                {
+                    this.isAtEnd = true;
+                    if (this.textLength == 0)
+                        return null;
+                    final long start = System.nanoTime ();
+                    this.stripLineBreak ();
+                    final String text = this.textLength == 0 ? null : this.takeText ();
+                    this.processingNanos += System.nanoTime () - start;
+                    return text;
+                }
+            }
+
+            final long start = System.nanoTime ();
+            final String text = this.scan ();
+            this.processingNanos += System.nanoTime () - start;
+            if (text != null)
+                return text;
+        }
+    }
+
+
+    /**
+     * Set a listener which is notified when the first byte was read from the channel.
+     *
+     * @param firstByteListener The listener, called on the reading thread
+     */
+    public void setFirstByteListener (final Runnable firstByteListener)
+    {
+        this.firstByteListener = firstByteListener;
+    }
+
+
+    /**
+     * Get the number of bytes which were read from the channel.
+     *
+     * @return The number of bytes
+     */
+    public long getSize ()
+    {
+        return this.totalSize;
+    }
+
+
+    /**
+     * Get the time which was spent for splitting and decoding (without waiting for the output).
+     *
+     * @return The time in nanoseconds
+     */
+    public long getProcessingNanos ()
+    {
+        return this.processingNanos;
+    }
+
+
+    /**
+     * Scan the buffered bytes up to the next separator.
+     *
+     * @return The completed text or null if more bytes need to be read
+     */
+    private String scan ()
+    {
+        final byte [] bytes = this.buffer.array ();
+        final int end = this.buffer.limit ();
+        int position = this.buffer.position ();
+        final int start = position;
+        while (position < end && (bytes[position] & 0xFF) != this.separator)
+            position++;
+        this.append (bytes, start, position - start);
+
+        if (position < end)
+        {
+            // Skip the separator
+            this.buffer.position (position + 1);
+            if (this.textLength > 0)
+                return this.takeText ();
+        }
+        else
+            this.buffer.position (position);
+        return null;
+    }
+
+
+    /**
+     * Read and decode all texts until the end of the output.
+     *
+     * @return The texts
+     * @throws IOException Could not read from the channel or the output is larger than the
+     *             maximum size
+     */
+    public List<String> readAll () throws IOException
+    {
+        final List<String> texts = new ArrayList<> ();
+        String text;
+        while ((text = this.next ()) != null)
+            texts.add (text);
+        return texts;
+    }
+
+
+    private boolean fill () throws IOException
+    {
+        this.buffer.clear ();
+        int length = 0;
+        while (length == 0)
+            length = this.channel.read (this.buffer);
+        this.buffer.flip ();
+
+        if (length < 0)
+            return false;
+        if (this.totalSize == 0 && this.firstByteListener != null)
+            this.firstByteListener.run ();
+        this.totalSize += length;
+        if (this.totalSize > this.maxSize)
+            throw new IOException ("The output of the process exceeds the maximum size of " + this.maxSize + " bytes.");
+        return true;
+    }
+
+
+    private void append (final byte [] bytes, final int offset, final int length)
+    {
+        if (this.textLength + length > this.text.length)
+            this.text = Arrays.copyOf (this.text, Math.max (this.text.length * 2, this.textLength + length));
+        System.arraycopy (bytes, offset, this.text, this.textLength, length);
+        this.textLength += length;
+    }
+
+
+    private void stripLineBreak ()
+    {
+        if (this.textLength == 0 || this.text[this.textLength - 1] != '\n')
+            return;
+        this.textLength--;
+        if (this.textLength > 0 && this.text[this.textLength - 1] == '\r')
+            this.textLength--;
+    }
+
+
+    private String takeText ()
+    {
+        final String result = new String (this.text, 0, this.textLength, this.charset);
+        this.textLength = 0;
+        return result;
+    }
+}
@@ -0,0 +1,396 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Resolves the start directory of a dialog without blocking on slow or dead mounts (e.g. a stale
+ * NFS or SMB share, on which a single stat call can block for tens of seconds). Each path is
+ * checked with one stat call on a background thread, which is abandoned after a timeout. A mount
+ * on which a check timed out is treated as unreachable for a short time (and as long as the check
+ * still hangs), its paths are skipped without a check. If the path cannot be reached in time, the
+ * nearest reachable parent folder is used and if there is none, the home folder. The resolved
+ * file keeps the result of the check, therefore the backends can call exists, isDirectory, isFile
+ * and getParentFile on it without accessing the file system again.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class PathProbe
+{
+    /** The default time to wait for a check. */
+    public static final Duration         DEFAULT_TIMEOUT = Duration.ofSeconds (1);
+    /** The default time for which a mount is not checked again after a timeout. */
+    public static final Duration         DEFAULT_TTL     = Duration.ofSeconds (10);
+
+    private static final Path            MOUNTS_FILE     = Paths.get ("/proc/self/mounts");
+    private static final Path            VOLUMES_FOLDER  = Paths.get ("/Volumes");
+    private static final ExecutorService CHECKER         = createChecker ();
+
+    private final long                   timeoutNanos;
+    private final long                   ttlNanos;
+    private final Map<Path, Mount>       mounts          = new ConcurrentHashMap<> ();
+    private volatile List<Path>          mountPoints;
+    private volatile long                mountPointsTime;
+
+
+    /**
+     * Constructor. Uses the default timeout and time to live.
+     */
+    public PathProbe ()
+    {
+        this (DEFAULT_TIMEOUT, DEFAULT_TTL);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param timeout The time to wait for a check
+     * @param ttl The time for which a mount is not checked again after a timeout
+     */
+    public PathProbe (final Duration timeout, final Duration ttl)
+    {
+        this.timeoutNanos = timeout.toNanos ();
+        this.ttlNanos = ttl.toNanos ();
+    }
+
+
+    /**
+     * Resolve the start directory of a dialog.
+     *
+     * @param file The configured directory or file, may be null
+     * @return The file or directory itself if it exists, otherwise the nearest existing parent
+     *         folder or the home folder, null if the file is null or nothing could be reached
+     */
+    public File resolve (final File file)
+    {
+        if (file == null)
+            return null;
+
+        Path path;
+        try
+        {
+            path = file.toPath ().toAbsolutePath ();
+        }
+        catch (final InvalidPathException ex)
+        {
+            path = null;
+        }
+
+        while (path != null)
+        {
+            final Path mountPoint = this.getMountPoint (path);
+            final State state = this.check (mountPoint, path);
+            switch (state)
+            {
+                case DIRECTORY:
+                case FILE:
+                    return new ProbedFile (path.toString (), state == State.DIRECTORY);
+
+                case UNREACHABLE:
+                    // All other folders of the mount cannot be reached either
+                    path = mountPoint.getParent ();
+                    break;
+
+                default:
+                    path = path.getParent ();
+                    break;
+            }
+        }
+
+        final Path home = Paths.get (System.getProperty ("user.home")).toAbsolutePath ();
+        return this.check (this.getMountPoint (home), home) == State.DIRECTORY ? new ProbedFile (home.toString (), true) : null;
+    }
+
+
+    /**
+     * Check a path on a background thread.
+     *
+     * @param mountPoint The mount point of the path
+     * @param path The path
+     * @return The state of the path
+     */
+    private State check (final Path mountPoint, final Path path)
+    {
+        final Mount mount = this.mounts.computeIfAbsent (mountPoint, key -> new Mount ());
+        if (mount.isUnreachable (this.ttlNanos))
+            return State.UNREACHABLE;
+
+        final Future<State> future = CHECKER.submit ( () -> stat (path));
+        try
+        {
+            return future.get (this.timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        catch (final TimeoutException ex)
+        {
+            mount.setUnreachable (future);
+            return State.UNREACHABLE;
+        }
+        catch (final ExecutionException ex)
+        {
+            return State.MISSING;
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            return State.UNREACHABLE;
+        }
+    }
+
+
+    private static State stat (final Path path)
+    {
+        try
+        {
+            final BasicFileAttributes attributes = Files.readAttributes (path, BasicFileAttributes.class);
+            if (attributes.isDirectory ())
+                return State.DIRECTORY;
+            return attributes.isRegularFile () ? State.FILE : State.MISSING;
+        }
+        catch (final IOException ex)
+        {
+            // Does not exist or cannot be accessed
+            return State.MISSING;
+        }
+    }
+
+
+    /**
+     * Get the mount point of a path, which is the longest mount point which contains the path.
+     * Only reads the mount table, does not access the path.
+     *
+     * @param path The absolute path
+     * @return The mount point
+     */
+    private Path getMountPoint (final Path path)
+    {
+        // On Windows the root is the drive or the network share
+        Path result = path.getRoot ();
+        for (final Path mountPoint: this.getMountPoints ())
+            if (path.startsWith (mountPoint) && (result == null || mountPoint.getNameCount () > result.getNameCount ()))
+                result = mountPoint;
+        return result == null ? path : result;
+    }
+
+
+    /**
+     * Get the mount points. The list is read again when the time to live has passed.
+     *
+     * @return The mount points
+     */
+    private List<Path> getMountPoints ()
+    {
+        final long now = System.nanoTime ();
+        List<Path> result = this.mountPoints;
+        if (result == null || now - this.mountPointsTime > this.ttlNanos)
+        {
+            result = readMountPoints ();
+            this.mountPoints = result;
+            this.mountPointsTime = now;
+        }
+        return result;
+    }
+
+
+    /**
+     * Read the mount points from the mount table of Linux or the volumes folder of macOS.
+     *
+     * @return The mount points
+     */
+    private static List<Path> readMountPoints ()
+    {
+        final List<Path> result = new ArrayList<> ();
+        try
+        {
+            final OperatingSystem os = OperatingSystem.get ();
+            if (os == OperatingSystem.LINUX)
+            {
+                for (final String line: Files.readAllLines (MOUNTS_FILE, StandardCharsets.UTF_8))
+                {
+                    final String [] fields = line.split (" ");
+                    if (fields.length > 1)
+                        result.add (Paths.get (unescape (fields[1])));
+                }
+            }
+            else if (os == OperatingSystem.MAC)
+            {
+                try (final DirectoryStream<Path> volumes = Files.newDirectoryStream (VOLUMES_FOLDER))
+                {
+                    for (final Path volume: volumes)
+                        result.add (volume);
+                }
+            }
+        }
+        catch (final IOException | InvalidPathException ex)
+        {
+            // Use only the roots
+        }
+        return Collections.unmodifiableList (result);
+    }
+
+
+    /**
+     * Decode the octal escape sequences of the mount table (e.g. \040 for a space).
+     *
+     * @param field The field of the mount table
+     * @return The decoded text
+     */
+    private static String unescape (final String field)
+    {
+        if (field.indexOf ('\\') < 0)
+            return field;
+        final StringBuilder sb = new StringBuilder (field.length ());
+        for (int i = 0; i < field.length (); i++)
+        {
+            final char c = field.charAt (i);
+            if (c == '\\' && i + 3 < field.length ())
+            {
+                sb.append ((char) Integer.parseInt (field.substring (i + 1, i + 4), 8));
+                i += 3;
+            }
+            else
+                sb.append (c);
+        }
+        return sb.toString ();
+    }
+
+
+    private static ExecutorService createChecker ()
+    {
+        // A check of a dead mount might never return, therefore each check may get a new thread
+        return Executors.newCachedThreadPool (runnable -> {
+            final Thread thread = new Thread (runnable, "NativeFileDialogs Probe");
+            thread.setDaemon (true);
+            return thread;
+        });
+    }
+
+
+    /** The result of a check. */
+    private enum State
+    {
+        DIRECTORY,
+        FILE,
+        MISSING,
+        UNREACHABLE
+    }
+
+
+    /** The reachability of a mount. */
+    private static final class Mount
+    {
+        private volatile Future<State> hangingCheck;
+        private volatile long          failedTime;
+
+
+        /**
+         * Check if the mount timed out recently or if the check which timed out still hangs.
+         *
+         * @param ttlNanos The time for which a mount is not checked again after a timeout
+         * @return True if the mount should not be checked
+         */
+        boolean isUnreachable (final long ttlNanos)
+        {
+            final Future<State> check = this.hangingCheck;
+            if (check == null)
+                return false;
+            if (!check.isDone () || System.nanoTime () - this.failedTime < ttlNanos)
+                return true;
+            this.hangingCheck = null;
+            return false;
+        }
+
+
+        /**
+         * Mark the mount as unreachable.
+         *
+         * @param check The check which timed out
+         */
+        void setUnreachable (final Future<State> check)
+        {
+            this.failedTime = System.nanoTime ();
+            this.hangingCheck = check;
+        }
+    }
+
+
+    /** A file which keeps the result of its check. */
+    private static final class ProbedFile extends File
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean     isDirectory;
+
+
+        /**
+         * Constructor.
+         *
+         * @param path The path
+         * @param isDirectory True if it is a directory, otherwise a regular file
+         */
+        ProbedFile (final String path, final boolean isDirectory)
+        {
+            super (path);
+
+            this.isDirectory = isDirectory;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean exists ()
+        {
+            return true;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isDirectory ()
+        {
+            return this.isDirectory;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isFile ()
+        {
+            return !this.isDirectory;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public File getParentFile ()
+        {
+            // The parent of an existing file or directory exists as well
+            final String parent = this.getParent ();
+            return parent == null ? null : new ProbedFile (parent, true);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import de.mossgrabers.nativefiledialogs.jfr.FirstOutputEvent;
+import de.mossgrabers.nativefiledialogs.jfr.ParseEvent;
+import de.mossgrabers.nativefiledialogs.jfr.ProcessExitEvent;
+import de.mossgrabers.nativefiledialogs.jfr.ProcessSpawnEvent;
+
+
+/**
+ * Records the flight recorder events of one helper process, if the jdk.jfr module is present, and
+ * adds its timings to the trace of the dialog which started it.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class ProcessMonitor
+{
+    private final DialogTrace       trace;
+    private final ProcessSpawnEvent spawnEvent       = DialogTrace.FLIGHT_RECORDER ? new ProcessSpawnEvent () : null;
+    private final FirstOutputEvent  firstOutputEvent = DialogTrace.FLIGHT_RECORDER ? new FirstOutputEvent () : null;
+    private final ProcessExitEvent  exitEvent        = DialogTrace.FLIGHT_RECORDER ? new ProcessExitEvent () : null;
+    private final ParseEvent        parseEvent       = DialogTrace.FLIGHT_RECORDER ? new ParseEvent () : null;
+    private final long              spawnStart;
+    private long                    spawnEnd         = -1;
+    private volatile long           firstOutputTime  = -1;
+    private long                    exitTime         = -1;
+    private long                    parseNanos       = -1;
+
+    /**
+     * Constructor. Call right before the process is started.
+     *
+     * @param command The executable of the process
+     */
+    ProcessMonitor (final String command)
+    {
+        this.trace = DialogTrace.current ();
+
+        if (DialogTrace.FLIGHT_RECORDER)
+        {
+            this.spawnEvent.command = command;
+            this.firstOutputEvent.command = command;
+            this.exitEvent.command = command;
+            this.spawnEvent.begin ();
+        }
+        this.spawnStart = System.nanoTime ();
+    }
+
+
+    /**
+     * Call after the process was started.
+     */
+    void started ()
+    {
+        this.spawnEnd = System.nanoTime ();
+        if (!DialogTrace.FLIGHT_RECORDER)
+            return;
+
+        this.spawnEvent.commit ();
+        this.firstOutputEvent.begin ();
+        this.exitEvent.begin ();
+        this.parseEvent.begin ();
+    }
+
+
+    /**
+     * Call when the first output byte was read. Might be called from another thread.
+     */
+    void firstOutput ()
+    {
+        this.firstOutputTime = System.nanoTime ();
+        if (DialogTrace.FLIGHT_RECORDER)
+            this.firstOutputEvent.commit ();
+    }
+
+
+    /**
+     * Call when the output is completely read.
+     *
+     * @param decoder The decoder which read the output
+     * @param resultCount The number of decoded results
+     */
+    void parsed (final OutputDecoder decoder, final int resultCount)
+    {
+        this.parseNanos = decoder.getProcessingNanos ();
+        if (!DialogTrace.FLIGHT_RECORDER)
+            return;
+
+        this.parseEvent.end ();
+        if (this.parseEvent.shouldCommit ())
+        {
+            this.parseEvent.resultCount = resultCount;
+            this.parseEvent.size = decoder.getSize ();
+            this.parseEvent.processingTime = this.parseNanos;
+            this.parseEvent.commit ();
+        }
+    }
+
+
+    /**
+     * Call when the process has exited. Adds the timings to the dialog trace, if any.
+     *
+     * @param exitCode The exit code of the process
+     */
+    void exited (final int exitCode)
+    {
+        this.exitTime = System.nanoTime ();
+        if (DialogTrace.FLIGHT_RECORDER)
+        {
+            this.exitEvent.exitCode = exitCode;
+            this.exitEvent.commit ();
+        }
+
+        if (this.trace != null && this.spawnEnd >= 0)
+        {
+            final long firstOutput = this.firstOutputTime;
+            this.trace.addProcess (this.spawnEnd - this.spawnStart, firstOutput < 0 ? -1 : firstOutput - this.spawnEnd, this.exitTime - this.spawnEnd, this.parseNanos);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Helper class for wrapping results from a process execution.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class ProcessResult
+{
+    private final List<String> paths;
+    private final String       error;
+    private final int          exitCode;
+
+    /**
+     * Constructor.
+     *
+     * @param result The result text, if any (never null)
+     * @param error The error text, if any (never null)
+     * @param exitCode The exit code
+     */
+    public ProcessResult (final String result, final String error, final int exitCode)
+    {
+        this (result.isEmpty () ? Collections.emptyList () : Collections.singletonList (result), error, exitCode);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param paths The separated results (e.g. paths), if any (never null)
+     * @param error The error text, if any (never null)
+     * @param exitCode The exit code
+     */
+    public ProcessResult (final List<String> paths, final String error, final int exitCode)
+    {
+        this.paths = Collections.unmodifiableList (paths);
+        this.error = error;
+        this.exitCode = exitCode;
+    }
+
+
+    /**
+     * Get the result text. If the output was separated into several results they are joined with
+     * line breaks.
+     *
+     * @return The result text, empty if there is no result
+     */
+    public String getResult ()
+    {
+        return this.paths.size () == 1 ? this.paths.get (0) : String.join ("\n", this.paths);
+    }
+
+
+    /**
+     * Get the separated results (e.g. the selected paths).
+     *
+     * @return The results, empty if there is no result
+     */
+    public List<String> getPaths ()
+    {
+        return this.paths;
+    }
+
+
+    /**
+     * Get the error text.
+     *
+     * @return The error text
+     */
+    public String getError ()
+    {
+        return this.error;
+    }
+
+
+    /**
+     * Get the exit code.
+     *
+     * @return The exit code
+     */
+    public int getExitCode ()
+    {
+        return this.exitCode;
+    }
+}
@@ -0,0 +1,522 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Runs the helper processes (e.g. zenity, osascript). The standard output and error streams of
+ * the process are drained at the same time, which prevents that the process blocks on a full pipe.
+ * The standard output is split into separate results (e.g. paths) by an output decoder and is
+ * limited to a maximum size. The error output is only kept up to a maximum size, further output is
+ * read but discarded.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class ProcessRunner
+{
+    /** The default maximum number of bytes read from the standard output. */
+    public static final int                       MAX_OUTPUT_SIZE  = 16 * 1024 * 1024;
+    /** The maximum number of bytes kept from the error output. */
+    public static final int                       MAX_ERROR_SIZE   = 64 * 1024;
+    /** The character set which the JVM uses for file names. */
+    public static final Charset                   FILENAME_CHARSET = getFilenameCharset ();
+
+    private static final int                      BUFFER_SIZE      = 8192;
+    private static final ExecutorService          PUMP_EXECUTOR    = Executors.newCachedThreadPool (ProcessRunner::createPumpThread);
+    private static final ScheduledExecutorService WATCHDOG         = Executors.newSingleThreadScheduledExecutor (ProcessRunner::createWatchdogThread);
+
+
+    /**
+     * Checks the exit code and the error output of a process, whose results were streamed.
+     */
+    @FunctionalInterface
+    public interface ExitCheck
+    {
+        /**
+         * Check a process, which closed its output.
+         *
+         * @param result The exit code and the error output of the process, without the results
+         *            which were already handed to the stream
+         * @throws IOException The process failed
+         */
+        void check (ProcessResult result) throws IOException;
+    }
+
+
+    /**
+     * Constructor.
+     */
+    private ProcessRunner ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Execute a command line process and wait for it to exit. The whole output is returned as one
+     * result, decoded with the file name character set.
+     *
+     * @param args The arguments of the process
+     * @return The read output
+     * @throws IOException Could not execute the process
+     */
+    public static ProcessResult execute (final String [] args) throws IOException
+    {
+        return execute (args, FILENAME_CHARSET, OutputDecoder.NO_SEPARATOR, MAX_OUTPUT_SIZE);
+    }
+
+
+    /**
+     * Execute a command line process and wait for it to exit.
+     *
+     * @param args The arguments of the process
+     * @param charset The character set of the output
+     * @param separator The byte value which separates the results (e.g. OutputDecoder.NUL) or
+     *            OutputDecoder.NO_SEPARATOR
+     * @param maxOutputSize The maximum number of bytes to read from the standard output
+     * @return The read output
+     * @throws IOException Could not execute the process or the output exceeded the maximum size
+     */
+    public static ProcessResult execute (final String [] args, final Charset charset, final int separator, final long maxOutputSize) throws IOException
+    {
+        return execute (args, charset, separator, maxOutputSize, DialogDeadline.remaining ());
+    }
+
+
+    /**
+     * Execute a command line process and wait for it to exit. If the process does not exit in
+     * time or the waiting thread is interrupted, the process and all of its child processes are
+     * killed.
+     *
+     * @param args The arguments of the process
+     * @param charset The character set of the output
+     * @param separator The byte value which separates the results (e.g. OutputDecoder.NUL) or
+     *            OutputDecoder.NO_SEPARATOR
+     * @param maxOutputSize The maximum number of bytes to read from the standard output
+     * @param timeout The maximum time to wait for the process, null to wait without limit
+     * @return The read output
+     * @throws DialogTimeoutException The process did not exit in time
+     * @throws IOException Could not execute the process, the output exceeded the maximum size or
+     *             the waiting thread was interrupted
+     */
+    public static ProcessResult execute (final String [] args, final Charset charset, final int separator, final long maxOutputSize, final Duration timeout) throws IOException
+    {
+        final long deadline = timeout == null ? 0 : System.nanoTime () + timeout.toNanos ();
+        final ProcessMonitor monitor = new ProcessMonitor (args[0]);
+        final Process proc = start (args);
+        monitor.started ();
+
+        final Future<String> error = PUMP_EXECUTOR.submit (new ErrorPump (proc.getErrorStream ()));
+        final Future<List<String>> result = PUMP_EXECUTOR.submit ( () -> {
+            try (final ReadableByteChannel channel = Channels.newChannel (proc.getInputStream ()))
+            {
+                final OutputDecoder decoder = new OutputDecoder (channel, charset, separator, maxOutputSize);
+                decoder.setFirstByteListener (monitor::firstOutput);
+                final List<String> paths = decoder.readAll ();
+                monitor.parsed (decoder, paths.size ());
+                return paths;
+            }
+        });
+
+        try
+        {
+            // The pumps finish when the process closes its end of the pipes, which normally
+            // happens on exit
+            final List<String> paths = timeout == null ? result.get () : result.get (remaining (deadline), TimeUnit.NANOSECONDS);
+            if (timeout != null && !proc.waitFor (remaining (deadline), TimeUnit.NANOSECONDS))
+                throw new TimeoutException ();
+            final int exitCode = proc.waitFor ();
+            monitor.exited (exitCode);
+            return new ProcessResult (paths, error.get (), exitCode);
+        }
+        catch (final TimeoutException ex)
+        {
+            destroyTree (proc);
+            throw new DialogTimeoutException ("The dialog was not closed within " + timeout.toMillis () + " ms.");
+        }
+        catch (final InterruptedException ex)
+        {
+            destroyTree (proc);
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+        catch (final ExecutionException ex)
+        {
+            destroyTree (proc);
+            if (ex.getCause () instanceof IOException)
+                throw (IOException) ex.getCause ();
+            throw new IOException (ex.getCause ());
+        }
+    }
+
+
+    /**
+     * Execute a command line process, which prints several separated results (e.g. paths). The
+     * results are handed to the returned stream while they are read. The stream must be closed
+     * after use, which also terminates the process if it is still running. Closing the stream from
+     * another thread cancels the process. If the dialog on the current thread has a deadline, the
+     * process is killed when it is reached and the stream fails with a DialogTimeoutException.
+     *
+     * @param args The arguments of the process
+     * @param separator The byte value which separates the results
+     * @return The stream of results
+     * @throws IOException Could not execute the process
+     */
+    public static Stream<String> stream (final String [] args, final int separator) throws IOException
+    {
+        return stream (args, separator, null);
+    }
+
+
+    /**
+     * Execute a command line process, which prints several separated results (e.g. paths). Works
+     * like {@link #stream(String[], int)} but when the end of the output is reached, the stream
+     * waits for the process to exit and checks it. If the check fails, the stream fails with an
+     * UncheckedIOException.
+     *
+     * @param args The arguments of the process
+     * @param separator The byte value which separates the results
+     * @param exitCheck Checks the process after the end of its output, null to not check it
+     * @return The stream of results
+     * @throws IOException Could not execute the process
+     */
+    public static Stream<String> stream (final String [] args, final int separator, final ExitCheck exitCheck) throws IOException
+    {
+        final ProcessMonitor monitor = new ProcessMonitor (args[0]);
+        final Process proc = start (args);
+        monitor.started ();
+        final Future<String> error = PUMP_EXECUTOR.submit (new ErrorPump (proc.getErrorStream ()));
+
+        final ReadableByteChannel channel = Channels.newChannel (proc.getInputStream ());
+        final OutputDecoder decoder = new OutputDecoder (channel, FILENAME_CHARSET, separator, MAX_OUTPUT_SIZE);
+        decoder.setFirstByteListener (monitor::firstOutput);
+        final Duration timeout = DialogDeadline.remaining ();
+        final DecoderSpliterator spliterator = new DecoderSpliterator (decoder, timeout, exitCheck == null ? null : () -> checkExit (proc, error, exitCheck));
+        final ScheduledFuture<?> watchdog = timeout == null ? null : WATCHDOG.schedule ( () -> {
+            spliterator.setTimedOut ();
+            destroyTree (proc);
+        }, timeout.toNanos (), TimeUnit.NANOSECONDS);
+
+        return StreamSupport.stream (spliterator, false).onClose ( () -> {
+            if (watchdog != null)
+                watchdog.cancel (false);
+            // Stream was closed before the end was reached
+            if (proc.isAlive ())
+                destroyTree (proc);
+            try
+            {
+                channel.close ();
+            }
+            catch (final IOException ex)
+            {
+                throw new UncheckedIOException (ex);
+            }
+            finally
+            {
+                monitor.parsed (decoder, spliterator.getCount ());
+                try
+                {
+                    monitor.exited (proc.waitFor ());
+                }
+                catch (final InterruptedException ex)
+                {
+                    Thread.currentThread ().interrupt ();
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Wait for a process, whose output has ended, and check its exit code and error output.
+     *
+     * @param proc The process
+     * @param error The result of the error output pump
+     * @param exitCheck The check
+     * @throws IOException The check failed or the waiting thread was interrupted
+     */
+    private static void checkExit (final Process proc, final Future<String> error, final ExitCheck exitCheck) throws IOException
+    {
+        try
+        {
+            final int exitCode = proc.waitFor ();
+            exitCheck.check (new ProcessResult (List.of (), error.get (), exitCode));
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+        catch (final ExecutionException ex)
+        {
+            if (ex.getCause () instanceof IOException)
+                throw (IOException) ex.getCause ();
+            throw new IOException (ex.getCause ());
+        }
+    }
+
+
+    /**
+     * Start a process. The standard input of the process is closed immediately since none of the
+     * helpers reads from it.
+     *
+     * @param args The arguments of the process
+     * @return The started process
+     * @throws IOException Could not start the process
+     */
+    private static Process start (final String [] args) throws IOException
+    {
+        final ProcessBuilder pb = new ProcessBuilder (Arrays.asList (args));
+
+        // Fix potential redirections of library, which causes weird errors
+        if (OperatingSystem.get () == OperatingSystem.LINUX)
+            pb.environment ().put ("LD_LIBRARY_PATH", "");
+
+        final Process proc = pb.start ();
+        proc.getOutputStream ().close ();
+        return proc;
+    }
+
+
+    /**
+     * Kill a process and all of its child processes (e.g. if osascript started another helper)
+     * and close the pipes, which releases the threads reading from them.
+     *
+     * @param proc The process
+     */
+    private static void destroyTree (final Process proc)
+    {
+        proc.descendants ().forEach (ProcessHandle::destroyForcibly);
+        proc.destroyForcibly ();
+        closeQuietly (proc.getInputStream ());
+        closeQuietly (proc.getErrorStream ());
+    }
+
+
+    private static void closeQuietly (final Closeable closeable)
+    {
+        try
+        {
+            closeable.close ();
+        }
+        catch (final IOException ex)
+        {
+            // The process is gone anyway
+        }
+    }
+
+
+    private static long remaining (final long deadline)
+    {
+        return Math.max (0, deadline - System.nanoTime ());
+    }
+
+
+    private static Thread createPumpThread (final Runnable runnable)
+    {
+        final Thread thread = new Thread (runnable, "NativeFileDialogs-Pump");
+        thread.setDaemon (true);
+        return thread;
+    }
+
+
+    private static Thread createWatchdogThread (final Runnable runnable)
+    {
+        final Thread thread = new Thread (runnable, "NativeFileDialogs-Watchdog");
+        thread.setDaemon (true);
+        return thread;
+    }
+
+
+    private static Charset getFilenameCharset ()
+    {
+        final String encoding = System.getProperty ("sun.jnu.encoding");
+        try
+        {
+            if (encoding != null)
+                return Charset.forName (encoding);
+        }
+        catch (final IllegalArgumentException ex)
+        {
+            // Fall through
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+
+    /**
+     * Reads the error stream until its end. Keeps only up to a maximum number of bytes but
+     * continues reading to not block the writing process.
+     */
+    private static class ErrorPump implements Callable<String>
+    {
+        private final InputStream in;
+
+        /**
+         * Constructor.
+         *
+         * @param in The stream to read
+         */
+        ErrorPump (final InputStream in)
+        {
+            this.in = in;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public String call () throws IOException
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream ();
+            final byte [] buffer = new byte [BUFFER_SIZE];
+            try (final InputStream stream = this.in)
+            {
+                int length;
+                while ((length = stream.read (buffer)) != -1)
+                {
+                    final int keep = Math.min (length, MAX_ERROR_SIZE - out.size ());
+                    if (keep > 0)
+                        out.write (buffer, 0, keep);
+                }
+            }
+            return out.toString (FILENAME_CHARSET).trim ();
+        }
+    }
+
+
+    /** Checks the process when the end of its output is reached. */
+    @FunctionalInterface
+    private interface EndCheck
+    {
+        void check () throws IOException;
+    }
+
+
+    /**
+     * Hands the results of an output decoder to a stream while they are decoded.
+     */
+    private static class DecoderSpliterator extends Spliterators.AbstractSpliterator<String>
+    {
+        private final OutputDecoder decoder;
+        private final Duration      timeout;
+        private final EndCheck      endCheck;
+        private int                 count    = 0;
+        private volatile boolean    timedOut = false;
+
+        /**
+         * Constructor.
+         *
+         * @param decoder The decoder to read from
+         * @param timeout The timeout of the process, null if none
+         * @param endCheck Checks the process when the end of the output is reached, may be null
+         */
+        DecoderSpliterator (final OutputDecoder decoder, final Duration timeout, final EndCheck endCheck)
+        {
+            super (Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+
+            this.decoder = decoder;
+            this.timeout = timeout;
+            this.endCheck = endCheck;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean tryAdvance (final Consumer<? super String> action)
+        {
+            final String result;
+            try
+            {
+                result = this.decoder.next ();
+            }
+            catch (final ClosedByInterruptException ex)
+            {
+                throw new UncheckedIOException (new InterruptedIOException ("The dialog was interrupted."));
+            }
+            catch (final IOException ex)
+            {
+                this.checkTimeout ();
+                throw new UncheckedIOException (ex);
+            }
+
+            if (result == null)
+            {
+                this.checkTimeout ();
+                if (this.endCheck != null)
+                {
+                    try
+                    {
+                        this.endCheck.check ();
+                    }
+                    catch (final IOException ex)
+                    {
+                        this.checkTimeout ();
+                        throw new UncheckedIOException (ex);
+                    }
+                }
+                return false;
+            }
+            this.count++;
+            action.accept (result);
+            return true;
+        }
+
+
+        /**
+         * Get the number of results which were handed to the stream.
+         *
+         * @return The number of results
+         */
+        int getCount ()
+        {
+            return this.count;
+        }
+
+
+        /**
+         * Signal that the process was killed since it did not exit in time.
+         */
+        void setTimedOut ()
+        {
+            this.timedOut = true;
+        }
+
+
+        private void checkTimeout ()
+        {
+            if (this.timedOut)
+                throw new UncheckedIOException (new DialogTimeoutException ("The dialog was not closed within " + this.timeout.toMillis () + " ms."));
+        }
+    }
+}
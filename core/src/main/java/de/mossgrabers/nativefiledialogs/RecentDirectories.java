@@ -0,0 +1,299 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Remembers the last used directory (or file) of each kind of dialog, identified by a key of the
+ * application (e.g. 'import-samples'). The number of entries is limited, the least recently used
+ * entry is removed first. The entries are stored in a compact file, which is read with the first
+ * access. Changes are collected and written after a short delay, when the store is closed and when
+ * the JVM shuts down. The stored paths are not checked when loaded, the dialogs ignore paths which
+ * no longer exist.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class RecentDirectories implements Closeable
+{
+    /** The default maximum number of entries. */
+    public static final int                       DEFAULT_MAX_ENTRIES = 64;
+
+    private static final String                   FILE_HEADER         = "NFD-RECENT-1";
+    private static final char                     SEPARATOR           = '\0';
+    private static final long                     WRITE_DELAY         = 2000;
+    private static final ScheduledExecutorService WRITER              = createWriter ();
+
+    private final Path                            file;
+    private final int                             maxEntries;
+    private final Map<String, String>             entries;
+    private boolean                               isLoaded            = false;
+    private boolean                               isDirty             = false;
+    private boolean                               isWriteScheduled    = false;
+    private Thread                                shutdownHook;
+
+    /**
+     * Constructor. Uses the default file in the configuration directory of the user.
+     */
+    public RecentDirectories ()
+    {
+        this (getDefaultFile (), DEFAULT_MAX_ENTRIES);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param file The file in which the entries are stored
+     * @param maxEntries The maximum number of entries
+     */
+    public RecentDirectories (final Path file, final int maxEntries)
+    {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException ("The maximum number of entries must be at least 1.");
+
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<> (16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+
+            /** {@inheritDoc} */
+            @Override
+            protected boolean removeEldestEntry (final Map.Entry<String, String> eldest)
+            {
+                return this.size () > RecentDirectories.this.maxEntries;
+            }
+        };
+    }
+
+
+    /**
+     * Get the default file of the store.
+     *
+     * @return The file
+     */
+    public static Path getDefaultFile ()
+    {
+        final String userHome = System.getProperty ("user.home");
+        final Path configDirectory;
+        final OperatingSystem os = OperatingSystem.get ();
+        if (os == OperatingSystem.WINDOWS && System.getenv ("APPDATA") != null)
+            configDirectory = Paths.get (System.getenv ("APPDATA"));
+        else if (os == OperatingSystem.MAC)
+            configDirectory = Paths.get (userHome, "Library", "Application Support");
+        else
+        {
+            final String configHome = System.getenv ("XDG_CONFIG_HOME");
+            configDirectory = configHome == null || configHome.isBlank () ? Paths.get (userHome, ".config") : Paths.get (configHome);
+        }
+        return configDirectory.resolve ("nativefiledialogs").resolve ("recent-directories");
+    }
+
+
+    /**
+     * Get the last used directory of a dialog.
+     *
+     * @param key The key of the dialog
+     * @return The directory (or file) or null if there is none
+     */
+    public synchronized File get (final String key)
+    {
+        this.load ();
+        final String path = this.entries.get (clean (key));
+        return path == null ? null : new File (path);
+    }
+
+
+    /**
+     * Set the last used directory of a dialog. The change is written after a short delay.
+     *
+     * @param key The key of the dialog
+     * @param directory The directory (or file)
+     */
+    public synchronized void put (final String key, final File directory)
+    {
+        this.load ();
+        final String path = directory.getAbsolutePath ();
+        if (path.equals (this.entries.put (clean (key), path)))
+            return;
+
+        this.isDirty = true;
+        if (this.shutdownHook == null)
+        {
+            this.shutdownHook = new Thread (this::flushQuietly, "NativeFileDialogs-Shutdown");
+            Runtime.getRuntime ().addShutdownHook (this.shutdownHook);
+        }
+        if (!this.isWriteScheduled)
+        {
+            this.isWriteScheduled = true;
+            WRITER.schedule (this::flushQuietly, WRITE_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Write the pending changes now.
+     *
+     * @throws IOException Could not write the file
+     */
+    public void flush () throws IOException
+    {
+        final byte [] content;
+        synchronized (this)
+        {
+            this.isWriteScheduled = false;
+            if (!this.isDirty)
+                return;
+            this.isDirty = false;
+            content = this.format ();
+        }
+
+        try
+        {
+            Files.createDirectories (this.file.getParent ());
+            final Path tempFile = Files.createTempFile (this.file.getParent (), "recent", ".tmp");
+            Files.write (tempFile, content);
+            Files.move (tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException ex)
+        {
+            synchronized (this)
+            {
+                this.isDirty = true;
+            }
+            throw ex;
+        }
+    }
+
+
+    /**
+     * Write the pending changes.
+     *
+     * @throws IOException Could not write the file
+     */
+    @Override
+    public void close () throws IOException
+    {
+        synchronized (this)
+        {
+            if (this.shutdownHook != null)
+            {
+                try
+                {
+                    Runtime.getRuntime ().removeShutdownHook (this.shutdownHook);
+                }
+                catch (final IllegalStateException ex)
+                {
+                    // The JVM is already shutting down and runs the hook
+                }
+                this.shutdownHook = null;
+            }
+        }
+        this.flush ();
+    }
+
+
+    private static ScheduledExecutorService createWriter ()
+    {
+        return Executors.newSingleThreadScheduledExecutor (runnable -> {
+            final Thread thread = new Thread (runnable, "NativeFileDialogs-Writer");
+            thread.setDaemon (true);
+            return thread;
+        });
+    }
+
+
+    private void flushQuietly ()
+    {
+        try
+        {
+            this.flush ();
+        }
+        catch (final IOException ex)
+        {
+            // The store is only a convenience, try again with the next change
+        }
+    }
+
+
+    /**
+     * Read all entries with one read. Entries are stored as key and path pairs separated by NUL,
+     * starting with the least recently used one.
+     */
+    private void load ()
+    {
+        if (this.isLoaded)
+            return;
+        this.isLoaded = true;
+
+        final String content;
+        try
+        {
+            content = new String (Files.readAllBytes (this.file), StandardCharsets.UTF_8);
+        }
+        catch (final NoSuchFileException ex)
+        {
+            return;
+        }
+        catch (final IOException ex)
+        {
+            // A broken file is simply overwritten with the next change
+            return;
+        }
+
+        int start = content.indexOf (SEPARATOR);
+        if (start < 0 || !FILE_HEADER.equals (content.substring (0, start)))
+            return;
+        start++;
+        while (start < content.length ())
+        {
+            final int keyEnd = content.indexOf (SEPARATOR, start);
+            if (keyEnd < 0)
+                return;
+            final int pathEnd = content.indexOf (SEPARATOR, keyEnd + 1);
+            if (pathEnd < 0)
+                return;
+            this.entries.put (content.substring (start, keyEnd), content.substring (keyEnd + 1, pathEnd));
+            start = pathEnd + 1;
+        }
+    }
+
+
+    private byte [] format ()
+    {
+        final StringBuilder sb = new StringBuilder (FILE_HEADER).append (SEPARATOR);
+        for (final Map.Entry<String, String> entry: this.entries.entrySet ())
+            sb.append (entry.getKey ()).append (SEPARATOR).append (entry.getValue ()).append (SEPARATOR);
+        return sb.toString ().getBytes (StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Remove the separator character, which cannot be stored, from a key. Paths cannot contain it.
+     *
+     * @param key The key
+     * @return The cleaned key
+     */
+    private static String clean (final String key)
+    {
+        return key.indexOf (SEPARATOR) < 0 ? key : key.replace (String.valueOf (SEPARATOR), "");
+    }
+}
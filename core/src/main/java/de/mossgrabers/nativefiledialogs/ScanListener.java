@@ -0,0 +1,41 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import java.nio.file.Path;
+
+
+/**
+ * Callback interface to follow the progress of a folder scan.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public interface ScanListener
+{
+    /**
+     * Called after a folder was scanned. Called on the scanning threads, possibly at the same
+     * time, therefore implementations must be thread-safe and should return quickly. A runtime
+     * exception stops the scan and is thrown by the stream of the found files.
+     *
+     * @param folder The folder which was scanned
+     * @param scannedFolders The number of folders scanned so far
+     * @param matchedFiles The number of matching files found so far
+     */
+    void folderScanned (Path folder, long scannedFolders, long matchedFiles);
+
+
+    /**
+     * Called once when the scan is complete or was cancelled.
+     *
+     * @param scannedFolders The number of scanned folders
+     * @param matchedFiles The number of matching files
+     * @param cancelled True if the scan was cancelled by closing the stream or stopped by an
+     *            exception of the listener, the numbers then only cover a part of the folders
+     */
+    default void scanFinished (final long scannedFolders, final long matchedFiles, final boolean cancelled)
+    {
+        // Intentionally empty
+    }
+}
@@ -0,0 +1,83 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+/**
+ * The options of a folder scan.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class ScanOptions
+{
+    /** Scan all sub-folders. */
+    public static final int    UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    private final int          maxDepth;
+    private final int          parallelism;
+    private final ScanListener listener;
+
+
+    /**
+     * Constructor. Scans all sub-folders with one thread per processor and without a listener.
+     */
+    public ScanOptions ()
+    {
+        this (UNLIMITED_DEPTH, Runtime.getRuntime ().availableProcessors (), null);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxDepth The maximum number of folder levels to scan, 1 scans only the files of the
+     *            selected folder, UNLIMITED_DEPTH scans all sub-folders
+     * @param parallelism The number of threads, which scan the folders
+     * @param listener The listener which is notified about the progress, may be null
+     */
+    public ScanOptions (final int maxDepth, final int parallelism, final ScanListener listener)
+    {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException ("The maximum depth must be at least 1.");
+        if (parallelism < 1)
+            throw new IllegalArgumentException ("The parallelism must be at least 1.");
+
+        this.maxDepth = maxDepth;
+        this.parallelism = parallelism;
+        this.listener = listener;
+    }
+
+
+    /**
+     * Get the maximum number of folder levels to scan.
+     *
+     * @return The depth, 1 scans only the files of the selected folder
+     */
+    public int getMaxDepth ()
+    {
+        return this.maxDepth;
+    }
+
+
+    /**
+     * Get the number of threads, which scan the folders.
+     *
+     * @return The number of threads
+     */
+    public int getParallelism ()
+    {
+        return this.parallelism;
+    }
+
+
+    /**
+     * Get the listener which is notified about the progress.
+     *
+     * @return The listener, may be null
+     */
+    public ScanListener getListener ()
+    {
+        return this.listener;
+    }
+}
@@ -0,0 +1,185 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.helper;
+
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * The line based protocol between the library and a persistent helper process. All text is UTF-8
+ * encoded, each message is one line and the fields of a message are separated by tabulators.
+ * Backslash, tabulator, carriage return and line feed inside of a field are escaped as \\, \t, \r
+ * and \n.
+ *
+ * <pre>
+ * Helper, once after start:  READY
+ * Library:                   REQUEST id kind title directory filterCount (label extensionCount extension...)...
+ * Helper, while displaying:  ALIVE id
+ * Helper, for each path:     RESULT id path
+ * Helper, to finish:         END id OK|CANCEL|ERROR [message]
+ * Library, on shutdown:      QUIT
+ * </pre>
+ *
+ * The kind is the name of a dialog kind (e.g. OPEN_FILE), an empty title or directory means
+ * none. While the dialog of a request is open, the helper sends ALIVE at least once per second,
+ * which lets the library tell a slow user from a helper which hangs.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class HelperProtocol
+{
+    /** Sent by the helper when it is ready to accept requests. */
+    public static final String                       READY          = "READY";
+    /** A dialog request. */
+    public static final String                       REQUEST        = "REQUEST";
+    /** The dialog of a request is still open. */
+    public static final String                       ALIVE          = "ALIVE";
+    /** A selected path. */
+    public static final String                       RESULT         = "RESULT";
+    /** The end of the response to a request. */
+    public static final String                       END            = "END";
+    /** Terminates the helper. */
+    public static final String                       QUIT           = "QUIT";
+
+    /** The dialog was closed with a selection. */
+    public static final String                       OK             = "OK";
+    /** The dialog was canceled. */
+    public static final String                       CANCEL         = "CANCEL";
+    /** The dialog could not be displayed. */
+    public static final String                       ERROR          = "ERROR";
+
+    private static final Function<FilterSet, String> FILTER_ENCODER = HelperProtocol::encodeFilters;
+
+    /**
+     * Constructor.
+     */
+    private HelperProtocol ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Create the line for a dialog request.
+     *
+     * @param id The ID of the request
+     * @param request The request
+     * @param directory The start directory, may be null
+     * @return The line without line feed
+     */
+    public static String formatRequest (final long id, final DialogRequest request, final File directory)
+    {
+        final StringBuilder sb = new StringBuilder (REQUEST);
+        appendField (sb, Long.toString (id));
+        appendField (sb, request.getKind ().name ());
+        appendField (sb, request.getTitle () == null ? "" : request.getTitle ());
+        appendField (sb, directory == null ? "" : directory.getAbsolutePath ());
+        sb.append (request.getFilterSet ().getEncoding (FILTER_ENCODER));
+        return sb.toString ();
+    }
+
+
+    /**
+     * Split a line into its (unescaped) fields.
+     *
+     * @param line The line
+     * @return The fields
+     */
+    public static List<String> parseFields (final String line)
+    {
+        final List<String> fields = new ArrayList<> ();
+        final StringBuilder field = new StringBuilder ();
+        for (int i = 0; i < line.length (); i++)
+        {
+            final char c = line.charAt (i);
+            if (c == '\t')
+            {
+                fields.add (field.toString ());
+                field.setLength (0);
+            }
+            else if (c == '\\' && i + 1 < line.length ())
+            {
+                i++;
+                switch (line.charAt (i))
+                {
+                    case 't':
+                        field.append ('\t');
+                        break;
+                    case 'r':
+                        field.append ('\r');
+                        break;
+                    case 'n':
+                        field.append ('\n');
+                        break;
+                    default:
+                        field.append (line.charAt (i));
+                        break;
+                }
+            }
+            else
+                field.append (c);
+        }
+        fields.add (field.toString ());
+        return fields;
+    }
+
+
+    /**
+     * Encode the filter count and the filters as fields.
+     *
+     * @param filters The filters
+     * @return The fields, each with a leading tabulator
+     */
+    private static String encodeFilters (final FilterSet filters)
+    {
+        final StringBuilder sb = new StringBuilder ();
+        appendField (sb, Integer.toString (filters.size ()));
+        for (int i = 0; i < filters.size (); i++)
+        {
+            final FileFilter filter = filters.get (i);
+            final List<String> extensions = filter.getExtensionList ();
+            appendField (sb, filter.getLabel ());
+            appendField (sb, Integer.toString (extensions.size ()));
+            for (final String extension: extensions)
+                appendField (sb, extension);
+        }
+        return sb.toString ();
+    }
+
+
+    private static void appendField (final StringBuilder sb, final String value)
+    {
+        sb.append ('\t');
+        for (int i = 0; i < value.length (); i++)
+        {
+            final char c = value.charAt (i);
+            switch (c)
+            {
+                case '\\':
+                    sb.append ("\\\\");
+                    break;
+                case '\t':
+                    sb.append ("\\t");
+                    break;
+                case '\r':
+                    sb.append ("\\r");
+                    break;
+                case '\n':
+                    sb.append ("\\n");
+                    break;
+                default:
+                    sb.append (c);
+                    break;
+            }
+        }
+    }
+}
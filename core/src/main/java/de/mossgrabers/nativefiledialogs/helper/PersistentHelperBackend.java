@@ -0,0 +1,447 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.helper;
+
+import de.mossgrabers.nativefiledialogs.DialogBackend;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * A dialog backend which keeps a helper process running and sends it the dialog requests via the
+ * helper protocol. This saves the process start and the toolkit initialization of the helper for
+ * all but the first dialog. The backend supervises the helper: if it crashes, breaks the protocol
+ * or does not send a message within the read timeout (it sends ALIVE while a dialog is open), it
+ * is killed and restarted and the request is sent again. If the timeout of the dialog passes, the
+ * helper is killed and the dialog fails with a DialogTimeoutException. Requests are processed one
+ * after the other since the dialogs are modal, a request which waits for its turn can be
+ * interrupted.
+ *
+ * @see HelperProtocol
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class PersistentHelperBackend implements DialogBackend
+{
+    /** The number of restarts in a row, after which the helper is considered to be broken. */
+    public static final int      MAX_RESTARTS         = 3;
+    /** The default maximum time to wait for the next message of the helper. */
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds (10);
+
+    private static final int     MAX_PENDING_LINES    = 1024;
+
+    private final String []      command;
+    private final ReentrantLock  lock                 = new ReentrantLock ();
+    private volatile Duration    readTimeout          = DEFAULT_READ_TIMEOUT;
+    private volatile Process     process;
+    private LineReader           reader;
+    private BufferedWriter       writer;
+    private long                 nextId               = 1;
+    private volatile int         restartCount         = 0;
+    private volatile boolean     isClosing            = false;
+
+    /**
+     * Constructor. The helper is started with the first request.
+     *
+     * @param command The command and arguments to start the helper process
+     */
+    public PersistentHelperBackend (final String... command)
+    {
+        this.command = command.clone ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public List<File> show (final DialogRequest request, final File directory) throws IOException
+    {
+        this.lock ();
+        try
+        {
+            return this.showLocked (request, directory);
+        }
+        finally
+        {
+            this.lock.unlock ();
+        }
+    }
+
+
+    private List<File> showLocked (final DialogRequest request, final File directory) throws IOException
+    {
+        IOException lastError = null;
+        for (int attempt = 0; attempt <= MAX_RESTARTS; attempt++)
+        {
+            final Response response;
+            try
+            {
+                this.startLocked ();
+                response = this.exchange (request, directory);
+            }
+            catch (final InterruptedIOException | DialogTimeoutException ex)
+            {
+                // Cancelled or timed out, do not display the dialog again
+                this.stop ();
+                throw ex;
+            }
+            catch (final IOException ex)
+            {
+                this.stop ();
+                if (this.isClosing)
+                {
+                    this.isClosing = false;
+                    throw new IOException ("The dialog helper was closed.", ex);
+                }
+
+                // The helper crashed, hangs or broke the protocol, restart it
+                lastError = ex;
+                if (attempt < MAX_RESTARTS)
+                    this.restartCount++;
+                continue;
+            }
+
+            if (HelperProtocol.ERROR.equals (response.status))
+                throw new IOException (response.message.isEmpty () ? "The helper could not display the dialog." : response.message);
+            return HelperProtocol.OK.equals (response.status) ? response.files : new ArrayList<> ();
+        }
+        throw new IOException ("The dialog helper failed " + (MAX_RESTARTS + 1) + " times in a row: " + Arrays.toString (this.command), lastError);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void start () throws IOException
+    {
+        this.ensureStarted ();
+    }
+
+
+    /**
+     * Set the maximum time to wait for the next message of the helper, i.e. for the greeting
+     * after the start and for the messages of a dialog. If it is exceeded, the helper is
+     * considered to hang and is restarted.
+     *
+     * @param readTimeout The timeout, must be longer than the interval of the ALIVE messages
+     */
+    public void setReadTimeout (final Duration readTimeout)
+    {
+        this.readTimeout = readTimeout;
+    }
+
+
+    /**
+     * Start the helper process if it is not already running, e.g. to hide its startup time before
+     * the first dialog is requested.
+     *
+     * @throws IOException Could not start the helper
+     */
+    public void ensureStarted () throws IOException
+    {
+        this.lock ();
+        try
+        {
+            this.startLocked ();
+        }
+        finally
+        {
+            this.lock.unlock ();
+        }
+    }
+
+
+    private void startLocked () throws IOException
+    {
+        if (this.process != null && this.process.isAlive ())
+            return;
+        this.stop ();
+
+        final ProcessBuilder pb = new ProcessBuilder (this.command);
+        pb.redirectError (ProcessBuilder.Redirect.DISCARD);
+        this.process = pb.start ();
+        this.reader = new LineReader (this.process.getInputStream ());
+        this.reader.start ();
+        this.writer = new BufferedWriter (new OutputStreamWriter (this.process.getOutputStream (), StandardCharsets.UTF_8));
+
+        try
+        {
+            final String line = this.readLine ();
+            if (line == null)
+                throw new EOFException ("The dialog helper exited during startup.");
+            if (!HelperProtocol.READY.equals (line))
+                throw new IOException ("Unexpected greeting from the dialog helper: " + line);
+        }
+        catch (final IOException ex)
+        {
+            this.stop ();
+            throw ex;
+        }
+    }
+
+
+    /**
+     * Get the number of times the helper had to be restarted since this backend was created.
+     *
+     * @return The number of restarts
+     */
+    public int getRestartCount ()
+    {
+        return this.restartCount;
+    }
+
+
+    /**
+     * Quit the helper. If a dialog is open, the helper is killed and the dialog fails.
+     */
+    @Override
+    public void close ()
+    {
+        if (!this.lock.tryLock ())
+        {
+            this.isClosing = true;
+            final Process proc = this.process;
+            if (proc != null)
+            {
+                proc.descendants ().forEach (ProcessHandle::destroyForcibly);
+                proc.destroyForcibly ();
+            }
+            return;
+        }
+
+        try
+        {
+            this.quit ();
+        }
+        finally
+        {
+            this.lock.unlock ();
+        }
+    }
+
+
+    private void quit ()
+    {
+        if (this.process != null && this.process.isAlive ())
+        {
+            try
+            {
+                this.writer.write (HelperProtocol.QUIT);
+                this.writer.newLine ();
+                this.writer.flush ();
+                this.process.waitFor (1, TimeUnit.SECONDS);
+            }
+            catch (final IOException ex)
+            {
+                // Terminated below
+            }
+            catch (final InterruptedException ex)
+            {
+                Thread.currentThread ().interrupt ();
+            }
+        }
+        this.stop ();
+    }
+
+
+    private Response exchange (final DialogRequest request, final File directory) throws IOException
+    {
+        final long id = this.nextId++;
+        final String requestId = Long.toString (id);
+
+        this.writer.write (HelperProtocol.formatRequest (id, request, directory));
+        this.writer.newLine ();
+        this.writer.flush ();
+
+        final List<File> files = new ArrayList<> ();
+        while (true)
+        {
+            final String line = this.readLine ();
+            if (line == null)
+                throw new EOFException ("The dialog helper terminated unexpectedly.");
+
+            final List<String> fields = HelperProtocol.parseFields (line);
+            if (fields.size () < 2 || !requestId.equals (fields.get (1)))
+                throw new IOException ("Unexpected response from the dialog helper: " + line);
+
+            switch (fields.get (0))
+            {
+                case HelperProtocol.ALIVE:
+                    break;
+
+                case HelperProtocol.RESULT:
+                    if (fields.size () < 3)
+                        throw new IOException ("Unexpected response from the dialog helper: " + line);
+                    files.add (new File (fields.get (2)));
+                    break;
+
+                case HelperProtocol.END:
+                    if (fields.size () < 3)
+                        throw new IOException ("Unexpected response from the dialog helper: " + line);
+                    return new Response (fields.get (2), fields.size () > 3 ? fields.get (3) : "", files);
+
+                default:
+                    throw new IOException ("Unexpected response from the dialog helper: " + line);
+            }
+        }
+    }
+
+
+    /**
+     * Wait for the lock, which is held while a dialog is displayed.
+     *
+     * @throws InterruptedIOException The waiting thread was interrupted
+     */
+    private void lock () throws InterruptedIOException
+    {
+        try
+        {
+            this.lock.lockInterruptibly ();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+    }
+
+
+    /**
+     * Read the next line of the helper. Waits at most for the read timeout or until the timeout of
+     * the dialog, whichever comes first.
+     *
+     * @return The line, null if the helper closed its output
+     * @throws DialogTimeoutException The timeout of the dialog has passed
+     * @throws IOException The helper did not send a line within the read timeout
+     * @throws InterruptedIOException The waiting thread was interrupted
+     */
+    private String readLine () throws IOException
+    {
+        final Duration remaining = DialogBackend.getRemainingTime ();
+        final boolean isDialogTimeout = remaining != null && remaining.compareTo (this.readTimeout) < 0;
+        final Duration timeout = isDialogTimeout ? remaining : this.readTimeout;
+        final Optional<String> line;
+        try
+        {
+            line = this.reader.lines.poll (timeout.toNanos (), TimeUnit.NANOSECONDS);
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+        if (line != null)
+            return line.orElse (null);
+        if (isDialogTimeout)
+            throw new DialogTimeoutException ("The dialog was not closed within the timeout.");
+        throw new IOException ("The dialog helper did not respond within " + timeout.toMillis () + " ms.");
+    }
+
+
+    /**
+     * Kill the helper and all of its child processes, which also ends the line reader since the
+     * output of the helper is closed. A hanging helper might ignore a normal termination request.
+     */
+    private void stop ()
+    {
+        if (this.process == null)
+            return;
+        this.process.descendants ().forEach (ProcessHandle::destroyForcibly);
+        this.process.destroyForcibly ();
+        // Releases the reader if it waits for space in the queue
+        this.reader.interrupt ();
+        try
+        {
+            this.writer.close ();
+        }
+        catch (final IOException ex)
+        {
+            // Ignore, the process is gone
+        }
+        this.process = null;
+        this.reader = null;
+        this.writer = null;
+    }
+
+
+    /**
+     * Reads the lines of the helper on a separate thread, which allows to wait for them with a
+     * timeout. The end of the output is signaled by an empty element.
+     */
+    private static class LineReader extends Thread
+    {
+        private final InputStream                     in;
+        private final BlockingQueue<Optional<String>> lines = new LinkedBlockingQueue<> (MAX_PENDING_LINES);
+
+        /**
+         * Constructor.
+         *
+         * @param in The output of the helper
+         */
+        LineReader (final InputStream in)
+        {
+            super ("NativeFileDialogs-Helper");
+
+            this.in = in;
+            this.setDaemon (true);
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void run ()
+        {
+            try (final BufferedReader reader = new BufferedReader (new InputStreamReader (this.in, StandardCharsets.UTF_8)))
+            {
+                String line;
+                while ((line = reader.readLine ()) != null)
+                    this.lines.put (Optional.of (line));
+            }
+            catch (final IOException ex)
+            {
+                // The helper was stopped
+            }
+            catch (final InterruptedException ex)
+            {
+                // The helper was stopped while the queue was full
+                return;
+            }
+            this.lines.offer (Optional.empty ());
+        }
+    }
+
+
+    /** The response of the helper to a request. */
+    private static class Response
+    {
+        final String     status;
+        final String     message;
+        final List<File> files;
+
+        Response (final String status, final String message, final List<File> files)
+        {
+            this.status = status;
+            this.message = message;
+            this.files = files;
+        }
+    }
+}
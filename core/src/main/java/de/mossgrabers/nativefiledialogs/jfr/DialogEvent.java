@@ -0,0 +1,44 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Flight recorder event for a complete dialog call.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@Name("de.mossgrabers.nativefiledialogs.Dialog")
+@Label("Dialog")
+@Category("Native File Dialogs")
+@Description("A complete file dialog call")
+public class DialogEvent extends Event
+{
+    /** The backend which displayed the dialog. */
+    @Label("Backend")
+    public String  backend;
+
+    /** The kind of the dialog. */
+    @Label("Kind")
+    public String  kind;
+
+    /** The number of file filters. */
+    @Label("Filter Count")
+    public int     filterCount;
+
+    /** The number of selected files, -1 if unknown. */
+    @Label("Selected")
+    public int     selectedCount;
+
+    /** True if the dialog failed. */
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,29 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Flight recorder event which lasts from the start of a helper process until it printed the first
+ * byte of its output. For a dialog this is the toolkit startup plus the time the user needs.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@Name("de.mossgrabers.nativefiledialogs.FirstOutput")
+@Label("First Output Byte")
+@Category("Native File Dialogs")
+@Description("Time from the start of a dialog helper process until its first output byte")
+public class FirstOutputEvent extends Event
+{
+    /** The executable of the process. */
+    @Label("Command")
+    public String command;
+}
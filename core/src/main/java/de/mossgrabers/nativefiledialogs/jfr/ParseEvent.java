@@ -0,0 +1,42 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Flight recorder event for reading and decoding the output of a helper process. The duration of
+ * the event includes waiting for the output, the processing time contains only the splitting and
+ * decoding.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@Name("de.mossgrabers.nativefiledialogs.Parse")
+@Label("Parse Output")
+@Category("Native File Dialogs")
+@Description("Reading and decoding the output of a dialog helper process")
+public class ParseEvent extends Event
+{
+    /** The number of decoded results. */
+    @Label("Results")
+    public int  resultCount;
+
+    /** The number of read bytes. */
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    /** The time spent splitting and decoding. */
+    @Label("Processing Time")
+    @Timespan
+    public long processingTime;
+}
@@ -0,0 +1,32 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Flight recorder event which lasts from the start of a helper process until it exited.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@Name("de.mossgrabers.nativefiledialogs.ProcessExit")
+@Label("Process Exit")
+@Category("Native File Dialogs")
+@Description("Lifetime of a dialog helper process")
+public class ProcessExitEvent extends Event
+{
+    /** The executable of the process. */
+    @Label("Command")
+    public String command;
+
+    /** The exit code of the process. */
+    @Label("Exit Code")
+    public int    exitCode;
+}
@@ -0,0 +1,28 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Flight recorder event for starting a helper process.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@Name("de.mossgrabers.nativefiledialogs.ProcessSpawn")
+@Label("Process Spawn")
+@Category("Native File Dialogs")
+@Description("Starting a dialog helper process")
+public class ProcessSpawnEvent extends Event
+{
+    /** The executable of the process. */
+    @Label("Command")
+    public String command;
+}
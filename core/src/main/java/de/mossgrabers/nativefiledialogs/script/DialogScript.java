@@ -0,0 +1,228 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.script;
+
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRecorder;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * The answers of the scripted dialogs, read from a hand-written script or a trace recorded with
+ * the DialogRecorder (see there for the format). A dialog gets the next answer with the same kind
+ * and key, if there is none the next answer with the same kind. The answers of each kind (and
+ * key) are used in order and start again from the beginning when all were used, therefore a short
+ * trace can drive any number of dialogs. The script can be used by several threads at the same
+ * time.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DialogScript
+{
+    private final Map<String, Answers> answers = new HashMap<> ();
+    private final int                  size;
+
+
+    /**
+     * Constructor.
+     *
+     * @param lines The lines of the script
+     * @throws IOException The script contains an invalid line
+     */
+    private DialogScript (final List<String> lines) throws IOException
+    {
+        final Map<String, List<Answer>> lists = new HashMap<> ();
+        int count = 0;
+        for (int i = 0; i < lines.size (); i++)
+        {
+            final String line = lines.get (i);
+            if (line.isBlank () || line.startsWith ("#"))
+                continue;
+            final Answer answer = parseAnswer (line, i + 1);
+            lists.computeIfAbsent (answer.kind.name (), k -> new ArrayList<> ()).add (answer);
+            if (answer.key != null)
+                lists.computeIfAbsent (answer.kind.name () + '\t' + answer.key, k -> new ArrayList<> ()).add (answer);
+            count++;
+        }
+        for (final Map.Entry<String, List<Answer>> entry: lists.entrySet ())
+            this.answers.put (entry.getKey (), new Answers (entry.getValue ()));
+        this.size = count;
+    }
+
+
+    /**
+     * Read a script file.
+     *
+     * @param file The file
+     * @return The script
+     * @throws IOException The file could not be read or contains an invalid line
+     */
+    public static DialogScript load (final Path file) throws IOException
+    {
+        return new DialogScript (Files.readAllLines (file, StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Parse a script.
+     *
+     * @param script The text of the script
+     * @return The script
+     * @throws IOException The script contains an invalid line
+     */
+    public static DialogScript parse (final String script) throws IOException
+    {
+        return new DialogScript (Arrays.asList (script.split ("\\R")));
+    }
+
+
+    /**
+     * Get the number of answers.
+     *
+     * @return The number of answers
+     */
+    public int size ()
+    {
+        return this.size;
+    }
+
+
+    /**
+     * Get the next answer for a dialog.
+     *
+     * @param request The parameters of the dialog
+     * @return The answer or null if the script has no answer for the kind of the dialog
+     */
+    Answer next (final DialogRequest request)
+    {
+        final String kind = request.getKind ().name ();
+        Answers list = request.getKey () == null ? null : this.answers.get (kind + '\t' + request.getKey ());
+        if (list == null)
+            list = this.answers.get (kind);
+        return list == null ? null : list.next ();
+    }
+
+
+    /**
+     * Parse a line of the script.
+     *
+     * @param line The line
+     * @param lineNumber The number of the line for error messages
+     * @return The answer
+     * @throws IOException The line is invalid
+     */
+    private static Answer parseAnswer (final String line, final int lineNumber) throws IOException
+    {
+        final String [] fields = line.split ("\t");
+        if (fields.length < 4)
+            throw new IOException ("Line " + lineNumber + " of the dialog script has less than 4 fields.");
+
+        final long delayMillis;
+        final DialogKind kind;
+        try
+        {
+            delayMillis = Long.parseLong (fields[0].trim ());
+            kind = DialogKind.valueOf (fields[1].trim ());
+        }
+        catch (final IllegalArgumentException ex)
+        {
+            throw new IOException ("Line " + lineNumber + " of the dialog script has an invalid delay or kind.", ex);
+        }
+        if (delayMillis < 0)
+            throw new IOException ("Line " + lineNumber + " of the dialog script has a negative delay.");
+
+        final String key = fields[2].isEmpty () ? null : fields[2];
+        final String outcome = fields[3].trim ();
+        switch (outcome)
+        {
+            case DialogRecorder.SELECT:
+                final List<File> files = new ArrayList<> (fields.length - 4);
+                for (int i = 4; i < fields.length; i++)
+                    files.add (new File (fields[i]));
+                return new Answer (kind, key, delayMillis, outcome, Collections.unmodifiableList (files), null);
+
+            case DialogRecorder.CANCEL:
+            case DialogRecorder.TIMEOUT:
+                return new Answer (kind, key, delayMillis, outcome, Collections.emptyList (), null);
+
+            case DialogRecorder.FAIL:
+                return new Answer (kind, key, delayMillis, outcome, Collections.emptyList (), fields.length > 4 ? fields[4] : "The dialog failed.");
+
+            default:
+                throw new IOException ("Line " + lineNumber + " of the dialog script has an unknown outcome: " + outcome);
+        }
+    }
+
+
+    /** The answers of one kind (and key), which are used in turn. */
+    private static final class Answers
+    {
+        private final Answer []     list;
+        private final AtomicInteger position = new AtomicInteger ();
+
+
+        /**
+         * Constructor.
+         *
+         * @param list The answers
+         */
+        Answers (final List<Answer> list)
+        {
+            this.list = list.toArray (new Answer [list.size ()]);
+        }
+
+
+        Answer next ()
+        {
+            return this.list[Math.floorMod (this.position.getAndIncrement (), this.list.length)];
+        }
+    }
+
+
+    /** The answer to one dialog. */
+    static final class Answer
+    {
+        final DialogKind kind;
+        final String     key;
+        final long       delayMillis;
+        final String     outcome;
+        final List<File> files;
+        final String     message;
+
+
+        /**
+         * Constructor.
+         *
+         * @param kind The kind of the dialog
+         * @param key The key of the dialog, may be null
+         * @param delayMillis The time the dialog is open
+         * @param outcome The outcome, one of the outcome constants of DialogRecorder
+         * @param files The selected files
+         * @param message The error message of a failed dialog
+         */
+        Answer (final DialogKind kind, final String key, final long delayMillis, final String outcome, final List<File> files, final String message)
+        {
+            this.kind = kind;
+            this.key = key;
+            this.delayMillis = delayMillis;
+            this.outcome = outcome;
+            this.files = files;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.script;
+
+import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogRecorder;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A headless implementation of the file dialogs, which displays nothing but answers each dialog
+ * from a script, e.g. a trace of real sessions recorded with the DialogRecorder. Each answer
+ * waits for its delay (like a user who looks for a file) and then selects its files, cancels the
+ * dialog, runs into the timeout or fails. This allows to test and load-test the code behind the
+ * dialogs without a display and without a user. The dialogs are independent of each other and
+ * can be run by any number of threads at the same time.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class ScriptedFileDialogs extends AbstractNativeFileDialogs
+{
+    private final Path            scriptFile;
+    private volatile DialogScript script;
+    private volatile double       delayFactor = 1;
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @param script The script with the answers
+     */
+    public ScriptedFileDialogs (final File currentDirectory, final DialogScript script)
+    {
+        super (currentDirectory);
+
+        this.scriptFile = null;
+        this.script = script;
+    }
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory. The script file is read with
+     * the first dialog, a problem with the file is reported by the dialog.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @param scriptFile The file of the script with the answers
+     */
+    public ScriptedFileDialogs (final File currentDirectory, final Path scriptFile)
+    {
+        super (currentDirectory);
+
+        this.scriptFile = scriptFile;
+    }
+
+
+    /**
+     * Set the factor by which the delays of the answers are multiplied, e.g. 0.1 to replay a trace
+     * ten times faster.
+     *
+     * @param delayFactor The factor, 0 to answer immediately, the default is 1
+     */
+    public void setDelayFactor (final double delayFactor)
+    {
+        if (delayFactor < 0 || Double.isNaN (delayFactor))
+            throw new IllegalArgumentException ("The delay factor must not be negative.");
+        this.delayFactor = delayFactor;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        final DialogScript.Answer answer = this.getScript ().next (request);
+        if (answer == null)
+            throw new IOException ("The dialog script has no answer for a " + request.getKind () + " dialog.");
+
+        final long delayNanos = (long) (TimeUnit.MILLISECONDS.toNanos (answer.delayMillis) * this.delayFactor);
+        final Duration timeout = getRemainingTime ();
+        if (timeout != null && timeout.toNanos () < delayNanos)
+        {
+            sleep (timeout.toNanos ());
+            throw new DialogTimeoutException ("The dialog was not closed within the timeout.");
+        }
+        sleep (delayNanos);
+
+        switch (answer.outcome)
+        {
+            case DialogRecorder.SELECT:
+                return new ArrayList<> (answer.files);
+
+            case DialogRecorder.TIMEOUT:
+                throw new DialogTimeoutException ("The dialog was not closed within the timeout.");
+
+            case DialogRecorder.FAIL:
+                throw new IOException (answer.message);
+
+            default:
+                return new ArrayList<> ();
+        }
+    }
+
+
+    private DialogScript getScript () throws IOException
+    {
+        DialogScript result = this.script;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                if (this.script == null)
+                    this.script = DialogScript.load (this.scriptFile);
+                result = this.script;
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Wait like a user who looks for the file.
+     *
+     * @param nanos The time to wait
+     * @throws InterruptedIOException The dialog was interrupted
+     */
+    private static void sleep (final long nanos) throws InterruptedIOException
+    {
+        if (nanos <= 0)
+            return;
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep (nanos);
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+    }
+}
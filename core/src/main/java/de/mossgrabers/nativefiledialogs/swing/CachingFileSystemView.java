@@ -0,0 +1,297 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.swing;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.Icon;
+import javax.swing.filechooser.FileSystemView;
+
+
+/**
+ * A file system view, which keeps the listings of the recently displayed directories. A listing
+ * is reused as long as the modification time of its directory does not change, which is the case
+ * if no file was added, removed or renamed. All other calls are forwarded to the view of the
+ * platform.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class CachingFileSystemView extends FileSystemView
+{
+    /** The number of directories of which the listing is kept. */
+    private static final int           MAX_LISTINGS = 64;
+
+    private final FileSystemView       delegate;
+    private final Map<String, Listing> listings     = new LinkedHashMap<> (16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+
+        /** {@inheritDoc} */
+        @Override
+        protected boolean removeEldestEntry (final Map.Entry<String, Listing> eldest)
+        {
+            return this.size () > MAX_LISTINGS;
+        }
+    };
+
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The view of the platform
+     */
+    CachingFileSystemView (final FileSystemView delegate)
+    {
+        this.delegate = delegate;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File [] getFiles (final File dir, final boolean useFileHiding)
+    {
+        final long lastModified = dir.lastModified ();
+        // The time is 0 if the directory does not exist or the file system does not provide it
+        if (lastModified == 0)
+            return this.delegate.getFiles (dir, useFileHiding);
+
+        final String key = (useFileHiding ? "h:" : "a:") + dir.getAbsolutePath ();
+        synchronized (this.listings)
+        {
+            final Listing listing = this.listings.get (key);
+            if (listing != null && listing.lastModified == lastModified)
+                return listing.files.clone ();
+        }
+
+        final File [] files = this.delegate.getFiles (dir, useFileHiding);
+        synchronized (this.listings)
+        {
+            this.listings.put (key, new Listing (lastModified, files));
+        }
+        return files.clone ();
+    }
+
+
+    /**
+     * Load the listing of a directory into the cache.
+     *
+     * @param dir The directory
+     */
+    void preload (final File dir)
+    {
+        if (dir != null && dir.isDirectory ())
+            this.getFiles (dir, true);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File createNewFolder (final File containingDir) throws IOException
+    {
+        return this.delegate.createNewFolder (containingDir);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isRoot (final File f)
+    {
+        return this.delegate.isRoot (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Boolean isTraversable (final File f)
+    {
+        return this.delegate.isTraversable (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String getSystemDisplayName (final File f)
+    {
+        return this.delegate.getSystemDisplayName (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String getSystemTypeDescription (final File f)
+    {
+        return this.delegate.getSystemTypeDescription (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Icon getSystemIcon (final File f)
+    {
+        return this.delegate.getSystemIcon (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isParent (final File folder, final File file)
+    {
+        return this.delegate.isParent (folder, file);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File getChild (final File parent, final String fileName)
+    {
+        return this.delegate.getChild (parent, fileName);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isFileSystem (final File f)
+    {
+        return this.delegate.isFileSystem (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isHiddenFile (final File f)
+    {
+        return this.delegate.isHiddenFile (f);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isFileSystemRoot (final File dir)
+    {
+        return this.delegate.isFileSystemRoot (dir);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isDrive (final File dir)
+    {
+        return this.delegate.isDrive (dir);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isFloppyDrive (final File dir)
+    {
+        return this.delegate.isFloppyDrive (dir);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isComputerNode (final File dir)
+    {
+        return this.delegate.isComputerNode (dir);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isLink (final File file)
+    {
+        return this.delegate.isLink (file);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File getLinkLocation (final File file) throws FileNotFoundException
+    {
+        return this.delegate.getLinkLocation (file);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File [] getRoots ()
+    {
+        return this.delegate.getRoots ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File getHomeDirectory ()
+    {
+        return this.delegate.getHomeDirectory ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File getDefaultDirectory ()
+    {
+        return this.delegate.getDefaultDirectory ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File createFileObject (final File dir, final String filename)
+    {
+        return this.delegate.createFileObject (dir, filename);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File createFileObject (final String path)
+    {
+        return this.delegate.createFileObject (path);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File getParentDirectory (final File dir)
+    {
+        return this.delegate.getParentDirectory (dir);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public File [] getChooserComboBoxFiles ()
+    {
+        return this.delegate.getChooserComboBoxFiles ();
+    }
+
+
+    /** The files of a directory. */
+    private static final class Listing
+    {
+        final long    lastModified;
+        final File [] files;
+
+
+        /**
+         * Constructor.
+         *
+         * @param lastModified The modification time of the directory when it was listed
+         * @param files The files
+         */
+        Listing (final long lastModified, final File [] files)
+        {
+            this.lastModified = lastModified;
+            this.files = files;
+        }
+    }
+}
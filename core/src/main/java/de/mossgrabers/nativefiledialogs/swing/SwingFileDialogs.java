@@ -0,0 +1,367 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.swing;
+
+import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterMatcher;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.filechooser.FileSystemView;
+
+
+/**
+ * The fallback implementation for the file dialogs, which displays a Swing file chooser if there
+ * is no native dialog (e.g. none of the Linux dialog tools is installed). The first construction
+ * of a JFileChooser takes several hundred milliseconds (loading icons, the look and feel and the
+ * shell folders), therefore the chooser is created and warmed up on a background thread when
+ * this instance is created. The chooser is reused for all dialogs, the listings of the visited
+ * directories are cached and the file filters are converted once per filter set.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class SwingFileDialogs extends AbstractNativeFileDialogs
+{
+    private static final Function<FilterSet, List<javax.swing.filechooser.FileFilter>> FILTER_ENCODER = SwingFileDialogs::encodeFilters;
+
+    private final CompletableFuture<JFileChooser>                                      chooser        = new CompletableFuture<> ();
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory. Starts to warm up the file
+     * chooser and the event dispatch thread on a background thread.
+     *
+     * @param currentDirectory The initial directory, may be null
+     */
+    public SwingFileDialogs (final File currentDirectory)
+    {
+        super (currentDirectory);
+
+        final Thread thread = new Thread ( () -> {
+            try
+            {
+                // Completed here and not on the event dispatch thread, which might wait for it
+                this.chooser.complete (createChooser (new CachingFileSystemView (FileSystemView.getFileSystemView ()), currentDirectory));
+                // Starts the event dispatch thread, which displays the dialogs
+                SwingUtilities.invokeLater ( () -> {
+                    // Intentionally empty
+                });
+            }
+            catch (final RuntimeException | Error ex)
+            {
+                this.chooser.completeExceptionally (ex);
+            }
+        }, "NativeFileDialogs Swing warm-up");
+        thread.setDaemon (true);
+        thread.start ();
+    }
+
+
+    /**
+     * Check if the file chooser is created and warmed up.
+     *
+     * @return True if warmed up
+     */
+    public boolean isWarmedUp ()
+    {
+        return this.chooser.isDone ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void warmUpPlatform () throws IOException
+    {
+        // The chooser warms up since the construction, wait for it
+        this.getChooser ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        final JFileChooser warmChooser = this.getChooser ();
+        final Duration timeout = getRemainingTime ();
+        final AtomicBoolean timedOut = new AtomicBoolean ();
+        final CompletableFuture<List<File>> result = new CompletableFuture<> ();
+        final AtomicReference<JFileChooser> displayed = new AtomicReference<> ();
+        final Runnable show = () -> {
+            try
+            {
+                // A dialog is already displayed with the chooser, e.g. from another thread
+                final JFileChooser fileChooser = warmChooser.isShowing () ? createChooser ((CachingFileSystemView) warmChooser.getFileSystemView (), null) : warmChooser;
+                displayed.set (fileChooser);
+                final Timer timer = timeout == null ? null : createTimeoutTimer (fileChooser, timeout, timedOut);
+                try
+                {
+                    result.complete (show (fileChooser, request, directory));
+                }
+                finally
+                {
+                    if (timer != null)
+                        timer.stop ();
+                }
+            }
+            catch (final RuntimeException ex)
+            {
+                result.completeExceptionally (ex);
+            }
+        };
+
+        if (SwingUtilities.isEventDispatchThread ())
+            show.run ();
+        else
+            SwingUtilities.invokeLater (show);
+
+        try
+        {
+            final List<File> files = result.get ();
+            if (timedOut.get ())
+                throw new DialogTimeoutException ("The dialog was not closed within the timeout.");
+            return files;
+        }
+        catch (final ExecutionException ex)
+        {
+            throw new IOException ("The Swing file chooser could not be displayed.", ex.getCause ());
+        }
+        catch (final InterruptedException ex)
+        {
+            SwingUtilities.invokeLater ( () -> {
+                final JFileChooser fileChooser = displayed.get ();
+                if (fileChooser != null)
+                    fileChooser.cancelSelection ();
+            });
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+    }
+
+
+    /**
+     * Get the warmed up file chooser, waits until it is created. The event dispatch thread does
+     * not wait, it gets a new chooser if the warm-up is not finished.
+     *
+     * @return The file chooser
+     * @throws IOException The file chooser could not be created or the thread was interrupted
+     */
+    private JFileChooser getChooser () throws IOException
+    {
+        if (SwingUtilities.isEventDispatchThread () && !this.chooser.isDone ())
+            return createChooser (new CachingFileSystemView (FileSystemView.getFileSystemView ()), null);
+
+        try
+        {
+            return this.chooser.get ();
+        }
+        catch (final ExecutionException ex)
+        {
+            throw new IOException ("The Swing file chooser could not be created.", ex.getCause ());
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+    }
+
+
+    /**
+     * Create a file chooser, which uses the caching file system view, and load the listing of its
+     * start directory.
+     *
+     * @param fileSystemView The caching file system view
+     * @param directory The start directory, may be null
+     * @return The chooser
+     */
+    private static JFileChooser createChooser (final CachingFileSystemView fileSystemView, final File directory)
+    {
+        final JFileChooser fileChooser = new OverwriteConfirmingChooser (fileSystemView);
+        fileChooser.setAcceptAllFileFilterUsed (false);
+        if (directory != null && directory.isDirectory ())
+        {
+            fileChooser.setCurrentDirectory (directory);
+            fileSystemView.preload (directory);
+        }
+        return fileChooser;
+    }
+
+
+    /**
+     * Configure the chooser for the request and display it. Must be called on the event dispatch
+     * thread.
+     *
+     * @param fileChooser The chooser
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The selected files, empty if the dialog was canceled
+     */
+    private static List<File> show (final JFileChooser fileChooser, final DialogRequest request, final File directory)
+    {
+        final DialogKind kind = request.getKind ();
+        fileChooser.setDialogTitle (request.getTitle ());
+        fileChooser.setFileSelectionMode (kind == DialogKind.SELECT_FOLDER ? JFileChooser.DIRECTORIES_ONLY : JFileChooser.FILES_ONLY);
+        fileChooser.setMultiSelectionEnabled (kind == DialogKind.OPEN_FILES);
+
+        fileChooser.resetChoosableFileFilters ();
+        if (kind != DialogKind.SELECT_FOLDER)
+        {
+            final List<javax.swing.filechooser.FileFilter> filters = request.getFilterSet ().getEncoding (FILTER_ENCODER);
+            for (final javax.swing.filechooser.FileFilter filter: filters)
+                fileChooser.addChoosableFileFilter (filter);
+            if (!filters.isEmpty ())
+                fileChooser.setFileFilter (filters.get (0));
+        }
+
+        fileChooser.setSelectedFiles (null);
+        if (directory != null && directory.exists ())
+        {
+            if (directory.isFile ())
+            {
+                fileChooser.setCurrentDirectory (directory.getParentFile ());
+                if (kind != DialogKind.SELECT_FOLDER)
+                    fileChooser.setSelectedFile (directory);
+            }
+            else
+                fileChooser.setCurrentDirectory (directory);
+        }
+
+        final int option = kind == DialogKind.SAVE_FILE ? fileChooser.showSaveDialog (null) : fileChooser.showOpenDialog (null);
+        if (option != JFileChooser.APPROVE_OPTION)
+            return new ArrayList<> ();
+        if (kind == DialogKind.OPEN_FILES)
+            return new ArrayList<> (Arrays.asList (fileChooser.getSelectedFiles ()));
+        final List<File> files = new ArrayList<> (1);
+        if (fileChooser.getSelectedFile () != null)
+            files.add (fileChooser.getSelectedFile ());
+        return files;
+    }
+
+
+    /**
+     * Create and start a timer, which cancels the dialog when the timeout has passed.
+     *
+     * @param fileChooser The chooser which displays the dialog
+     * @param timeout The timeout
+     * @param timedOut Set to true when the dialog was canceled
+     * @return The started timer
+     */
+    private static Timer createTimeoutTimer (final JFileChooser fileChooser, final Duration timeout, final AtomicBoolean timedOut)
+    {
+        final Timer timer = new Timer ((int) Math.min (Integer.MAX_VALUE, Math.max (1, timeout.toMillis ())), event -> {
+            timedOut.set (true);
+            fileChooser.cancelSelection ();
+        });
+        timer.setRepeats (false);
+        timer.start ();
+        return timer;
+    }
+
+
+    /**
+     * Create the Swing filters.
+     *
+     * @param filters The filters
+     * @return The Swing filters
+     */
+    private static List<javax.swing.filechooser.FileFilter> encodeFilters (final FilterSet filters)
+    {
+        final List<javax.swing.filechooser.FileFilter> swingFilters = new ArrayList<> (filters.size ());
+        for (int i = 0; i < filters.size (); i++)
+            swingFilters.add (new SwingFilter (filters.get (i)));
+        return Collections.unmodifiableList (swingFilters);
+    }
+
+
+    /** Accepts the folders and the files matching a filter. */
+    private static final class SwingFilter extends javax.swing.filechooser.FileFilter
+    {
+        private final String        description;
+        private final FilterMatcher matcher;
+
+
+        /**
+         * Constructor.
+         *
+         * @param filter The filter
+         */
+        SwingFilter (final FileFilter filter)
+        {
+            this.description = filter.getLabel ();
+            this.matcher = FilterMatcher.of (FilterSet.of (filter));
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean accept (final File file)
+        {
+            return this.matcher.matches (file.getName ()) || file.isDirectory ();
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public String getDescription ()
+        {
+            return this.description;
+        }
+    }
+
+
+    /** A file chooser, which asks before a save dialog overwrites an existing file. */
+    private static final class OverwriteConfirmingChooser extends JFileChooser
+    {
+        private static final long serialVersionUID = 1L;
+
+
+        /**
+         * Constructor.
+         *
+         * @param fileSystemView The file system view
+         */
+        OverwriteConfirmingChooser (final FileSystemView fileSystemView)
+        {
+            super (fileSystemView);
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void approveSelection ()
+        {
+            final File file = this.getSelectedFile ();
+            if (this.getDialogType () == SAVE_DIALOG && file != null && file.exists ())
+            {
+                final int option = JOptionPane.showConfirmDialog (this, "The file '" + file.getName () + "' already exists. Do you want to replace it?", this.getDialogTitle (), JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+                if (option != JOptionPane.YES_OPTION)
+                    return;
+            }
+            super.approveSelection ();
+        }
+    }
+}
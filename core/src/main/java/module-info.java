@@ -0,0 +1,25 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+/**
+ * The API of the native file dialogs, the process runner, the Swing fallback and the scripted
+ * backend. The dialogs of the platforms are provided by the platform modules. The java.desktop
+ * module is only required for the Swing fallback, the jdk.jfr module only for the flight recorder
+ * events.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+module de.mossgrabers.nativefiledialogs
+{
+    requires static java.desktop;
+    requires static jdk.jfr;
+
+    exports de.mossgrabers.nativefiledialogs;
+    exports de.mossgrabers.nativefiledialogs.helper;
+    exports de.mossgrabers.nativefiledialogs.jfr;
+    exports de.mossgrabers.nativefiledialogs.script;
+    exports de.mossgrabers.nativefiledialogs.swing;
+
+    uses de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider;
+}
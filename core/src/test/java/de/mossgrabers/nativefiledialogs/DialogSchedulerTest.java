@@ -0,0 +1,161 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Tests that the callers of a merged dialog are interrupted individually.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class DialogSchedulerTest
+{
+    private static final Duration      MAX_DURATION = Duration.ofSeconds (5);
+    private static final Object        OWNER        = new Object ();
+    private static final DialogRequest REQUEST      = new DialogRequest (DialogKind.OPEN_FILE, "Open");
+    private static final List<File>    RESULT       = Collections.singletonList (new File ("/tmp/sample.wav"));
+
+
+    @Test
+    void mergedCallerDisplaysDialogOfInterruptedCaller ()
+    {
+        assertTimeoutPreemptively (MAX_DURATION, () -> {
+            final DialogScheduler scheduler = new DialogScheduler (1);
+            final CountDownLatch shown = new CountDownLatch (1);
+            final Caller first = new Caller (scheduler, () -> {
+                shown.countDown ();
+                return await (new CountDownLatch (1));
+            });
+            first.start ();
+            shown.await ();
+
+            final Caller second = new Caller (scheduler, () -> RESULT);
+            second.start ();
+            awaitCoalesced (scheduler);
+
+            first.interrupt ();
+            assertInstanceOf (InterruptedIOException.class, first.getError ());
+            assertTrue (first.wasInterrupted);
+            assertEquals (RESULT, second.result.get ());
+            assertEquals (0, scheduler.getRunningCount ());
+        });
+    }
+
+
+    @Test
+    void interruptedMergedCallerDoesNotFailDisplayingCaller ()
+    {
+        assertTimeoutPreemptively (MAX_DURATION, () -> {
+            final DialogScheduler scheduler = new DialogScheduler (1);
+            final CountDownLatch shown = new CountDownLatch (1);
+            final CountDownLatch closed = new CountDownLatch (1);
+            final Caller first = new Caller (scheduler, () -> {
+                shown.countDown ();
+                return await (closed);
+            });
+            first.start ();
+            shown.await ();
+
+            final Caller second = new Caller (scheduler, () -> RESULT);
+            second.start ();
+            awaitCoalesced (scheduler);
+
+            second.interrupt ();
+            assertInstanceOf (InterruptedIOException.class, second.getError ());
+            assertTrue (second.wasInterrupted);
+
+            closed.countDown ();
+            assertEquals (RESULT, first.result.get ());
+            assertEquals (0, scheduler.getRunningCount ());
+        });
+    }
+
+
+    private static void awaitCoalesced (final DialogScheduler scheduler) throws InterruptedException
+    {
+        while (scheduler.getCoalescedCount () == 0)
+            TimeUnit.MILLISECONDS.sleep (10);
+    }
+
+
+    private static List<File> await (final CountDownLatch latch) throws InterruptedIOException
+    {
+        try
+        {
+            latch.await ();
+            return RESULT;
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+    }
+
+
+    /** Calls the scheduler on its own thread. */
+    private static class Caller extends Thread
+    {
+        final DialogScheduler               scheduler;
+        final DialogScheduler.Dialog        dialog;
+        final CompletableFuture<List<File>> result = new CompletableFuture<> ();
+        volatile boolean                    wasInterrupted;
+
+
+        Caller (final DialogScheduler scheduler, final DialogScheduler.Dialog dialog)
+        {
+            this.scheduler = scheduler;
+            this.dialog = dialog;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void run ()
+        {
+            try
+            {
+                this.result.complete (this.scheduler.execute (OWNER, REQUEST, this.dialog));
+            }
+            catch (final IOException ex)
+            {
+                this.wasInterrupted = Thread.currentThread ().isInterrupted ();
+                this.result.completeExceptionally (ex);
+            }
+        }
+
+
+        Throwable getError () throws InterruptedException
+        {
+            try
+            {
+                this.result.get ();
+                return null;
+            }
+            catch (final ExecutionException ex)
+            {
+                return ex.getCause ();
+            }
+        }
+    }
+}
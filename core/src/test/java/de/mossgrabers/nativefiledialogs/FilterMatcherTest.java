@@ -0,0 +1,160 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Tests the matching of file names against the extensions of the filters and that the selected
+ * files are filtered accordingly.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class FilterMatcherTest
+{
+    private static final FileFilter AUDIO = new FileFilter ("Audio", "wav", "aif");
+
+
+    @Test
+    void ignoresCase ()
+    {
+        final FilterMatcher matcher = matcher (new FileFilter ("Audio", "WAV"));
+        assertTrue (matcher.matches ("sample.wav"));
+        assertTrue (matcher.matches ("sample.WAV"));
+        assertTrue (matcher.matches ("sample.Wav"));
+        assertFalse (matcher.matches ("sample.wave"));
+    }
+
+
+    @Test
+    void matchesExtensionsWithDots ()
+    {
+        final FilterMatcher matcher = matcher (new FileFilter ("Archives", "tar.gz"));
+        assertTrue (matcher.matches ("backup.tar.gz"));
+        assertTrue (matcher.matches ("backup.TAR.GZ"));
+        assertFalse (matcher.matches ("backup.gz"));
+        assertFalse (matcher.matches ("backup.star.gz"));
+        assertFalse (matcher.matches ("tar.gz"));
+
+        // The last part of a multi-dot name matches a simple extension
+        assertTrue (matcher (new FileFilter ("Compressed", "gz")).matches ("backup.tar.gz"));
+    }
+
+
+    @Test
+    void wildcardMatchesAll ()
+    {
+        final FilterMatcher matcher = matcher (AUDIO, new FileFilter ("All files", "*"));
+        assertTrue (matcher.matchesAll ());
+        assertTrue (matcher.matches ("readme"));
+        assertTrue (matcher.matches ("notes.txt"));
+
+        assertTrue (FilterMatcher.of (FilterSet.EMPTY).matchesAll ());
+        assertFalse (matcher (AUDIO).matchesAll ());
+    }
+
+
+    @Test
+    void ignoresLeadingDotAndWildcardOfExtension ()
+    {
+        for (final String extension: new String []
+        {
+            ".wav",
+            "*.wav",
+            " wav "
+        })
+        {
+            final FilterMatcher matcher = matcher (new FileFilter ("Audio", extension));
+            assertTrue (matcher.matches ("sample.wav"), extension);
+            assertFalse (matcher.matches ("sample.aif"), extension);
+        }
+    }
+
+
+    @Test
+    void requiresNameBeforeExtension ()
+    {
+        final FilterMatcher matcher = matcher (AUDIO);
+        assertFalse (matcher.matches (".wav"));
+        assertFalse (matcher.matches ("wav"));
+        assertFalse (matcher.matches ("samplewav"));
+        assertFalse (matcher.matches (""));
+    }
+
+
+    @Test
+    void onlyMatchesFileName ()
+    {
+        final FilterMatcher matcher = matcher (AUDIO);
+        assertTrue (matcher.matches ("/library/drums/kick.wav"));
+        assertTrue (matcher.matches (new File (new File ("library", "drums"), "kick.wav")));
+        assertFalse (matcher.matches ("/library/drums.wav/kick"));
+        assertFalse (matcher.matches ("/library/.wav"));
+        assertFalse (matcher.matches ("/library/drums.wav/"));
+        assertFalse (matcher.matches (new File (new File ("library"), ".wav")));
+    }
+
+
+    @Test
+    void removesFilesWhichDoNotMatch () throws IOException
+    {
+        final File kick = new File ("kick.wav");
+        final File notes = new File ("notes.txt");
+        final File snare = new File ("snare.aif");
+        final StubFileDialogs dialogs = new StubFileDialogs (List.of (kick, notes, snare));
+
+        assertEquals (List.of (kick, snare), dialogs.select (new DialogRequest (DialogKind.OPEN_FILES, "Open", AUDIO)));
+        assertEquals (List.of (kick, notes, snare), dialogs.select (new DialogRequest (DialogKind.OPEN_FILES, "Open")));
+    }
+
+
+    @Test
+    void rejectsNewFileWhichDoesNotMatch () throws IOException
+    {
+        assertNull (new StubFileDialogs (List.of (new File ("song.mp3"))).selectNewFile ("Save", AUDIO));
+
+        // The name is not changed, e.g. by adding an extension
+        final File song = new File ("song.WAV");
+        assertEquals (song, new StubFileDialogs (List.of (song)).selectNewFile ("Save", AUDIO));
+    }
+
+
+    private static FilterMatcher matcher (final FileFilter... filters)
+    {
+        return FilterMatcher.of (FilterSet.of (filters));
+    }
+
+
+    /** Returns the same files for each dialog. */
+    private static class StubFileDialogs extends AbstractNativeFileDialogs
+    {
+        private final List<File> files;
+
+
+        StubFileDialogs (final List<File> files)
+        {
+            super (null);
+            this.files = files;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        protected List<File> showDialog (final DialogRequest request, final File directory)
+        {
+            return this.files;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * Tests that a scan reports whether it is complete, also if the listener fails.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class FolderScannerTest
+{
+    private static final Duration  MAX_DURATION = Duration.ofSeconds (5);
+    private static final FilterSet AUDIO        = FilterSet.of (new FileFilter ("Audio", "wav"));
+    private static final int       FOLDERS      = 20;
+
+    @TempDir
+    Path                           tempDir;
+
+
+    @BeforeEach
+    void setUp () throws IOException
+    {
+        for (int i = 0; i < FOLDERS; i++)
+        {
+            final Path folder = Files.createDirectories (this.tempDir.resolve ("folder" + i));
+            Files.createFile (folder.resolve ("sample.wav"));
+            Files.createFile (folder.resolve ("notes.txt"));
+        }
+    }
+
+
+    @Test
+    void reportsCompleteScan () throws Exception
+    {
+        final Listener listener = new Listener (null);
+        final Set<Path> files = assertTimeoutPreemptively (MAX_DURATION, () -> {
+            try (final Stream<Path> stream = FolderScanner.scan (this.tempDir, AUDIO, new ScanOptions (ScanOptions.UNLIMITED_DEPTH, 4, listener)))
+            {
+                return stream.collect (Collectors.toSet ());
+            }
+        });
+
+        assertEquals (FOLDERS, files.size ());
+        assertTrue (files.stream ().allMatch (file -> file.getFileName ().toString ().equals ("sample.wav")));
+        assertEquals (Boolean.FALSE, listener.cancelled.get (MAX_DURATION.toMillis (), TimeUnit.MILLISECONDS));
+    }
+
+
+    @Test
+    void throwsExceptionOfListener () throws Exception
+    {
+        final IllegalStateException failure = new IllegalStateException ("Listener failed");
+        final Listener listener = new Listener (failure);
+
+        final IllegalStateException thrown = assertTimeoutPreemptively (MAX_DURATION, () -> assertThrows (IllegalStateException.class, () -> {
+            try (final Stream<Path> stream = FolderScanner.scan (this.tempDir, AUDIO, new ScanOptions (ScanOptions.UNLIMITED_DEPTH, 4, listener)))
+            {
+                stream.forEach (file -> {
+                    // Only consume
+                });
+            }
+        }));
+
+        assertSame (failure, thrown);
+        // A partial result is not reported as complete
+        assertEquals (Boolean.TRUE, listener.cancelled.get (MAX_DURATION.toMillis (), TimeUnit.MILLISECONDS));
+    }
+
+
+    /** Records the end of the scan and fails optionally. */
+    private static class Listener implements ScanListener
+    {
+        final RuntimeException           failure;
+        final CompletableFuture<Boolean> cancelled = new CompletableFuture<> ();
+
+
+        Listener (final RuntimeException failure)
+        {
+            this.failure = failure;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void folderScanned (final Path folder, final long scannedFolders, final long matchedFiles)
+        {
+            if (this.failure != null)
+                throw this.failure;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void scanFinished (final long scannedFolders, final long matchedFiles, final boolean wasCancelled)
+        {
+            this.cancelled.complete (Boolean.valueOf (wasCancelled));
+        }
+    }
+}
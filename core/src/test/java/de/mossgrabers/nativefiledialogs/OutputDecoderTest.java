@@ -0,0 +1,186 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Tests the splitting and decoding of the output of a helper process. The output is delivered in
+ * chunks of different sizes to check that texts, separators and characters which are split across
+ * reads are put together again.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class OutputDecoderTest
+{
+    private static final int [] CHUNK_SIZES =
+    {
+        1,
+        2,
+        3,
+        8192
+    };
+
+
+    @Test
+    void splitsBytesAcrossReads () throws IOException
+    {
+        final byte [] output = "/tmp/Käse.wav\n/tmp/日本.aif\n".getBytes (StandardCharsets.UTF_8);
+        for (final int chunkSize: CHUNK_SIZES)
+            assertEquals (List.of ("/tmp/Käse.wav", "/tmp/日本.aif"), decode (output, chunkSize, StandardCharsets.UTF_8, '\n'), "Chunk size " + chunkSize);
+
+        // The separator is a byte, line breaks are part of NUL separated texts
+        final byte [] separated = "first\nline\0second\0".getBytes (StandardCharsets.UTF_8);
+        for (final int chunkSize: CHUNK_SIZES)
+            assertEquals (List.of ("first\nline", "second"), decode (separated, chunkSize, StandardCharsets.UTF_8, OutputDecoder.NUL), "Chunk size " + chunkSize);
+    }
+
+
+    @Test
+    void stripsOnlyFinalLineBreak () throws IOException
+    {
+        assertEquals (List.of ("first\nsecond"), decode ("first\nsecond\n", OutputDecoder.NO_SEPARATOR));
+        assertEquals (List.of ("first\r\nsecond"), decode ("first\r\nsecond\r\n", OutputDecoder.NO_SEPARATOR));
+        assertEquals (List.of ("text\n"), decode ("text\n\n", OutputDecoder.NO_SEPARATOR));
+        assertEquals (List.of ("text"), decode ("text", OutputDecoder.NO_SEPARATOR));
+
+        // The last text of a NUL separated output might end with a line break
+        assertEquals (List.of ("a", "b"), decode ("a\0b\n", OutputDecoder.NUL));
+        // A carriage return without a line break is kept
+        assertEquals (List.of ("a\r"), decode ("a\r", OutputDecoder.NO_SEPARATOR));
+    }
+
+
+    @Test
+    void skipsEmptyTexts () throws IOException
+    {
+        assertEquals (List.of ("a", "b"), decode ("\n\na\n\nb\n\n", '\n'));
+        assertEquals (List.of ("a", "b"), decode ("\0a\0\0b\0", OutputDecoder.NUL));
+        assertEquals (List.of (), decode ("", OutputDecoder.NO_SEPARATOR));
+        assertEquals (List.of (), decode ("\n", OutputDecoder.NO_SEPARATOR));
+        assertEquals (List.of (), decode ("\r\n", OutputDecoder.NO_SEPARATOR));
+    }
+
+
+    @Test
+    void limitsSize () throws IOException
+    {
+        final byte [] output = "0123456789".getBytes (StandardCharsets.US_ASCII);
+
+        final OutputDecoder decoder = new OutputDecoder (new ChunkedChannel (output, 4), StandardCharsets.US_ASCII, OutputDecoder.NO_SEPARATOR, output.length);
+        assertEquals (List.of ("0123456789"), decoder.readAll ());
+        assertEquals (output.length, decoder.getSize ());
+
+        final OutputDecoder tooSmall = new OutputDecoder (new ChunkedChannel (output, 4), StandardCharsets.US_ASCII, OutputDecoder.NO_SEPARATOR, output.length - 1);
+        assertThrows (IOException.class, tooSmall::readAll);
+    }
+
+
+    @Test
+    void decodesNonUtf8Names () throws IOException
+    {
+        // 'Käse' in ISO-8859-1, which is not valid UTF-8
+        final byte [] bytes =
+        {
+            '/',
+            'K',
+            (byte) 0xE4,
+            's',
+            'e',
+            '\n',
+            '/',
+            'b',
+            '\n'
+        };
+
+        for (final int chunkSize: CHUNK_SIZES)
+        {
+            assertEquals (List.of ("/Käse", "/b"), decode (bytes, chunkSize, StandardCharsets.ISO_8859_1, '\n'));
+            // An invalid byte is replaced but does not swallow the separator
+            assertEquals (List.of ("/K\uFFFDse", "/b"), decode (bytes, chunkSize, StandardCharsets.UTF_8, '\n'));
+        }
+    }
+
+
+    @Test
+    void notifiesFirstByteOnce () throws IOException
+    {
+        final AtomicInteger count = new AtomicInteger ();
+        final OutputDecoder decoder = new OutputDecoder (new ChunkedChannel ("a\nb\n".getBytes (StandardCharsets.US_ASCII), 1), StandardCharsets.US_ASCII, '\n', 100);
+        decoder.setFirstByteListener (count::incrementAndGet);
+        assertEquals (List.of ("a", "b"), decoder.readAll ());
+        assertEquals (1, count.get ());
+    }
+
+
+    private static List<String> decode (final String output, final int separator) throws IOException
+    {
+        return decode (output.getBytes (StandardCharsets.UTF_8), 8192, StandardCharsets.UTF_8, separator);
+    }
+
+
+    private static List<String> decode (final byte [] output, final int chunkSize, final Charset charset, final int separator) throws IOException
+    {
+        return new OutputDecoder (new ChunkedChannel (output, chunkSize), charset, separator, ProcessRunner.MAX_OUTPUT_SIZE).readAll ();
+    }
+
+
+    /** Delivers the output in chunks of a fixed size, like a pipe which is written piece by piece. */
+    private static class ChunkedChannel implements ReadableByteChannel
+    {
+        private final byte [] data;
+        private final int     chunkSize;
+        private int           position = 0;
+        private boolean       isOpen   = true;
+
+
+        ChunkedChannel (final byte [] data, final int chunkSize)
+        {
+            this.data = data;
+            this.chunkSize = chunkSize;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public int read (final ByteBuffer destination)
+        {
+            if (this.position == this.data.length)
+                return -1;
+            final int length = Math.min (Math.min (this.chunkSize, destination.remaining ()), this.data.length - this.position);
+            destination.put (this.data, this.position, length);
+            this.position += length;
+            return length;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isOpen ()
+        {
+            return this.isOpen;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void close ()
+        {
+            this.isOpen = false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * Tests the process runner with a stub helper, which floods the standard output and the error
+ * output. If the streams were not drained at the same time, the stub would block on the full
+ * error pipe and never exit.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@DisabledOnOs(OS.WINDOWS)
+class ProcessRunnerTest
+{
+    private static final int      PATHS        = 20000;
+    /** The former implementation destroyed the process and waited up to 5 seconds. */
+    private static final Duration MAX_DURATION = Duration.ofSeconds (5);
+    private static final String   FIRST_PATH   = "/tmp/stub/sample0.wav";
+    private static final String   LAST_PATH    = "/tmp/stub/sample" + (PATHS - 1) + ".wav";
+
+
+    @Test
+    void executeDrainsBothStreams () throws Exception
+    {
+        final ProcessResult result = assertTimeoutPreemptively (MAX_DURATION, () -> ProcessRunner.execute (createCommand (), ProcessRunner.FILENAME_CHARSET, '\n', ProcessRunner.MAX_OUTPUT_SIZE));
+
+        assertEquals (0, result.getExitCode ());
+        final List<String> paths = result.getPaths ();
+        assertEquals (PATHS, paths.size ());
+        assertEquals (FIRST_PATH, paths.get (0));
+        assertEquals (LAST_PATH, paths.get (PATHS - 1));
+
+        // Only the start of the error output is kept
+        assertEquals (ProcessRunner.MAX_ERROR_SIZE, result.getError ().length ());
+        assertTrue (result.getError ().chars ().allMatch (c -> c == 'w'));
+    }
+
+
+    @Test
+    void streamDrainsBothStreams ()
+    {
+        final List<String> paths = assertTimeoutPreemptively (MAX_DURATION, () -> {
+            try (final Stream<String> stream = ProcessRunner.stream (createCommand (), '\n'))
+            {
+                return stream.collect (Collectors.toList ());
+            }
+        });
+
+        assertEquals (PATHS, paths.size ());
+        assertEquals (FIRST_PATH, paths.get (0));
+        assertEquals (LAST_PATH, paths.get (PATHS - 1));
+    }
+
+
+    @Test
+    void streamChecksExitCodeAtEnd ()
+    {
+        final String [] command =
+        {
+            "/bin/sh",
+            "-c",
+            "echo " + FIRST_PATH + "; echo 'no display' >&2; exit 3"
+        };
+        final List<String> paths = new ArrayList<> ();
+        final UncheckedIOException ex = assertThrows (UncheckedIOException.class, () -> {
+            try (final Stream<String> stream = ProcessRunner.stream (command, '\n', result -> {
+                if (result.getExitCode () != 0)
+                    throw new IOException (result.getExitCode () + ": " + result.getError ());
+            }))
+            {
+                stream.forEach (paths::add);
+            }
+        });
+
+        // The results before the end are handed to the stream
+        assertEquals (List.of (FIRST_PATH), paths);
+        assertEquals ("3: no display", ex.getCause ().getMessage ());
+    }
+
+
+    private static String [] createCommand () throws URISyntaxException
+    {
+        final File stub = Paths.get (ProcessRunnerTest.class.getResource ("/stubs/flood.sh").toURI ()).toFile ();
+        return new String []
+        {
+            "/bin/sh",
+            stub.getAbsolutePath (),
+            Integer.toString (PATHS)
+        };
+    }
+}
@@ -0,0 +1,222 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Tests that a dialog, whose helper never exits, releases its caller promptly and leaves no
+ * process behind when it times out, is cancelled or its thread is interrupted. The stub helper
+ * starts a child process to check that the whole process tree is killed.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@DisabledOnOs(OS.WINDOWS)
+class ProcessTreeTest
+{
+    private static final Duration MAX_DURATION = Duration.ofSeconds (2);
+
+    @TempDir
+    Path                          tempDir;
+    private Path                  pidFile;
+    private StubFileDialogs       dialogs;
+
+
+    @BeforeEach
+    void setUp () throws Exception
+    {
+        this.pidFile = this.tempDir.resolve ("pids");
+        final Path stub = Paths.get (ProcessTreeTest.class.getResource ("/stubs/never-exit.sh").toURI ());
+        this.dialogs = new StubFileDialogs (new String []
+        {
+            "/bin/sh",
+            stub.toString (),
+            this.pidFile.toString ()
+        });
+    }
+
+
+    @AfterEach
+    void tearDown () throws IOException
+    {
+        if (Files.exists (this.pidFile))
+            this.readProcesses ().forEach (ProcessHandle::destroyForcibly);
+    }
+
+
+    @Test
+    void timeoutKillsProcessTree () throws Exception
+    {
+        this.dialogs.setTimeout (Duration.ofMillis (500));
+
+        assertTimeoutPreemptively (MAX_DURATION, () -> {
+            assertThrows (DialogTimeoutException.class, () -> this.dialogs.selectFile ("Open"));
+        });
+        this.assertProcessTreeIsGone ();
+    }
+
+
+    @Test
+    void interruptKillsProcessTree () throws Exception
+    {
+        final AtomicReference<IOException> error = new AtomicReference<> ();
+        final AtomicBoolean isInterrupted = new AtomicBoolean ();
+        final Thread caller = new Thread ( () -> {
+            try
+            {
+                this.dialogs.selectFile ("Open");
+            }
+            catch (final IOException ex)
+            {
+                error.set (ex);
+                isInterrupted.set (Thread.currentThread ().isInterrupted ());
+            }
+        });
+        caller.start ();
+        this.awaitProcessTree ();
+
+        caller.interrupt ();
+        caller.join (MAX_DURATION.toMillis ());
+        assertFalse (caller.isAlive (), "The caller was not released.");
+        assertInstanceOf (InterruptedIOException.class, error.get ());
+        assertTrue (isInterrupted.get (), "The interrupt flag was not restored.");
+        this.assertProcessTreeIsGone ();
+    }
+
+
+    @Test
+    void cancelKillsProcessTree () throws Exception
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor ();
+        try
+        {
+            this.dialogs.setExecutor (executor);
+            final CompletableFuture<File> future = this.dialogs.selectFileAsync ("Open");
+            this.awaitProcessTree ();
+
+            assertTrue (future.cancel (true));
+            this.assertProcessTreeIsGone ();
+
+            // The thread of the executor is free again
+            final Boolean isInterrupted = executor.submit ( () -> Boolean.valueOf (Thread.currentThread ().isInterrupted ())).get (MAX_DURATION.toMillis (), TimeUnit.MILLISECONDS);
+            assertFalse (isInterrupted.booleanValue (), "The interrupt leaked into the next task.");
+        }
+        finally
+        {
+            executor.shutdownNow ();
+        }
+    }
+
+
+    private void awaitProcessTree () throws InterruptedException
+    {
+        final long end = System.nanoTime () + MAX_DURATION.toNanos ();
+        while (!Files.exists (this.pidFile))
+        {
+            assertTrue (System.nanoTime () < end, "The stub helper did not start.");
+            TimeUnit.MILLISECONDS.sleep (10);
+        }
+    }
+
+
+    /**
+     * Polls instead of using onExit, which checks processes that are not children of this process
+     * with an increasing delay.
+     */
+    private void assertProcessTreeIsGone () throws Exception
+    {
+        final long end = System.nanoTime () + MAX_DURATION.toNanos ();
+        for (final ProcessHandle process: this.readProcesses ())
+        {
+            while (isRunning (process))
+            {
+                assertTrue (System.nanoTime () < end, "Process " + process.pid () + " is still alive.");
+                TimeUnit.MILLISECONDS.sleep (10);
+            }
+        }
+    }
+
+
+    /**
+     * A killed child process, whose parent was killed as well, stays a zombie until init collects
+     * it, which some containers do late. A zombie counts as alive but does no longer run.
+     *
+     * @param process The process to check
+     * @return True if the process runs
+     */
+    private static boolean isRunning (final ProcessHandle process)
+    {
+        if (!process.isAlive ())
+            return false;
+        try
+        {
+            final String stat = Files.readString (Paths.get ("/proc", Long.toString (process.pid ()), "stat"));
+            return stat.charAt (stat.lastIndexOf (')') + 2) != 'Z';
+        }
+        catch (final IOException ex)
+        {
+            // No proc file system or the process is gone
+            return process.isAlive ();
+        }
+    }
+
+
+    private List<ProcessHandle> readProcesses () throws IOException
+    {
+        return Arrays.stream (Files.readString (this.pidFile).trim ().split (" ")).map (Long::valueOf).map (ProcessHandle::of).flatMap (process -> process.stream ()).toList ();
+    }
+
+
+    /** Displays no dialog but starts the stub helper. */
+    private static class StubFileDialogs extends AbstractNativeFileDialogs
+    {
+        private final String [] command;
+
+
+        StubFileDialogs (final String [] command)
+        {
+            super (null);
+            this.command = command;
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+        {
+            executeProcess (this.command);
+            return Collections.emptyList ();
+        }
+    }
+}
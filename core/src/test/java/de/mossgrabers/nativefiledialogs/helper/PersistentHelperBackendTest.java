@@ -0,0 +1,199 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.mossgrabers.nativefiledialogs.BackendFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Tests the supervision of the persistent helper with a stub helper, which hangs, is slow or never
+ * finishes its dialog.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+@DisabledOnOs(OS.WINDOWS)
+class PersistentHelperBackendTest
+{
+    private static final Duration      READ_TIMEOUT   = Duration.ofMillis (500);
+    private static final Duration      DIALOG_TIMEOUT = Duration.ofMillis (700);
+    private static final Duration      MAX_DURATION   = Duration.ofSeconds (5);
+    private static final DialogRequest REQUEST        = new DialogRequest (DialogKind.OPEN_FILE, "Open");
+    private static final List<File>    RESULT         = List.of (new File ("/tmp/stub/sample.wav"));
+
+    @TempDir
+    Path                               tempDir;
+
+
+    @Test
+    void restartsHangingHelper () throws Exception
+    {
+        final String marker = this.tempDir.resolve ("hung").toString ();
+        try (final PersistentHelperBackend backend = new PersistentHelperBackend ("/bin/sh", getStub (), "hang", marker))
+        {
+            backend.setReadTimeout (READ_TIMEOUT);
+            assertEquals (RESULT, assertTimeoutPreemptively (MAX_DURATION, () -> backend.show (REQUEST, null)));
+            assertEquals (1, backend.getRestartCount ());
+        }
+    }
+
+
+    @Test
+    void keepsHelperWhichIsAlive () throws Exception
+    {
+        try (final PersistentHelperBackend backend = new PersistentHelperBackend ("/bin/sh", getStub (), "slow"))
+        {
+            backend.setReadTimeout (READ_TIMEOUT);
+            assertEquals (RESULT, assertTimeoutPreemptively (MAX_DURATION, () -> backend.show (REQUEST, null)));
+            assertEquals (RESULT, assertTimeoutPreemptively (MAX_DURATION, () -> backend.show (REQUEST, null)));
+            assertEquals (0, backend.getRestartCount ());
+        }
+    }
+
+
+    @Test
+    void killsHelperWhenDialogTimesOut () throws Exception
+    {
+        final Path pidFile = this.tempDir.resolve ("pid");
+        try (final PersistentHelperBackend backend = new PersistentHelperBackend ("/bin/sh", getStub (), "alive", pidFile.toString ()))
+        {
+            final BackendFileDialogs dialogs = new BackendFileDialogs (null, backend);
+            dialogs.setTimeout (DIALOG_TIMEOUT);
+
+            // The helper sends ALIVE, therefore only the timeout of the dialog ends it
+            final long start = System.nanoTime ();
+            assertTimeoutPreemptively (MAX_DURATION, () -> {
+                assertThrows (DialogTimeoutException.class, () -> dialogs.select (REQUEST));
+            });
+            assertTrue (System.nanoTime () - start < READ_TIMEOUT.plus (DIALOG_TIMEOUT).toNanos (), "The dialog was not closed at its timeout.");
+            assertProcessExits (readPid (pidFile));
+            assertEquals (0, backend.getRestartCount ());
+        }
+    }
+
+
+    @Test
+    void waitingCallerCanBeInterrupted () throws Exception
+    {
+        final Path pidFile = this.tempDir.resolve ("pid");
+        try (final PersistentHelperBackend backend = new PersistentHelperBackend ("/bin/sh", getStub (), "alive", pidFile.toString ()))
+        {
+            final Caller displaying = new Caller (backend);
+            displaying.start ();
+            final long pid = readPid (pidFile);
+
+            final Caller waiting = new Caller (backend);
+            waiting.start ();
+            awaitState (waiting, Thread.State.WAITING);
+            waiting.interrupt ();
+            assertInstanceOf (InterruptedIOException.class, waiting.getError ());
+
+            // Does not wait for the open dialog but kills the helper
+            assertTimeoutPreemptively (MAX_DURATION, backend::close);
+            assertInstanceOf (IOException.class, displaying.getError ());
+            assertProcessExits (pid);
+        }
+    }
+
+
+    private static long readPid (final Path pidFile) throws Exception
+    {
+        final long end = System.nanoTime () + MAX_DURATION.toNanos ();
+        while (!Files.exists (pidFile) || Files.readString (pidFile).isBlank ())
+        {
+            assertTrue (System.nanoTime () < end, "The stub helper did not start.");
+            TimeUnit.MILLISECONDS.sleep (10);
+        }
+        return Long.parseLong (Files.readString (pidFile).trim ());
+    }
+
+
+    private static void assertProcessExits (final long pid) throws Exception
+    {
+        final Optional<ProcessHandle> process = ProcessHandle.of (pid);
+        if (process.isPresent ())
+            process.get ().onExit ().get (MAX_DURATION.toMillis (), TimeUnit.MILLISECONDS);
+    }
+
+
+    private static void awaitState (final Thread thread, final Thread.State state) throws InterruptedException
+    {
+        final long end = System.nanoTime () + MAX_DURATION.toNanos ();
+        while (thread.getState () != state)
+        {
+            assertTrue (System.nanoTime () < end, "The thread did not reach the state " + state + ".");
+            TimeUnit.MILLISECONDS.sleep (10);
+        }
+    }
+
+
+    private static String getStub () throws URISyntaxException
+    {
+        return Paths.get (PersistentHelperBackendTest.class.getResource ("/stubs/helper.sh").toURI ()).toString ();
+    }
+
+
+    /** Displays a dialog on its own thread. */
+    private static class Caller extends Thread
+    {
+        final PersistentHelperBackend      backend;
+        final CompletableFuture<Throwable> error = new CompletableFuture<> ();
+
+
+        Caller (final PersistentHelperBackend backend)
+        {
+            this.backend = backend;
+            this.setDaemon (true);
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void run ()
+        {
+            try
+            {
+                this.backend.show (REQUEST, null);
+                this.error.complete (null);
+            }
+            catch (final IOException ex)
+            {
+                this.error.complete (ex);
+            }
+        }
+
+
+        Throwable getError () throws Exception
+        {
+            return this.error.get (MAX_DURATION.toMillis (), TimeUnit.MILLISECONDS);
+        }
+    }
+}
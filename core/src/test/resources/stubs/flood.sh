@@ -0,0 +1,11 @@
+#!/bin/sh
+# Stub helper, which writes more than a pipe buffer to the error output before it prints the
+# selected paths (like GTK warnings), then floods the standard output with $1 paths.
+
+head -c 1048576 /dev/zero | tr '\0' 'w' >&2
+i=0
+while [ "$i" -lt "$1" ]; do
+    echo "/tmp/stub/sample$i.wav"
+    i=$((i + 1))
+done
+head -c 1048576 /dev/zero | tr '\0' 'e' >&2
@@ -0,0 +1,33 @@
+#!/bin/sh
+# Stub helper, which speaks the helper protocol. Modes:
+# hang MARKER - the first instance (MARKER does not exist yet) never answers, later ones answer
+# slow - sends ALIVE every 0.2 seconds for 1 second before it answers
+# alive PIDFILE - writes its process ID to PIDFILE and sends ALIVE every 0.2 seconds forever
+
+TAB=$(printf '\t')
+
+[ "$1" = "alive" ] && echo "$$" > "$2"
+echo "READY"
+while IFS="$TAB" read -r message id rest; do
+    [ "$message" = "QUIT" ] && exit 0
+
+    if [ "$1" = "hang" ] && [ ! -e "$2" ]; then
+        touch "$2"
+        sleep 600
+    fi
+    if [ "$1" = "alive" ]; then
+        while true; do
+            printf 'ALIVE\t%s\n' "$id"
+            sleep 0.2
+        done
+    fi
+    if [ "$1" = "slow" ]; then
+        for i in 1 2 3 4 5; do
+            printf 'ALIVE\t%s\n' "$id"
+            sleep 0.2
+        done
+    fi
+
+    printf 'RESULT\t%s\t/tmp/stub/sample.wav\n' "$id"
+    printf 'END\t%s\tOK\n' "$id"
+done
@@ -0,0 +1,7 @@
+#!/bin/sh
+# Stub helper, which never exits. Starts a child process and writes its own process ID and the one
+# of the child to the file given as the first argument.
+
+sleep 600 &
+echo "$$ $!" > "$1.tmp" && mv "$1.tmp" "$1"
+wait
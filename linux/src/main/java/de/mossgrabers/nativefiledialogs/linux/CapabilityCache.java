@@ -0,0 +1,240 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.ExecutableResolver;
+import de.mossgrabers.nativefiledialogs.OutputDecoder;
+import de.mossgrabers.nativefiledialogs.ProcessRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Probes the capabilities of the dialog helper tools only once. The result is cached for the
+ * lifetime of the process and in a file in the users cache directory. The file entries are keyed
+ * by the PATH environment variable and the modification time of the executable, therefore an
+ * update of the tool triggers a new probe. The probe also measures the start time of the tool,
+ * which is used to rank the installed tools.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class CapabilityCache
+{
+    private static final String []                               PROBED_OPTIONS =
+    {
+        ToolCapabilities.OPTION_MULTIPLE,
+        ToolCapabilities.OPTION_SEPARATOR,
+        ToolCapabilities.OPTION_CONFIRM_OVERWRITE,
+        ToolCapabilities.OPTION_SEPARATE_OUTPUT
+    };
+
+    /** Some versions wait for a display when printing the help, do not block forever. */
+    private static final Duration                                PROBE_TIMEOUT  = Duration.ofSeconds (10);
+    private static final Map<String, Optional<ToolCapabilities>> CACHE          = new ConcurrentHashMap<> ();
+    private static final Object                                  FILE_LOCK      = new Object ();
+    /** The option which prints the help of the file selection of a tool. */
+    private static final Map<String, String>                     HELP_OPTIONS   = Map.of ("zenity", "--help-file-selection", "yad", "--help-all", "kdialog", "--help");
+
+    /**
+     * Constructor.
+     */
+    private CapabilityCache ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Get the capabilities of a tool.
+     *
+     * @param name The name of the tool, e.g. 'zenity'
+     * @return The capabilities or null if the tool is not installed
+     */
+    public static ToolCapabilities get (final String name)
+    {
+        return CACHE.computeIfAbsent (name, CapabilityCache::load).orElse (null);
+    }
+
+
+    private static Optional<ToolCapabilities> load (final String name)
+    {
+        final File executable = ExecutableResolver.find (name);
+        if (executable == null)
+            return Optional.empty ();
+
+        final String key = ExecutableResolver.getSearchPath () + "|" + executable.getPath () + "|" + executable.lastModified ();
+        synchronized (FILE_LOCK)
+        {
+            final Properties properties = readCacheFile ();
+            final Duration startupTime = parseDuration (properties.getProperty (name + ".startup"));
+            if (key.equals (properties.getProperty (name + ".key")) && startupTime != null)
+                return Optional.of (new ToolCapabilities (name, executable, properties.getProperty (name + ".version", ""), parseOptions (properties.getProperty (name + ".options", "")), startupTime));
+
+            final ToolCapabilities capabilities = probe (name, executable);
+            properties.setProperty (name + ".key", key);
+            properties.setProperty (name + ".version", capabilities.getVersion ());
+            properties.setProperty (name + ".options", String.join (",", capabilities.getOptions ()));
+            properties.setProperty (name + ".startup", Long.toString (capabilities.getStartupTime ().toNanos ()));
+            writeCacheFile (properties);
+            return Optional.of (capabilities);
+        }
+    }
+
+
+    /**
+     * Run the tool to get its version and the supported options. The time of the version probe is
+     * the start time of the tool. It does not open a window, therefore the cold start of a dialog
+     * takes longer.
+     *
+     * @param name The name of the tool
+     * @param executable The executable of the tool
+     * @return The capabilities
+     */
+    private static ToolCapabilities probe (final String name, final File executable)
+    {
+        final long start = System.nanoTime ();
+        final String version = run (executable, "--version");
+        final Duration startupTime = Duration.ofNanos (System.nanoTime () - start);
+
+        final Set<String> options = new HashSet<> ();
+        final String help = run (executable, HELP_OPTIONS.getOrDefault (name, "--help"));
+        for (final String option: PROBED_OPTIONS)
+        {
+            if (help.contains (option))
+                options.add (option);
+        }
+
+        // Some versions need a display for printing the help, derive the options from the version
+        if (options.isEmpty ())
+        {
+            options.add (ToolCapabilities.OPTION_MULTIPLE);
+            switch (name)
+            {
+                case "kdialog":
+                    options.add (ToolCapabilities.OPTION_SEPARATE_OUTPUT);
+                    break;
+
+                case "yad":
+                    options.add (ToolCapabilities.OPTION_SEPARATOR);
+                    options.add (ToolCapabilities.OPTION_CONFIRM_OVERWRITE);
+                    break;
+
+                default:
+                    options.add (ToolCapabilities.OPTION_SEPARATOR);
+                    // Zenity 4 removed the overwrite confirmation, it is always on
+                    final int majorVersion = ToolCapabilities.parseMajorVersion (version);
+                    if (majorVersion >= 0 && majorVersion < 4)
+                        options.add (ToolCapabilities.OPTION_CONFIRM_OVERWRITE);
+                    break;
+            }
+        }
+
+        return new ToolCapabilities (name, executable, version, options, startupTime);
+    }
+
+
+    private static String run (final File executable, final String option)
+    {
+        try
+        {
+            return ProcessRunner.execute (new String []
+            {
+                executable.getPath (),
+                option
+            }, ProcessRunner.FILENAME_CHARSET, OutputDecoder.NO_SEPARATOR, ProcessRunner.MAX_OUTPUT_SIZE, PROBE_TIMEOUT).getResult ();
+        }
+        catch (final IOException ex)
+        {
+            return "";
+        }
+    }
+
+
+    private static Set<String> parseOptions (final String value)
+    {
+        final Set<String> options = new HashSet<> ();
+        for (final String option: value.split (","))
+        {
+            if (!option.isBlank ())
+                options.add (option.trim ());
+        }
+        return options;
+    }
+
+
+    private static Duration parseDuration (final String value)
+    {
+        try
+        {
+            return value == null ? null : Duration.ofNanos (Long.parseLong (value));
+        }
+        catch (final NumberFormatException ex)
+        {
+            return null;
+        }
+    }
+
+
+    private static Path getCacheFile ()
+    {
+        final String cacheHome = System.getenv ("XDG_CACHE_HOME");
+        final Path cacheDirectory = cacheHome == null || cacheHome.isBlank () ? Paths.get (System.getProperty ("user.home"), ".cache") : Paths.get (cacheHome);
+        return cacheDirectory.resolve ("nativefiledialogs").resolve ("capabilities.properties");
+    }
+
+
+    private static Properties readCacheFile ()
+    {
+        final Properties properties = new Properties ();
+        final Path file = getCacheFile ();
+        if (Files.isRegularFile (file))
+        {
+            try (final InputStream in = Files.newInputStream (file))
+            {
+                properties.load (in);
+            }
+            catch (final IOException | IllegalArgumentException ex)
+            {
+                // A broken cache file is simply rebuilt
+                properties.clear ();
+            }
+        }
+        return properties;
+    }
+
+
+    private static void writeCacheFile (final Properties properties)
+    {
+        final Path file = getCacheFile ();
+        try
+        {
+            Files.createDirectories (file.getParent ());
+            final Path tempFile = Files.createTempFile (file.getParent (), "capabilities", ".tmp");
+            try (final OutputStream out = Files.newOutputStream (tempFile))
+            {
+                properties.store (out, "Probed capabilities of the file dialog helper tools");
+            }
+            Files.move (tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException ex)
+        {
+            // The cache is only an optimization, probe again on the next start
+        }
+    }
+}
@@ -0,0 +1,159 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.FilterSet;
+import de.mossgrabers.nativefiledialogs.ProcessResult;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A command line tool which displays the file dialogs, e.g. zenity. Creates the command lines of
+ * the dialogs, tells failures apart from a canceled dialog and counts the failures in a row.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+abstract class DialogTool
+{
+    /** The number of failures in a row, after which the next tool is used. */
+    static final int               MAX_FAILURES     = 2;
+
+    private static final int       CANCEL_EXIT_CODE = 1;
+
+    private final ToolCapabilities capabilities;
+    private final AtomicInteger    failureCount     = new AtomicInteger ();
+
+    /**
+     * Constructor.
+     *
+     * @param capabilities The capabilities of the installed tool
+     */
+    protected DialogTool (final ToolCapabilities capabilities)
+    {
+        this.capabilities = capabilities;
+    }
+
+
+    /**
+     * Create the tool matching the name of the capabilities.
+     *
+     * @param capabilities The capabilities of the installed tool
+     * @return The tool
+     */
+    static DialogTool create (final ToolCapabilities capabilities)
+    {
+        switch (capabilities.getName ())
+        {
+            case "kdialog":
+                return new KdialogTool (capabilities);
+
+            case "yad":
+                return new YadTool (capabilities);
+
+            default:
+                return new ZenityTool (capabilities);
+        }
+    }
+
+
+    /**
+     * Get the capabilities of the tool.
+     *
+     * @return The capabilities
+     */
+    ToolCapabilities getCapabilities ()
+    {
+        return this.capabilities;
+    }
+
+
+    /**
+     * Create the command line for a dialog.
+     *
+     * @param isDirectory True to select a folder
+     * @param doSave True for a save dialog
+     * @param title The title, may be null
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @param filters The file filters
+     * @return The command line
+     */
+    abstract List<String> createParameters (boolean isDirectory, boolean doSave, String title, File directory, FilterSet filters);
+
+
+    /**
+     * Add the options for selecting several files to the command line of an open dialog.
+     *
+     * @param params The command line
+     * @return The byte which separates the selected files in the output, -1 if the tool cannot
+     *         select several files (the command line is not changed)
+     */
+    abstract int addMultipleSelection (List<String> params);
+
+
+    /**
+     * Check if the tool failed to display the dialog. The toolkits terminate with the same exit
+     * code as a canceled dialog if there is no display, therefore the error output is checked as
+     * well.
+     *
+     * @param result The result of the tool process
+     * @return True if the tool failed
+     */
+    boolean isFailure (final ProcessResult result)
+    {
+        final int exitCode = result.getExitCode ();
+        if (exitCode == 0)
+            return false;
+        if (!this.isCancel (exitCode))
+            return true;
+        final String error = result.getError ().toLowerCase (Locale.ENGLISH);
+        return error.contains ("open display") || error.contains ("connect to display");
+    }
+
+
+    /**
+     * Check if an exit code signals a canceled dialog.
+     *
+     * @param exitCode The exit code of the tool
+     * @return True if canceled
+     */
+    protected boolean isCancel (final int exitCode)
+    {
+        return exitCode == CANCEL_EXIT_CODE;
+    }
+
+
+    /**
+     * Check if the tool failed too often in a row and should not be used.
+     *
+     * @return True if failing
+     */
+    boolean isFailing ()
+    {
+        return this.failureCount.get () >= MAX_FAILURES;
+    }
+
+
+    /**
+     * Count a failure of the tool.
+     */
+    void failed ()
+    {
+        this.failureCount.incrementAndGet ();
+    }
+
+
+    /**
+     * Reset the failure count after the tool worked.
+     */
+    void succeeded ()
+    {
+        this.failureCount.set (0);
+    }
+}
@@ -0,0 +1,282 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+
+/**
+ * Mapping for the necessary GTK 3 functions. The GLib and GObject functions are found through the
+ * dependencies of the GTK library. Except of g_idle_add all functions must only be called from
+ * the thread which runs the GTK main loop.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class Gtk
+{
+    static
+    {
+        Native.register ("gtk-3");
+    }
+
+    /** Open one or several existing files. */
+    public static final int GTK_FILE_CHOOSER_ACTION_OPEN          = 0;
+    /** Select a new or existing file to save to. */
+    public static final int GTK_FILE_CHOOSER_ACTION_SAVE          = 1;
+    /** Select an existing folder. */
+    public static final int GTK_FILE_CHOOSER_ACTION_SELECT_FOLDER = 2;
+
+    /** The accept button of a native dialog was clicked. */
+    public static final int GTK_RESPONSE_ACCEPT                   = -3;
+    /** The dialog was closed with the window button or Escape. */
+    public static final int GTK_RESPONSE_DELETE_EVENT             = -4;
+    /** The cancel button of a native dialog was clicked. */
+    public static final int GTK_RESPONSE_CANCEL                   = -6;
+
+    /**
+     * Initializes GTK and connects to the display.
+     *
+     * @param argc A pointer to the number of command line arguments, may be null
+     * @param argv A pointer to the array of command line arguments, may be null
+     * @return True if the display could be opened
+     */
+    public static native boolean gtk_init_check (Pointer argc, Pointer argv);
+
+
+    /**
+     * Runs the main loop until gtk_main_quit() is called.
+     */
+    public static native void gtk_main ();
+
+
+    /**
+     * Adds a function to be called whenever there are no higher priority events pending to the
+     * default main loop. This function can be called from any thread.
+     *
+     * @param function The function to call
+     * @param data The data to pass to the function
+     * @return The ID of the event source
+     */
+    public static native int g_idle_add (SourceFunc function, Pointer data);
+
+
+    /**
+     * Creates a new file chooser, which uses the file chooser of the platform or the desktop
+     * portal if available.
+     *
+     * @param title The title of the dialog, may be null
+     * @param parent The transient parent of the dialog, may be null
+     * @param action One of the GTK_FILE_CHOOSER_ACTION constants
+     * @param acceptLabel The text of the accept button, null for the default
+     * @param cancelLabel The text of the cancel button, null for the default
+     * @return The file chooser (GtkFileChooserNative)
+     */
+    public static native Pointer gtk_file_chooser_native_new (String title, Pointer parent, int action, String acceptLabel, String cancelLabel);
+
+
+    /**
+     * Sets the title of a native dialog.
+     *
+     * @param dialog The dialog
+     * @param title The title
+     */
+    public static native void gtk_native_dialog_set_title (Pointer dialog, String title);
+
+
+    /**
+     * Shows a native dialog. The result is delivered with the response signal.
+     *
+     * @param dialog The dialog
+     */
+    public static native void gtk_native_dialog_show (Pointer dialog);
+
+
+    /**
+     * Hides a native dialog without emitting the response signal.
+     *
+     * @param dialog The dialog
+     */
+    public static native void gtk_native_dialog_hide (Pointer dialog);
+
+
+    /**
+     * Sets if several files can be selected.
+     *
+     * @param chooser The file chooser
+     * @param selectMultiple True to select several files
+     */
+    public static native void gtk_file_chooser_set_select_multiple (Pointer chooser, boolean selectMultiple);
+
+
+    /**
+     * Sets if a save dialog asks for confirmation before overwriting an existing file.
+     *
+     * @param chooser The file chooser
+     * @param doOverwriteConfirmation True to confirm
+     */
+    public static native void gtk_file_chooser_set_do_overwrite_confirmation (Pointer chooser, boolean doOverwriteConfirmation);
+
+
+    /**
+     * Sets the folder which the file chooser displays.
+     *
+     * @param chooser The file chooser
+     * @param filename The absolute path of the folder
+     * @return True if the folder could be changed
+     */
+    public static native boolean gtk_file_chooser_set_current_folder (Pointer chooser, String filename);
+
+
+    /**
+     * Selects a file and changes to its folder. A save dialog uses its name as the new name.
+     *
+     * @param chooser The file chooser
+     * @param filename The absolute path of the file
+     * @return True if the file could be selected
+     */
+    public static native boolean gtk_file_chooser_set_filename (Pointer chooser, String filename);
+
+
+    /**
+     * Sets the name of the new file in a save dialog.
+     *
+     * @param chooser The file chooser
+     * @param name The name without a path
+     */
+    public static native void gtk_file_chooser_set_current_name (Pointer chooser, String name);
+
+
+    /**
+     * Get the absolute paths of the selected files.
+     *
+     * @param chooser The file chooser
+     * @return A GSList of the paths in the file name encoding, which must be freed with g_free and
+     *         g_slist_free
+     */
+    public static native Pointer gtk_file_chooser_get_filenames (Pointer chooser);
+
+
+    /**
+     * Get the filters of the file chooser.
+     *
+     * @param chooser The file chooser
+     * @return A GSList of the filters, which must be freed with g_slist_free
+     */
+    public static native Pointer gtk_file_chooser_list_filters (Pointer chooser);
+
+
+    /**
+     * Adds a filter to the file chooser, which takes ownership of the filter.
+     *
+     * @param chooser The file chooser
+     * @param filter The filter
+     */
+    public static native void gtk_file_chooser_add_filter (Pointer chooser, Pointer filter);
+
+
+    /**
+     * Removes a filter from the file chooser.
+     *
+     * @param chooser The file chooser
+     * @param filter The filter
+     */
+    public static native void gtk_file_chooser_remove_filter (Pointer chooser, Pointer filter);
+
+
+    /**
+     * Creates a new file filter.
+     *
+     * @return The filter, which has a floating reference
+     */
+    public static native Pointer gtk_file_filter_new ();
+
+
+    /**
+     * Sets the label of a file filter.
+     *
+     * @param filter The filter
+     * @param name The label
+     */
+    public static native void gtk_file_filter_set_name (Pointer filter, String name);
+
+
+    /**
+     * Adds a glob pattern, e.g. '*.wav', to a file filter.
+     *
+     * @param filter The filter
+     * @param pattern The pattern
+     */
+    public static native void gtk_file_filter_add_pattern (Pointer filter, String pattern);
+
+
+    /**
+     * Connects a callback to a signal of an object.
+     *
+     * @param instance The object
+     * @param detailedSignal The name of the signal
+     * @param handler The callback
+     * @param data The data to pass to the callback
+     * @param destroyData The function to destroy the data, may be null
+     * @param connectFlags The connection flags
+     * @return The ID of the handler
+     */
+    public static native NativeLong g_signal_connect_data (Pointer instance, String detailedSignal, Callback handler, Pointer data, Pointer destroyData, int connectFlags);
+
+
+    /**
+     * Releases a reference to an object.
+     *
+     * @param object The object
+     */
+    public static native void g_object_unref (Pointer object);
+
+
+    /**
+     * Frees memory allocated by GLib.
+     *
+     * @param memory The memory
+     */
+    public static native void g_free (Pointer memory);
+
+
+    /**
+     * Frees a singly linked list but not its elements.
+     *
+     * @param list The list
+     */
+    public static native void g_slist_free (Pointer list);
+
+    /**
+     * A function which is called by the main loop.
+     */
+    public interface SourceFunc extends Callback
+    {
+        /**
+         * Called by the main loop.
+         *
+         * @param data The data given when adding the function
+         * @return False to remove the function from the main loop
+         */
+        boolean callback (Pointer data);
+    }
+
+    /**
+     * The handler of the response signal of a native dialog.
+     */
+    public interface ResponseCallback extends Callback
+    {
+        /**
+         * Called when the dialog was closed.
+         *
+         * @param dialog The dialog
+         * @param responseId The response, e.g. GTK_RESPONSE_ACCEPT
+         * @param data The data given when connecting to the signal
+         */
+        void callback (Pointer dialog, int responseId, Pointer data);
+    }
+}
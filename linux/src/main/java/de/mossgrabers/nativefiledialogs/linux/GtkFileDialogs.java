@@ -0,0 +1,417 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+import de.mossgrabers.nativefiledialogs.ProcessRunner;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * The Linux implementation for the file dialogs, which displays a GTK 3 file chooser in-process
+ * through JNA instead of starting zenity. GTK is initialized once per process on its own thread,
+ * which runs the GTK main loop. The file choosers are kept and reused for the next dialogs of the
+ * same kind, therefore a dialog costs neither a process start nor the initialization of the
+ * toolkit. Since GtkFileChooserNative is used, the dialog of the desktop portal is displayed if
+ * GTK is configured to use it (e.g. inside of Flatpak or with GTK_USE_PORTAL=1).
+ * <p>
+ * Do not use this class in an application which uses GTK itself (e.g. JavaFX or SWT on Linux),
+ * since GTK supports only one main loop thread.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class GtkFileDialogs extends AbstractNativeFileDialogs
+{
+    /** The time to wait for GTK to connect to the display. */
+    private static final Duration                        INIT_TIMEOUT = Duration.ofSeconds (10);
+
+    private static final Queue<Runnable>                 TASKS        = new ConcurrentLinkedQueue<> ();
+    private static final Gtk.SourceFunc                  RUN_TASK     = data -> runTask ();
+    private static final Gtk.ResponseCallback            ON_RESPONSE  = (dialog, responseId, data) -> handleResponse (dialog, responseId);
+
+    // Only accessed by the GTK thread
+    private static final Map<DialogKind, Deque<Chooser>> IDLE         = new EnumMap<> (DialogKind.class);
+    private static final Map<Pointer, Chooser>           CHOOSERS     = new HashMap<> ();
+
+    private static CompletableFuture<Void>               initialized;
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory. Starts the GTK thread if it
+     * is not running yet.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @throws IOException GTK 3 is not installed or could not connect to the display
+     */
+    public GtkFileDialogs (final File currentDirectory) throws IOException
+    {
+        super (currentDirectory);
+
+        try
+        {
+            startGtk ().get (INIT_TIMEOUT.toNanos (), TimeUnit.NANOSECONDS);
+        }
+        catch (final ExecutionException ex)
+        {
+            throw (IOException) ex.getCause ();
+        }
+        catch (final TimeoutException ex)
+        {
+            throw new IOException ("GTK was not initialized within the timeout.");
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The initialization of GTK was interrupted.");
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        final CompletableFuture<List<File>> response = new CompletableFuture<> ();
+        final CompletableFuture<Chooser> shown = runOnGtkThread ( () -> show (request, directory, response));
+        shown.whenComplete ( (chooser, ex) -> {
+            if (ex != null)
+                response.completeExceptionally (ex);
+        });
+
+        final Duration timeout = getRemainingTime ();
+        try
+        {
+            return timeout == null ? response.get () : response.get (timeout.toNanos (), TimeUnit.NANOSECONDS);
+        }
+        catch (final TimeoutException ex)
+        {
+            closeLater (shown, response);
+            throw new DialogTimeoutException ("The dialog was not closed within the timeout.");
+        }
+        catch (final InterruptedException ex)
+        {
+            closeLater (shown, response);
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+        catch (final ExecutionException ex)
+        {
+            throw new IOException ("The GTK file chooser could not be displayed.", ex.getCause ());
+        }
+    }
+
+
+    /**
+     * Close the dialog on the GTK thread after a timeout or interrupt, as soon as it is shown.
+     *
+     * @param shown The future which is completed when the dialog is shown
+     * @param response The future of the dialog
+     */
+    private static void closeLater (final CompletableFuture<Chooser> shown, final CompletableFuture<List<File>> response)
+    {
+        shown.thenAccept (chooser -> runOnGtkThread ( () -> {
+            close (chooser, response);
+            return null;
+        }));
+    }
+
+
+    /**
+     * Start the GTK thread, which initializes GTK and runs the main loop, if it is not running.
+     *
+     * @return The future which is completed when GTK is initialized, completed exceptionally with
+     *         an IOException if GTK is not available
+     */
+    private static synchronized CompletableFuture<Void> startGtk ()
+    {
+        if (initialized != null)
+            return initialized;
+
+        final CompletableFuture<Void> future = new CompletableFuture<> ();
+        final Thread thread = new Thread ( () -> {
+            try
+            {
+                if (!Gtk.gtk_init_check (null, null))
+                {
+                    future.completeExceptionally (new IOException ("GTK could not connect to the display."));
+                    return;
+                }
+            }
+            catch (final LinkageError ex)
+            {
+                future.completeExceptionally (new IOException ("GTK 3 is not installed.", ex));
+                return;
+            }
+            future.complete (null);
+            Gtk.gtk_main ();
+        }, "NativeFileDialogs GTK");
+        thread.setDaemon (true);
+        thread.start ();
+
+        initialized = future;
+        return future;
+    }
+
+
+    /**
+     * Run a function on the GTK thread.
+     *
+     * @param function The function
+     * @return The future which is completed with the result of the function
+     */
+    private static <T> CompletableFuture<T> runOnGtkThread (final Callable<T> function)
+    {
+        final CompletableFuture<T> future = new CompletableFuture<> ();
+        TASKS.add ( () -> {
+            try
+            {
+                future.complete (function.call ());
+            }
+            catch (final Exception | LinkageError ex)
+            {
+                future.completeExceptionally (ex);
+            }
+        });
+        Gtk.g_idle_add (RUN_TASK, null);
+        return future;
+    }
+
+
+    private static boolean runTask ()
+    {
+        final Runnable task = TASKS.poll ();
+        if (task != null)
+            task.run ();
+        // Remove the idle function, there is one for each task
+        return false;
+    }
+
+
+    /**
+     * Configure an idle file chooser (or create one) for the request and show it. Must be called
+     * on the GTK thread.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @param response The future which is completed with the selected files
+     * @return The chooser
+     */
+    private static Chooser show (final DialogRequest request, final File directory, final CompletableFuture<List<File>> response)
+    {
+        final DialogKind kind = request.getKind ();
+        final Chooser chooser = acquire (kind);
+        final Pointer dialog = chooser.dialog;
+
+        Gtk.gtk_native_dialog_set_title (dialog, request.getTitle () == null ? "" : request.getTitle ());
+        if (kind != DialogKind.SELECT_FOLDER)
+            chooser.setFilters (request.getFilterSet ());
+
+        if (directory != null && directory.exists ())
+        {
+            if (directory.isFile () && kind != DialogKind.SELECT_FOLDER)
+                Gtk.gtk_file_chooser_set_filename (dialog, directory.getAbsolutePath ());
+            else
+            {
+                final File folder = directory.isDirectory () ? directory : directory.getParentFile ();
+                if (folder != null)
+                    Gtk.gtk_file_chooser_set_current_folder (dialog, folder.getAbsolutePath ());
+                if (kind == DialogKind.SAVE_FILE)
+                    Gtk.gtk_file_chooser_set_current_name (dialog, "");
+            }
+        }
+
+        chooser.response = response;
+        Gtk.gtk_native_dialog_show (dialog);
+        return chooser;
+    }
+
+
+    /**
+     * Get an idle chooser for a kind of dialog or create a new one. Must be called on the GTK
+     * thread.
+     *
+     * @param kind The kind of the dialog
+     * @return The chooser
+     */
+    private static Chooser acquire (final DialogKind kind)
+    {
+        final Chooser idle = IDLE.computeIfAbsent (kind, k -> new ArrayDeque<> ()).poll ();
+        if (idle != null)
+            return idle;
+
+        final int action;
+        switch (kind)
+        {
+            case SAVE_FILE:
+                action = Gtk.GTK_FILE_CHOOSER_ACTION_SAVE;
+                break;
+
+            case SELECT_FOLDER:
+                action = Gtk.GTK_FILE_CHOOSER_ACTION_SELECT_FOLDER;
+                break;
+
+            default:
+                action = Gtk.GTK_FILE_CHOOSER_ACTION_OPEN;
+                break;
+        }
+
+        final Pointer dialog = Gtk.gtk_file_chooser_native_new (null, null, action, null, null);
+        Gtk.gtk_file_chooser_set_select_multiple (dialog, kind == DialogKind.OPEN_FILES);
+        if (kind == DialogKind.SAVE_FILE)
+            Gtk.gtk_file_chooser_set_do_overwrite_confirmation (dialog, true);
+        Gtk.g_signal_connect_data (dialog, "response", ON_RESPONSE, null, null, 0);
+
+        final Chooser chooser = new Chooser (kind, dialog);
+        CHOOSERS.put (dialog, chooser);
+        return chooser;
+    }
+
+
+    /**
+     * Handle the response signal of a chooser. Called on the GTK thread.
+     *
+     * @param dialog The dialog
+     * @param responseId The response, e.g. GTK_RESPONSE_ACCEPT
+     */
+    private static void handleResponse (final Pointer dialog, final int responseId)
+    {
+        final Chooser chooser = CHOOSERS.get (dialog);
+        // Already closed by a timeout or interrupt
+        if (chooser == null || chooser.response == null)
+            return;
+
+        final CompletableFuture<List<File>> response = chooser.response;
+        final List<File> files = responseId == Gtk.GTK_RESPONSE_ACCEPT ? getFilenames (dialog) : new ArrayList<> ();
+        release (chooser);
+        response.complete (files);
+    }
+
+
+    /**
+     * Close the dialog of a chooser after a timeout or interrupt, if it is still open for the
+     * response. Called on the GTK thread.
+     *
+     * @param chooser The chooser
+     * @param response The future of the dialog
+     */
+    private static void close (final Chooser chooser, final CompletableFuture<List<File>> response)
+    {
+        if (chooser.response == response)
+        {
+            Gtk.gtk_native_dialog_hide (chooser.dialog);
+            release (chooser);
+        }
+    }
+
+
+    private static void release (final Chooser chooser)
+    {
+        chooser.response = null;
+        IDLE.get (chooser.kind).push (chooser);
+    }
+
+
+    /**
+     * Get the selected files of a chooser.
+     *
+     * @param dialog The chooser
+     * @return The files
+     */
+    private static List<File> getFilenames (final Pointer dialog)
+    {
+        final List<File> files = new ArrayList<> ();
+        final Pointer list = Gtk.gtk_file_chooser_get_filenames (dialog);
+        for (Pointer node = list; node != null; node = node.getPointer (Native.POINTER_SIZE))
+        {
+            final Pointer filename = node.getPointer (0);
+            files.add (new File (filename.getString (0, ProcessRunner.FILENAME_CHARSET.name ())));
+            Gtk.g_free (filename);
+        }
+        if (list != null)
+            Gtk.g_slist_free (list);
+        return files;
+    }
+
+
+    /** A file chooser, which is reused for dialogs of the same kind. */
+    private static final class Chooser
+    {
+        final DialogKind              kind;
+        final Pointer                 dialog;
+        /** The filters which are set on the chooser. */
+        FilterSet                     filters;
+        /** The future of the displayed dialog, null if idle. */
+        CompletableFuture<List<File>> response;
+
+
+        /**
+         * Constructor.
+         *
+         * @param kind The kind of dialogs
+         * @param dialog The GtkFileChooserNative
+         */
+        Chooser (final DialogKind kind, final Pointer dialog)
+        {
+            this.kind = kind;
+            this.dialog = dialog;
+        }
+
+
+        /**
+         * Replace the filters of the chooser, if they differ from the current ones.
+         *
+         * @param filterSet The filters
+         */
+        void setFilters (final FilterSet filterSet)
+        {
+            if (filterSet.equals (this.filters))
+                return;
+
+            final Pointer list = Gtk.gtk_file_chooser_list_filters (this.dialog);
+            for (Pointer node = list; node != null; node = node.getPointer (Native.POINTER_SIZE))
+                Gtk.gtk_file_chooser_remove_filter (this.dialog, node.getPointer (0));
+            if (list != null)
+                Gtk.g_slist_free (list);
+
+            for (int i = 0; i < filterSet.size (); i++)
+            {
+                final FileFilter filter = filterSet.get (i);
+                final Pointer gtkFilter = Gtk.gtk_file_filter_new ();
+                Gtk.gtk_file_filter_set_name (gtkFilter, filter.getLabel ());
+                for (final String extension: filter.getExtensionList ())
+                    Gtk.gtk_file_filter_add_pattern (gtkFilter, "*".equals (extension) ? "*" : "*." + extension);
+                Gtk.gtk_file_chooser_add_filter (this.dialog, gtkFilter);
+            }
+            this.filters = filterSet;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * The kdialog dialog tool (KDE). The start directory and the filter are positional arguments of
+ * the dialog option, several selected files are printed on separate lines.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class KdialogTool extends DialogTool
+{
+    private static final Function<FilterSet, String> FILTER_ENCODER = KdialogTool::encodeFilters;
+
+    /**
+     * Constructor.
+     *
+     * @param capabilities The capabilities of the installed tool
+     */
+    KdialogTool (final ToolCapabilities capabilities)
+    {
+        super (capabilities);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    List<String> createParameters (final boolean isDirectory, final boolean doSave, final String title, final File directory, final FilterSet filters)
+    {
+        final List<String> params = new ArrayList<> ();
+        params.add (this.getCapabilities ().getExecutable ().getPath ());
+
+        if (title != null && !title.isEmpty ())
+        {
+            params.add ("--title");
+            params.add (title);
+        }
+
+        if (isDirectory)
+            params.add ("--getexistingdirectory");
+        else
+            params.add (doSave ? "--getsavefilename" : "--getopenfilename");
+
+        // The start directory is required if a filter follows
+        File dir = directory;
+        if (dir != null && isDirectory && dir.isFile ())
+            dir = dir.getParentFile ();
+        params.add (dir != null && dir.exists () ? dir.getAbsolutePath () : ".");
+
+        if (!isDirectory && !filters.isEmpty ())
+            params.add (filters.getEncoding (FILTER_ENCODER));
+        return params;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    int addMultipleSelection (final List<String> params)
+    {
+        final ToolCapabilities capabilities = this.getCapabilities ();
+        if (!capabilities.supports (ToolCapabilities.OPTION_MULTIPLE) || !capabilities.supports (ToolCapabilities.OPTION_SEPARATE_OUTPUT))
+            return -1;
+        params.add (ToolCapabilities.OPTION_MULTIPLE);
+        params.add (ToolCapabilities.OPTION_SEPARATE_OUTPUT);
+        return '\n';
+    }
+
+
+    /**
+     * Create the KDE filter argument: one 'patterns|label' line per filter.
+     *
+     * @param filters The filters
+     * @return The argument
+     */
+    private static String encodeFilters (final FilterSet filters)
+    {
+        final StringBuilder sb = new StringBuilder ();
+        for (int i = 0; i < filters.size (); i++)
+        {
+            final FileFilter filter = filters.get (i);
+            if (i > 0)
+                sb.append ('\n');
+            final List<String> extensions = filter.getExtensionList ();
+            for (int e = 0; e < extensions.size (); e++)
+            {
+                if (e > 0)
+                    sb.append (' ');
+                final String extension = extensions.get (e);
+                sb.append ("*".equals (extension) ? "*" : "*." + extension);
+            }
+            sb.append ('|').append (filter.getLabel ());
+        }
+        return sb.toString ();
+    }
+}
@@ -0,0 +1,44 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.NativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider;
+import de.mossgrabers.nativefiledialogs.OperatingSystem;
+
+import java.io.File;
+
+
+/**
+ * Provides the dialogs of the installed Linux dialog tools. Does not need JNA, which is only
+ * required for the in-process GTK file chooser.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class LinuxFileDialogsProvider implements NativeFileDialogsProvider
+{
+    /** {@inheritDoc} */
+    @Override
+    public boolean isSupported ()
+    {
+        return OperatingSystem.get () == OperatingSystem.LINUX;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAvailable ()
+    {
+        return !NativeLinuxFileDialogs.getInstalledTools ().isEmpty ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public NativeFileDialogs create (final File currentDirectory)
+    {
+        return new NativeLinuxFileDialogs (currentDirectory);
+    }
+}
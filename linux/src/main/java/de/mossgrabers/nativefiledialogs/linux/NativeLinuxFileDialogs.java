@@ -0,0 +1,391 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+import de.mossgrabers.nativefiledialogs.ProcessResult;
+import de.mossgrabers.nativefiledialogs.ProcessRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * The Linux implementation for the file dialogs, which runs one of the dialog tools zenity,
+ * kdialog or yad. If several of them are installed, the one which printed its version the fastest
+ * is used. If a tool fails to display a dialog, the dialog is displayed with the next tool of the
+ * ranking. A tool which failed several times in a row is skipped.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class NativeLinuxFileDialogs extends AbstractNativeFileDialogs
+{
+    /** The names of the supported dialog tools. */
+    private static final String []        TOOL_NAMES =
+    {
+        "zenity",
+        "kdialog",
+        "yad"
+    };
+
+    private static List<ToolCapabilities> ranking;
+
+    private final List<DialogTool>        tools;
+
+
+    /** A dialog call with one of the tools. */
+    @FunctionalInterface
+    private interface ToolCall<T>
+    {
+        /**
+         * Display the dialog with a tool.
+         *
+         * @param tool The tool
+         * @return The result
+         * @throws IOException The tool failed or the dialog was closed by a timeout or interrupt
+         */
+        T call (DialogTool tool) throws IOException;
+    }
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory, which uses the installed
+     * dialog tools.
+     *
+     * @param currentDirectory The initial directory, may be null
+     */
+    public NativeLinuxFileDialogs (final File currentDirectory)
+    {
+        this (currentDirectory, getInstalledTools ().toArray (new ToolCapabilities [0]));
+    }
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory and specific dialog tools.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @param tools The capabilities of the tools in the order of preference, null entries are
+     *            ignored
+     */
+    NativeLinuxFileDialogs (final File currentDirectory, final ToolCapabilities... tools)
+    {
+        super (currentDirectory);
+
+        final List<DialogTool> dialogTools = new ArrayList<> ();
+        for (final ToolCapabilities tool: tools)
+        {
+            if (tool != null)
+                dialogTools.add (DialogTool.create (tool));
+        }
+        this.tools = Collections.unmodifiableList (dialogTools);
+    }
+
+
+    /**
+     * Get the installed dialog tools ranked by their measured start time. The ranking is created
+     * once per process, the start times are cached with the tool capabilities. The start time is
+     * the time of the version check, which loads the tool and its toolkit libraries but does not
+     * open a window, therefore it does not measure the cold start of a dialog.
+     *
+     * @return The capabilities of the installed tools, the fastest first
+     */
+    public static synchronized List<ToolCapabilities> getInstalledTools ()
+    {
+        if (ranking == null)
+        {
+            final List<ToolCapabilities> installed = new ArrayList<> ();
+            for (final String name: TOOL_NAMES)
+            {
+                final ToolCapabilities capabilities = CapabilityCache.get (name);
+                if (capabilities != null)
+                    installed.add (capabilities);
+            }
+            // The order of the names decides if the start time is unknown or equal
+            installed.sort (Comparator.comparing (ToolCapabilities::getStartupTime, Comparator.nullsLast (Comparator.naturalOrder ())));
+            ranking = Collections.unmodifiableList (installed);
+        }
+        return ranking;
+    }
+
+
+    /**
+     * Get the dialog tool which displays the next dialog.
+     *
+     * @return The capabilities of the tool (see {@link ToolCapabilities#getStartupTime()} for its
+     *         measured start time), null if no tool is installed
+     */
+    public ToolCapabilities getActiveTool ()
+    {
+        final DialogTool tool = this.getActiveDialogTool ();
+        return tool == null ? null : tool.getCapabilities ();
+    }
+
+
+    /**
+     * Get the measured start time of the dialog tool which displays the next dialog (see
+     * {@link ToolCapabilities#getStartupTime()}).
+     *
+     * @return The time, null if no tool is installed or the time is unknown
+     */
+    public Duration getActiveToolStartupTime ()
+    {
+        final ToolCapabilities tool = this.getActiveTool ();
+        return tool == null ? null : tool.getStartupTime ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getBackendName ()
+    {
+        final ToolCapabilities tool = this.getActiveTool ();
+        return tool == null ? super.getBackendName () : tool.getName ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        final File file;
+        switch (request.getKind ())
+        {
+            case OPEN_FILES:
+                try (final Stream<Path> paths = this.showStreamingDialog (request, directory))
+                {
+                    return paths.map (Path::toFile).collect (Collectors.toList ());
+                }
+                catch (final UncheckedIOException ex)
+                {
+                    throw ex.getCause ();
+                }
+
+            case SELECT_FOLDER:
+                file = this.callWithFailover (tool -> selectFile (tool, true, false, request.getTitle (), directory, FilterSet.EMPTY));
+                break;
+
+            default:
+                file = this.callWithFailover (tool -> selectFile (tool, false, request.getKind () == DialogKind.SAVE_FILE, request.getTitle (), directory, request.getFilterSet ()));
+                if (file != null && file.isDirectory ())
+                    return new ArrayList<> ();
+                break;
+        }
+
+        final List<File> files = new ArrayList<> (1);
+        if (file != null)
+            files.add (file);
+        return files;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected Stream<Path> showStreamingDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        return this.callWithFailover (tool -> {
+            final List<String> params = tool.createParameters (false, false, request.getTitle (), directory, request.getFilterSet ());
+            final int separator = tool.addMultipleSelection (params);
+            if (separator < 0)
+            {
+                // Fall back to a single selection
+                final File file = selectFile (tool, false, false, request.getTitle (), directory, request.getFilterSet ());
+                return file == null || file.isDirectory () ? Stream.empty () : Stream.of (file.toPath ());
+            }
+            final Stream<String> results = ProcessRunner.stream (params.toArray (new String [params.size ()]), separator, result -> {
+                if (tool.isFailure (result))
+                    throw createFailure (tool, result);
+            });
+            return awaitFirstResult (results).map (Paths::get);
+        });
+    }
+
+
+    /**
+     * Wait until a stream of dialog results delivers its first result or ends. The tools print
+     * the results when the dialog is closed, therefore this waits for the dialog. A tool, which
+     * could not display the dialog, fails here, which lets the failover use the next tool. The
+     * further results are still read while the stream is consumed.
+     *
+     * @param results The results
+     * @return The stream of all results
+     * @throws IOException The tool failed, the dialog timed out or the waiting thread was
+     *             interrupted
+     */
+    private static Stream<String> awaitFirstResult (final Stream<String> results) throws IOException
+    {
+        final Spliterator<String> spliterator = results.spliterator ();
+        final List<String> first = new ArrayList<> (1);
+        try
+        {
+            spliterator.tryAdvance (first::add);
+        }
+        catch (final UncheckedIOException ex)
+        {
+            results.close ();
+            throw ex.getCause ();
+        }
+        catch (final RuntimeException ex)
+        {
+            results.close ();
+            throw ex;
+        }
+        return Stream.concat (first.stream (), StreamSupport.stream (spliterator, false)).onClose (results::close);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void warmUpPlatform () throws IOException
+    {
+        if (this.tools.isEmpty ())
+            throw createNotInstalledException ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void prepareDialog (final DialogRequest request, final File directory)
+    {
+        final DialogKind kind = request.getKind ();
+        final boolean isDirectory = kind == DialogKind.SELECT_FOLDER;
+        final FilterSet filters = isDirectory ? FilterSet.EMPTY : request.getFilterSet ();
+        for (final DialogTool tool: this.tools)
+        {
+            final List<String> params = tool.createParameters (isDirectory, kind == DialogKind.SAVE_FILE, request.getTitle (), directory, filters);
+            if (kind == DialogKind.OPEN_FILES)
+                tool.addMultipleSelection (params);
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void startToolkit () throws IOException
+    {
+        // Each dialog is a new process, which initializes GTK or Qt itself. Printing the version
+        // does not open a window, therefore it only loads the tool and its libraries into the disk
+        // cache of the operating system
+        executeProcess (new String []
+        {
+            this.tools.get (0).getCapabilities ().getExecutable ().getPath (),
+            "--version"
+        });
+    }
+
+
+    /**
+     * Create the command line for a dialog with the active tool.
+     *
+     * @param isDirectory True to select a folder
+     * @param doSave True for a save dialog
+     * @param title The title, may be null
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @param filters The file filters
+     * @return The command line
+     * @throws IOException No dialog tool is installed
+     */
+    List<String> createParameters (final boolean isDirectory, final boolean doSave, final String title, final File directory, final FilterSet filters) throws IOException
+    {
+        final DialogTool tool = this.getActiveDialogTool ();
+        if (tool == null)
+            throw createNotInstalledException ();
+        return tool.createParameters (isDirectory, doSave, title, directory, filters);
+    }
+
+
+    /**
+     * Display a dialog with the best tool, which is not failing. If the tool fails, the next tool
+     * is used. A timeout or interrupt is not a failure of the tool.
+     *
+     * @param call The dialog call
+     * @return The result of the call
+     * @throws IOException No tool is installed, all tools failed or the dialog was closed by a
+     *             timeout or interrupt
+     */
+    private <T> T callWithFailover (final ToolCall<T> call) throws IOException
+    {
+        if (this.tools.isEmpty ())
+            throw createNotInstalledException ();
+
+        // Try all tools again if all of them were failing
+        List<DialogTool> candidates = this.tools.stream ().filter (tool -> !tool.isFailing ()).collect (Collectors.toList ());
+        if (candidates.isEmpty ())
+            candidates = this.tools;
+
+        IOException lastError = null;
+        for (final DialogTool tool: candidates)
+        {
+            try
+            {
+                final T result = call.call (tool);
+                tool.succeeded ();
+                return result;
+            }
+            catch (final DialogTimeoutException | InterruptedIOException ex)
+            {
+                throw ex;
+            }
+            catch (final IOException ex)
+            {
+                tool.failed ();
+                lastError = ex;
+            }
+        }
+        throw lastError;
+    }
+
+
+    private DialogTool getActiveDialogTool ()
+    {
+        for (final DialogTool tool: this.tools)
+        {
+            if (!tool.isFailing ())
+                return tool;
+        }
+        return this.tools.isEmpty () ? null : this.tools.get (0);
+    }
+
+
+    private static File selectFile (final DialogTool tool, final boolean isDirectory, final boolean doSave, final String title, final File directory, final FilterSet filters) throws IOException
+    {
+        final List<String> params = tool.createParameters (isDirectory, doSave, title, directory, filters);
+        final ProcessResult processResult = executeProcess (params.toArray (new String [params.size ()]));
+        if (tool.isFailure (processResult))
+            throw createFailure (tool, processResult);
+        final String result = processResult.getResult ();
+        return result.isEmpty () ? null : new File (result);
+    }
+
+
+    private static IOException createFailure (final DialogTool tool, final ProcessResult processResult)
+    {
+        return new IOException (tool.getCapabilities ().getName () + " failed with exit code " + processResult.getExitCode () + ": " + processResult.getError ().trim ());
+    }
+
+
+    private static IOException createNotInstalledException ()
+    {
+        return new IOException ("Please install one of " + Arrays.toString (TOOL_NAMES) + " from the command line, e.g. 'sudo apt install zenity'");
+    }
+}
@@ -0,0 +1,340 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.DialogTimeoutException;
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+import de.mossgrabers.nativefiledialogs.ProcessRunner;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusConnection;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusMessage;
+import de.mossgrabers.nativefiledialogs.linux.dbus.DBusVariant;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+
+/**
+ * The Linux implementation for the file dialogs, which uses the file chooser of the XDG desktop
+ * portal. The portal displays the dialog of the desktop environment (GTK or KDE), also from inside
+ * of a sandbox like Flatpak or Snap. The D-Bus session connection is opened once and kept, a
+ * dialog costs a method call and the response signal instead of starting zenity and initializing
+ * GTK.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class PortalFileDialogs extends AbstractNativeFileDialogs implements Closeable
+{
+    /** The bus name of the desktop portal. */
+    public static final String                             PORTAL_NAME         = "org.freedesktop.portal.Desktop";
+    /** The object path of the desktop portal. */
+    public static final String                             PORTAL_PATH         = "/org/freedesktop/portal/desktop";
+    /** The interface of the file chooser portal. */
+    public static final String                             FILE_CHOOSER        = "org.freedesktop.portal.FileChooser";
+    /** The interface of the request objects, which deliver the response. */
+    public static final String                             REQUEST             = "org.freedesktop.portal.Request";
+    /** The parent path of the request objects. */
+    public static final String                             REQUEST_PATH_PREFIX = "/org/freedesktop/portal/desktop/request/";
+
+    private static final String                            PROPERTIES          = "org.freedesktop.DBus.Properties";
+    /** The portal answers the call immediately, the dialog result arrives with the response. */
+    private static final Duration                          CALL_TIMEOUT        = Duration.ofSeconds (25);
+    /** The version of the file chooser portal which added selecting folders. */
+    private static final int                               DIRECTORY_VERSION   = 3;
+    private static final int                               RESPONSE_SUCCESS    = 0;
+    private static final int                               GLOB_PATTERN        = 0;
+
+    private static final Function<FilterSet, List<Object>> FILTER_ENCODER      = PortalFileDialogs::encodeFilters;
+
+    private final DBusConnection                           connection;
+    private final int                                      version;
+    private final String                                   requestPath;
+    private final AtomicLong                               tokenCounter        = new AtomicLong ();
+
+    /**
+     * Creates a new file dialog instance with the initial directory, which connects to the portal
+     * on the session bus.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @throws IOException There is no session bus or no file chooser portal on it
+     */
+    public PortalFileDialogs (final File currentDirectory) throws IOException
+    {
+        this (currentDirectory, DBusConnection.openSessionBus ());
+    }
+
+
+    /**
+     * Creates a new file dialog instance with the initial directory and a specific bus
+     * connection, which is closed with this instance.
+     *
+     * @param currentDirectory The initial directory, may be null
+     * @param connection The connection to the bus on which the portal runs
+     * @throws IOException There is no file chooser portal on the bus
+     */
+    public PortalFileDialogs (final File currentDirectory, final DBusConnection connection) throws IOException
+    {
+        super (currentDirectory);
+
+        this.connection = connection;
+        this.requestPath = REQUEST_PATH_PREFIX + connection.getUniqueName ().substring (1).replace ('.', '_') + "/";
+
+        try
+        {
+            // Fails if there is no portal which can be activated
+            final DBusMessage reply = connection.call (DBusMessage.methodCall (PORTAL_NAME, PORTAL_PATH, PROPERTIES, "Get", "ss", FILE_CHOOSER, "version"), CALL_TIMEOUT);
+            this.version = ((Number) ((DBusVariant) reply.getArgument (0)).getValue ()).intValue ();
+            connection.addMatch ("type='signal',interface='" + REQUEST + "',member='Response',path_namespace='" + this.requestPath.substring (0, this.requestPath.length () - 1) + "'");
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            connection.close ();
+            throw ex instanceof IOException ? (IOException) ex : new IOException ("Unexpected reply of the file chooser portal.", ex);
+        }
+    }
+
+
+    /**
+     * Get the version of the file chooser portal.
+     *
+     * @return The version
+     */
+    public int getVersion ()
+    {
+        return this.version;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void close () throws IOException
+    {
+        this.connection.close ();
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        final DialogKind kind = request.getKind ();
+        if (kind == DialogKind.SELECT_FOLDER && this.version < DIRECTORY_VERSION)
+            throw new IOException ("The file chooser portal version " + this.version + " does not support selecting folders.");
+
+        final String token = "nfd" + this.tokenCounter.incrementAndGet ();
+        final Map<String, DBusVariant> options = createOptions (token, request, directory);
+        final String title = request.getTitle () == null ? "" : request.getTitle ();
+        final DBusMessage call = DBusMessage.methodCall (PORTAL_NAME, PORTAL_PATH, FILE_CHOOSER, kind == DialogKind.SAVE_FILE ? "SaveFile" : "OpenFile", "ssa{sv}", "", title, options);
+
+        // Register for the response before the call, the portal might answer before the reply
+        final ResponseHandler handler = new ResponseHandler ();
+        final String expectedHandle = this.requestPath + token;
+        this.connection.addSignalHandler (expectedHandle, REQUEST, "Response", handler);
+        try
+        {
+            final String handle = (String) this.connection.call (call, CALL_TIMEOUT).getArgument (0);
+            // Portals before version 0.9 ignore the handle token
+            if (!handle.equals (expectedHandle))
+                this.connection.addSignalHandler (handle, REQUEST, "Response", handler);
+            return parseResponse (this.awaitResponse (handler.response, handle));
+        }
+        finally
+        {
+            this.connection.removeSignalHandler (handler);
+        }
+    }
+
+
+    /**
+     * Wait for the response of a dialog. Closes the dialog if the timeout has passed or the
+     * thread is interrupted.
+     *
+     * @param response The future which is completed with the response signal
+     * @param handle The object path of the request
+     * @return The response signal
+     * @throws IOException Timeout, interrupt or the connection was closed
+     */
+    private DBusMessage awaitResponse (final CompletableFuture<DBusMessage> response, final String handle) throws IOException
+    {
+        final Duration timeout = getRemainingTime ();
+        try
+        {
+            return timeout == null ? response.get () : response.get (timeout.toNanos (), TimeUnit.NANOSECONDS);
+        }
+        catch (final TimeoutException ex)
+        {
+            this.closeRequest (handle);
+            throw new DialogTimeoutException ("The dialog was not closed within the timeout.");
+        }
+        catch (final InterruptedException ex)
+        {
+            this.closeRequest (handle);
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The dialog was interrupted.");
+        }
+        catch (final ExecutionException ex)
+        {
+            throw new IOException ("The connection to the file chooser portal was closed.", ex.getCause ());
+        }
+    }
+
+
+    private void closeRequest (final String handle)
+    {
+        try
+        {
+            this.connection.send (DBusMessage.methodCall (PORTAL_NAME, handle, REQUEST, "Close", "").withNoReplyExpected ());
+        }
+        catch (final IOException ex)
+        {
+            // The connection is gone and with it the dialog
+        }
+    }
+
+
+    /**
+     * Create the options of the OpenFile or SaveFile call.
+     *
+     * @param token The token for the object path of the request
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The options
+     */
+    private static Map<String, DBusVariant> createOptions (final String token, final DialogRequest request, final File directory)
+    {
+        final Map<String, DBusVariant> options = new LinkedHashMap<> ();
+        options.put ("handle_token", new DBusVariant ("s", token));
+        options.put ("modal", new DBusVariant ("b", Boolean.TRUE));
+
+        switch (request.getKind ())
+        {
+            case OPEN_FILES:
+                options.put ("multiple", new DBusVariant ("b", Boolean.TRUE));
+                break;
+
+            case SELECT_FOLDER:
+                options.put ("directory", new DBusVariant ("b", Boolean.TRUE));
+                break;
+
+            default:
+                break;
+        }
+
+        if (request.getKind () != DialogKind.SELECT_FOLDER && !request.getFilterSet ().isEmpty ())
+            options.put ("filters", new DBusVariant ("a(sa(us))", request.getFilterSet ().getEncoding (FILTER_ENCODER)));
+
+        if (directory != null && directory.exists ())
+        {
+            final File folder = directory.isDirectory () ? directory : directory.getParentFile ();
+            if (folder != null)
+                options.put ("current_folder", new DBusVariant ("ay", toNulTerminated (folder.getAbsolutePath ())));
+            if (request.getKind () == DialogKind.SAVE_FILE && directory.isFile ())
+                options.put ("current_name", new DBusVariant ("s", directory.getName ()));
+        }
+        return options;
+    }
+
+
+    /**
+     * Get the selected files from the response signal.
+     *
+     * @param response The response signal
+     * @return The selected files, empty if the dialog was canceled
+     * @throws IOException The response is malformed
+     */
+    private static List<File> parseResponse (final DBusMessage response) throws IOException
+    {
+        final List<File> files = new ArrayList<> ();
+        if (!"ua{sv}".equals (response.getSignature ()) || ((Number) response.getArgument (0)).intValue () != RESPONSE_SUCCESS)
+            return files;
+
+        final Object uris = DBusVariant.getValue ((Map<?, ?>) response.getArgument (1), "uris", "as");
+        if (uris == null)
+            return files;
+        for (final Object uri: (List<?>) uris)
+        {
+            try
+            {
+                files.add (new File (URI.create ((String) uri)));
+            }
+            catch (final IllegalArgumentException ex)
+            {
+                // Not a local file, e.g. a remote location of the desktop
+            }
+        }
+        return files;
+    }
+
+
+    /**
+     * Create the portal filters: a list of structures with the label and a list of (type,
+     * pattern) structures.
+     *
+     * @param filters The filters
+     * @return The encoded filters
+     */
+    private static List<Object> encodeFilters (final FilterSet filters)
+    {
+        final List<Object> encoded = new ArrayList<> (filters.size ());
+        for (int i = 0; i < filters.size (); i++)
+        {
+            final FileFilter filter = filters.get (i);
+            final List<Object> patterns = new ArrayList<> ();
+            for (final String extension: filter.getExtensionList ())
+                patterns.add (Arrays.asList (Integer.valueOf (GLOB_PATTERN), "*".equals (extension) ? "*" : "*." + extension));
+            encoded.add (Arrays.asList (filter.getLabel (), Collections.unmodifiableList (patterns)));
+        }
+        return Collections.unmodifiableList (encoded);
+    }
+
+
+    private static byte [] toNulTerminated (final String path)
+    {
+        final byte [] bytes = path.getBytes (ProcessRunner.FILENAME_CHARSET);
+        return Arrays.copyOf (bytes, bytes.length + 1);
+    }
+
+
+    /** Completes a future with the response signal of a request. */
+    private static class ResponseHandler implements DBusConnection.SignalHandler
+    {
+        final CompletableFuture<DBusMessage> response = new CompletableFuture<> ();
+
+        /** {@inheritDoc} */
+        @Override
+        public void handle (final DBusMessage signal)
+        {
+            this.response.complete (signal);
+        }
+
+
+        /** {@inheritDoc} */
+        @Override
+        public void closed (final IOException cause)
+        {
+            this.response.completeExceptionally (cause);
+        }
+    }
+}
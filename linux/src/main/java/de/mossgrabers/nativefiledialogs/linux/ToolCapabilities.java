@@ -0,0 +1,163 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
+
+/**
+ * The capabilities of a dialog helper tool (e.g. zenity), which were probed from the installed
+ * executable.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class ToolCapabilities
+{
+    /** Selecting several files is supported. */
+    public static final String OPTION_MULTIPLE          = "--multiple";
+    /** A separator for several selected files can be set. */
+    public static final String OPTION_SEPARATOR         = "--separator";
+    /** The save dialog can ask before overwriting a file. */
+    public static final String OPTION_CONFIRM_OVERWRITE = "--confirm-overwrite";
+    /** Several selected files are printed on separate lines (kdialog). */
+    public static final String OPTION_SEPARATE_OUTPUT   = "--separate-output";
+
+    private final String       name;
+    private final File         executable;
+    private final String       version;
+    private final Set<String>  options;
+    private final Duration     startupTime;
+
+    /**
+     * Constructor.
+     *
+     * @param name The name of the tool, e.g. 'zenity'
+     * @param executable The absolute path of the executable
+     * @param version The version reported by the tool, might be empty but never null
+     * @param options The supported command line options
+     */
+    public ToolCapabilities (final String name, final File executable, final String version, final Set<String> options)
+    {
+        this (name, executable, version, options, null);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param name The name of the tool, e.g. 'zenity'
+     * @param executable The absolute path of the executable
+     * @param version The version reported by the tool, might be empty but never null
+     * @param options The supported command line options
+     * @param startupTime The measured start time of the tool, null if unknown
+     */
+    public ToolCapabilities (final String name, final File executable, final String version, final Set<String> options, final Duration startupTime)
+    {
+        this.name = name;
+        this.executable = executable;
+        this.version = version;
+        this.options = Collections.unmodifiableSet (options);
+        this.startupTime = startupTime;
+    }
+
+
+    /**
+     * Get the name of the tool.
+     *
+     * @return The name
+     */
+    public String getName ()
+    {
+        return this.name;
+    }
+
+
+    /**
+     * Get the executable of the tool.
+     *
+     * @return The absolute path of the executable
+     */
+    public File getExecutable ()
+    {
+        return this.executable;
+    }
+
+
+    /**
+     * Get the version of the tool.
+     *
+     * @return The version, might be empty but never null
+     */
+    public String getVersion ()
+    {
+        return this.version;
+    }
+
+
+    /**
+     * Get the measured start time of the tool. This is the time of running the tool to print its
+     * version, which includes loading the tool and its toolkit libraries. It does not include
+     * connecting to the display and opening a window, therefore it is not the cold start time of
+     * a dialog but only used to rank the tools.
+     *
+     * @return The time, null if unknown
+     */
+    public Duration getStartupTime ()
+    {
+        return this.startupTime;
+    }
+
+
+    /**
+     * Get the major version number of the tool.
+     *
+     * @return The major version number or -1 if unknown
+     */
+    public int getMajorVersion ()
+    {
+        return parseMajorVersion (this.version);
+    }
+
+
+    /**
+     * Get all supported command line options.
+     *
+     * @return The options
+     */
+    public Set<String> getOptions ()
+    {
+        return this.options;
+    }
+
+
+    /**
+     * Check if a command line option is supported.
+     *
+     * @param option The option, e.g. '--multiple'
+     * @return True if supported
+     */
+    public boolean supports (final String option)
+    {
+        return this.options.contains (option);
+    }
+
+
+    /**
+     * Get the major version number from a version text.
+     *
+     * @param version The version text, e.g. '3.42.1'
+     * @return The major version number or -1 if unknown
+     */
+    static int parseMajorVersion (final String version)
+    {
+        int end = 0;
+        while (end < version.length () && Character.isDigit (version.charAt (end)))
+            end++;
+        return end == 0 ? -1 : Integer.parseInt (version.substring (0, end));
+    }
+}
@@ -0,0 +1,42 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+/**
+ * The yad dialog tool (GTK), a fork of zenity with the same file dialog options.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class YadTool extends ZenityTool
+{
+    /** Yad exits with this code if the dialog is closed with Escape or the window button. */
+    private static final int ESCAPE_EXIT_CODE = 252;
+
+    /**
+     * Constructor.
+     *
+     * @param capabilities The capabilities of the installed tool
+     */
+    YadTool (final ToolCapabilities capabilities)
+    {
+        super (capabilities);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getDialogOption ()
+    {
+        return "--file";
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isCancel (final int exitCode)
+    {
+        return exitCode == ESCAPE_EXIT_CODE || super.isCancel (exitCode);
+    }
+}
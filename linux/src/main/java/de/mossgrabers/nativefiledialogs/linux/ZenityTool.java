@@ -0,0 +1,119 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux;
+
+import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * The zenity dialog tool (GTK).
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class ZenityTool extends DialogTool
+{
+    /** Separates several selected files, the ASCII unit separator is not used in filenames. */
+    private static final int                               SEPARATOR      = 0x1F;
+
+    private static final Function<FilterSet, List<String>> FILTER_ENCODER = ZenityTool::encodeFilters;
+
+    /**
+     * Constructor.
+     *
+     * @param capabilities The capabilities of the installed tool
+     */
+    ZenityTool (final ToolCapabilities capabilities)
+    {
+        super (capabilities);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    List<String> createParameters (final boolean isDirectory, final boolean doSave, final String title, final File directory, final FilterSet filters)
+    {
+        final ToolCapabilities capabilities = this.getCapabilities ();
+        final List<String> params = new ArrayList<> ();
+        params.add (capabilities.getExecutable ().getPath ());
+        params.add (this.getDialogOption ());
+
+        if (isDirectory)
+            params.add ("--directory");
+
+        if (directory != null && directory.exists ())
+        {
+            File dir = directory;
+            if (isDirectory && dir.isFile ())
+                dir = dir.getParentFile ();
+            params.add (String.format ("--filename=%s", dir.getAbsolutePath ()));
+        }
+
+        if (doSave)
+        {
+            params.add ("--save");
+            if (capabilities.supports (ToolCapabilities.OPTION_CONFIRM_OVERWRITE))
+                params.add (ToolCapabilities.OPTION_CONFIRM_OVERWRITE);
+        }
+
+        if (title != null && !title.isEmpty ())
+            params.add (String.format ("--title=%s", title));
+
+        params.addAll (filters.getEncoding (FILTER_ENCODER));
+        return params;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    int addMultipleSelection (final List<String> params)
+    {
+        final ToolCapabilities capabilities = this.getCapabilities ();
+        if (!capabilities.supports (ToolCapabilities.OPTION_MULTIPLE) || !capabilities.supports (ToolCapabilities.OPTION_SEPARATOR))
+            return -1;
+        params.add (ToolCapabilities.OPTION_MULTIPLE);
+        params.add (ToolCapabilities.OPTION_SEPARATOR + "=" + (char) SEPARATOR);
+        return SEPARATOR;
+    }
+
+
+    /**
+     * Get the option which selects the file selection dialog.
+     *
+     * @return The option
+     */
+    protected String getDialogOption ()
+    {
+        return "--file-selection";
+    }
+
+
+    /**
+     * Create the zenity file filter arguments.
+     *
+     * @param filters The filters
+     * @return The arguments
+     */
+    private static List<String> encodeFilters (final FilterSet filters)
+    {
+        final List<String> params = new ArrayList<> (filters.size ());
+        for (int i = 0; i < filters.size (); i++)
+        {
+            final FileFilter filter = filters.get (i);
+            final StringBuilder sb = new StringBuilder ();
+            sb.append ("--file-filter=").append (filter.getLabel ()).append (" | ");
+            for (final String extension: filter.getExtensionList ())
+                sb.append ("*.").append (extension).append (" ");
+            params.add (sb.toString ().trim ());
+        }
+        return Collections.unmodifiableList (params);
+    }
+}
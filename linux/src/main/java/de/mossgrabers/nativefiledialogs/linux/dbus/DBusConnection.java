@@ -0,0 +1,580 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A minimal D-Bus client connection over a Unix domain socket, which is opened once and kept for
+ * many calls. It authenticates with the EXTERNAL mechanism (the user ID of the process), sends
+ * method calls and signals and dispatches the received replies, signals and method calls from a
+ * daemon thread. Only the features needed for the file chooser portal (and a stand-in of it) are
+ * implemented: there is no support for passing file descriptors or for abstract socket addresses.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DBusConnection implements Closeable
+{
+    /** The bus name of the message bus itself. */
+    public static final String                                 BUS_NAME             = "org.freedesktop.DBus";
+    private static final String                                BUS_PATH             = "/org/freedesktop/DBus";
+    private static final String                                ERROR_UNKNOWN_METHOD = "org.freedesktop.DBus.Error.UnknownMethod";
+    private static final String                                ERROR_FAILED         = "org.freedesktop.DBus.Error.Failed";
+    /** The request name flag to fail instead of waiting in the queue for the name. */
+    private static final int                                   DO_NOT_QUEUE         = 4;
+    private static final int                                   PRIMARY_OWNER        = 1;
+    private static final int                                   ALREADY_OWNER        = 4;
+    /** The timeout of the calls to the bus itself. */
+    private static final Duration                              BUS_CALL_TIMEOUT     = Duration.ofSeconds (25);
+
+    private final SocketChannel                                channel;
+    private final Object                                       writeLock            = new Object ();
+    private final AtomicInteger                                serials              = new AtomicInteger ();
+    private final Map<Integer, CompletableFuture<DBusMessage>> pendingCalls         = new ConcurrentHashMap<> ();
+    private final List<SignalRegistration>                     signalHandlers       = new CopyOnWriteArrayList<> ();
+    private final String                                       uniqueName;
+    private volatile MethodHandler                             methodHandler;
+    private volatile boolean                                   isClosed             = false;
+
+
+    /** Handles received signals. */
+    @FunctionalInterface
+    public interface SignalHandler
+    {
+        /**
+         * Called on the reading thread when a matching signal was received.
+         *
+         * @param signal The signal
+         */
+        void handle (DBusMessage signal);
+
+
+        /**
+         * Called on the reading thread when the connection was closed while the handler was
+         * registered.
+         *
+         * @param cause The reason
+         */
+        default void closed (final IOException cause)
+        {
+            // Intentionally empty
+        }
+    }
+
+
+    /** Handles received method calls, e.g. of a service implementation. */
+    @FunctionalInterface
+    public interface MethodHandler
+    {
+        /**
+         * Called on the reading thread when a method call was received.
+         *
+         * @param call The method call
+         * @return The reply, which is sent if the caller expects one, null if the method is unknown
+         * @throws IOException The method failed, an error is sent as reply
+         */
+        DBusMessage handle (DBusMessage call) throws IOException;
+    }
+
+
+    /**
+     * Constructor. Authenticates and registers on the bus.
+     *
+     * @param channel The connected socket channel
+     * @throws IOException Could not authenticate or register
+     */
+    private DBusConnection (final SocketChannel channel) throws IOException
+    {
+        this.channel = channel;
+
+        this.authenticate ();
+
+        final Thread reader = new Thread (this::readMessages, "NativeFileDialogs D-Bus");
+        reader.setDaemon (true);
+        reader.start ();
+
+        this.uniqueName = (String) this.call (DBusMessage.methodCall (BUS_NAME, BUS_PATH, BUS_NAME, "Hello", ""), BUS_CALL_TIMEOUT).getArgument (0);
+    }
+
+
+    /**
+     * Open a connection to the session bus of the user. The address is read from the environment
+     * variable DBUS_SESSION_BUS_ADDRESS, if it is not set the default socket in XDG_RUNTIME_DIR is
+     * used.
+     *
+     * @return The connection
+     * @throws IOException There is no session bus or it could not be connected
+     */
+    public static DBusConnection openSessionBus () throws IOException
+    {
+        final String address = System.getenv ("DBUS_SESSION_BUS_ADDRESS");
+        if (address != null && !address.isBlank ())
+            return open (address);
+
+        final String runtimeDirectory = System.getenv ("XDG_RUNTIME_DIR");
+        if (runtimeDirectory != null && !runtimeDirectory.isBlank ())
+        {
+            final Path socket = Paths.get (runtimeDirectory, "bus");
+            if (Files.exists (socket))
+                return open ("unix:path=" + socket);
+        }
+        throw new IOException ("There is no D-Bus session bus.");
+    }
+
+
+    /**
+     * Open a connection to a bus.
+     *
+     * @param address The D-Bus address of the bus, e.g. 'unix:path=/run/user/1000/bus', several
+     *            addresses are separated by semicolons and tried in order
+     * @return The connection
+     * @throws IOException The address is not supported or could not be connected
+     */
+    public static DBusConnection open (final String address) throws IOException
+    {
+        IOException lastError = null;
+        for (final String entry: address.split (";"))
+        {
+            final String path = parseSocketPath (entry);
+            if (path == null)
+                continue;
+
+            final SocketChannel channel = SocketChannel.open (StandardProtocolFamily.UNIX);
+            try
+            {
+                channel.connect (UnixDomainSocketAddress.of (path));
+                return new DBusConnection (channel);
+            }
+            catch (final IOException ex)
+            {
+                channel.close ();
+                lastError = ex;
+            }
+        }
+        if (lastError != null)
+            throw lastError;
+        throw new IOException ("Unsupported D-Bus address: " + address);
+    }
+
+
+    /**
+     * Get the unique name, which the bus assigned to this connection.
+     *
+     * @return The name, e.g. ':1.42'
+     */
+    public String getUniqueName ()
+    {
+        return this.uniqueName;
+    }
+
+
+    /**
+     * Call a method and wait for the reply.
+     *
+     * @param call The method call
+     * @param timeout The maximum time to wait for the reply, null to wait forever
+     * @return The reply
+     * @throws IOException Could not send the call, the connection was closed, the reply did not
+     *             arrive in time or the reply is an error (DBusException)
+     */
+    public DBusMessage call (final DBusMessage call, final Duration timeout) throws IOException
+    {
+        final int serial = this.nextSerial ();
+        final Integer key = Integer.valueOf (serial);
+        final CompletableFuture<DBusMessage> future = new CompletableFuture<> ();
+        this.pendingCalls.put (key, future);
+        try
+        {
+            if (this.isClosed)
+                throw new IOException ("The D-Bus connection is closed.");
+            this.write (call, serial);
+
+            final DBusMessage reply = timeout == null ? future.get () : future.get (timeout.toNanos (), TimeUnit.NANOSECONDS);
+            if (reply.getType () == DBusMessage.ERROR)
+                throw new DBusException (reply.getErrorName (), reply.getBody ().isEmpty () ? "" : String.valueOf (reply.getBody ().get (0)));
+            return reply;
+        }
+        catch (final TimeoutException ex)
+        {
+            throw new IOException ("No reply to the D-Bus call " + call.getMember () + " within " + timeout.toMillis () + " ms.");
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new InterruptedIOException ("The D-Bus call " + call.getMember () + " was interrupted.");
+        }
+        catch (final ExecutionException ex)
+        {
+            throw new IOException ("The D-Bus connection was closed.", ex.getCause ());
+        }
+        finally
+        {
+            this.pendingCalls.remove (key);
+        }
+    }
+
+
+    /**
+     * Send a message without waiting for a reply, e.g. a signal, a reply or a method call which
+     * does not expect a reply.
+     *
+     * @param message The message
+     * @throws IOException Could not send the message
+     */
+    public void send (final DBusMessage message) throws IOException
+    {
+        this.write (message, this.nextSerial ());
+    }
+
+
+    /**
+     * Register a handler for signals. The bus only sends signals, which are not directed to this
+     * connection, if a matching rule was added, see {@link #addMatch(String)}.
+     *
+     * @param path The object path of the signal, null for all paths
+     * @param interfaceName The interface of the signal, null for all interfaces
+     * @param member The name of the signal, null for all signals
+     * @param handler The handler
+     */
+    public void addSignalHandler (final String path, final String interfaceName, final String member, final SignalHandler handler)
+    {
+        this.signalHandlers.add (new SignalRegistration (path, interfaceName, member, handler));
+    }
+
+
+    /**
+     * Remove all registrations of a signal handler.
+     *
+     * @param handler The handler
+     */
+    public void removeSignalHandler (final SignalHandler handler)
+    {
+        this.signalHandlers.removeIf (registration -> registration.handler == handler);
+    }
+
+
+    /**
+     * Ask the bus to send the matching signals to this connection.
+     *
+     * @param rule The match rule, e.g. "type='signal',interface='org.freedesktop.portal.Request'"
+     * @throws IOException Could not add the rule
+     */
+    public void addMatch (final String rule) throws IOException
+    {
+        this.call (DBusMessage.methodCall (BUS_NAME, BUS_PATH, BUS_NAME, "AddMatch", "s", rule), BUS_CALL_TIMEOUT);
+    }
+
+
+    /**
+     * Register a well-known bus name for this connection, e.g. to provide a service.
+     *
+     * @param name The bus name
+     * @throws IOException The name is owned by another connection or could not be requested
+     */
+    public void requestName (final String name) throws IOException
+    {
+        final DBusMessage reply = this.call (DBusMessage.methodCall (BUS_NAME, BUS_PATH, BUS_NAME, "RequestName", "su", name, Integer.valueOf (DO_NOT_QUEUE)), BUS_CALL_TIMEOUT);
+        final int result = ((Number) reply.getArgument (0)).intValue ();
+        if (result != PRIMARY_OWNER && result != ALREADY_OWNER)
+            throw new IOException ("The D-Bus name " + name + " is already owned.");
+    }
+
+
+    /**
+     * Set the handler for the method calls sent to this connection. Without a handler all calls
+     * are answered with an error.
+     *
+     * @param methodHandler The handler, null to remove it
+     */
+    public void setMethodHandler (final MethodHandler methodHandler)
+    {
+        this.methodHandler = methodHandler;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void close () throws IOException
+    {
+        this.isClosed = true;
+        this.channel.close ();
+    }
+
+
+    private int nextSerial ()
+    {
+        // Serials must not be 0
+        int serial;
+        do
+        {
+            serial = this.serials.incrementAndGet ();
+        } while (serial == 0);
+        return serial;
+    }
+
+
+    private void write (final DBusMessage message, final int serial) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.wrap (message.encode (serial));
+        synchronized (this.writeLock)
+        {
+            while (buffer.hasRemaining ())
+                this.channel.write (buffer);
+        }
+    }
+
+
+    /**
+     * Authenticate with the EXTERNAL mechanism, which identifies the user by the credentials of
+     * the socket.
+     *
+     * @throws IOException The bus rejected the authentication
+     */
+    private void authenticate () throws IOException
+    {
+        final String uid = Files.getAttribute (Paths.get ("/proc/self"), "unix:uid").toString ();
+        final StringBuilder hexUid = new StringBuilder ();
+        for (final byte b: uid.getBytes (StandardCharsets.US_ASCII))
+            hexUid.append (String.format ("%02x", Byte.valueOf (b)));
+
+        // The protocol starts with a NUL byte
+        this.writeLine ("\0AUTH EXTERNAL " + hexUid);
+        final String response = this.readLine ();
+        if (!response.startsWith ("OK "))
+            throw new IOException ("The D-Bus authentication failed: " + response);
+        this.writeLine ("BEGIN");
+    }
+
+
+    private void writeLine (final String line) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.wrap ((line + "\r\n").getBytes (StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining ())
+            this.channel.write (buffer);
+    }
+
+
+    /**
+     * Read a line of the authentication protocol. Reads byte by byte to not consume any of the
+     * following messages.
+     *
+     * @return The line without the line break
+     * @throws IOException Could not read the line
+     */
+    private String readLine () throws IOException
+    {
+        final StringBuilder line = new StringBuilder ();
+        final ByteBuffer buffer = ByteBuffer.allocate (1);
+        while (line.length () < 1024)
+        {
+            buffer.clear ();
+            this.readFully (buffer);
+            final char c = (char) (buffer.get (0) & 0xFF);
+            if (c == '\n')
+            {
+                final int length = line.length ();
+                return length > 0 && line.charAt (length - 1) == '\r' ? line.substring (0, length - 1) : line.toString ();
+            }
+            line.append (c);
+        }
+        throw new IOException ("The D-Bus authentication response is too long.");
+    }
+
+
+    private void readFully (final ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining ())
+        {
+            if (this.channel.read (buffer) < 0)
+                throw new EOFException ("The D-Bus connection was closed.");
+        }
+    }
+
+
+    /**
+     * Read and dispatch the received messages until the connection is closed.
+     */
+    private void readMessages ()
+    {
+        IOException cause;
+        try
+        {
+            final ByteBuffer header = ByteBuffer.allocate (DBusMessage.FIXED_HEADER_LENGTH);
+            while (true)
+            {
+                header.clear ();
+                this.readFully (header);
+                final byte [] data = Arrays.copyOf (header.array (), DBusMessage.getLength (header.array ()));
+                final ByteBuffer rest = ByteBuffer.wrap (data, DBusMessage.FIXED_HEADER_LENGTH, data.length - DBusMessage.FIXED_HEADER_LENGTH);
+                this.readFully (rest);
+                this.dispatch (DBusMessage.decode (data));
+            }
+        }
+        catch (final IOException ex)
+        {
+            cause = ex;
+        }
+        catch (final RuntimeException ex)
+        {
+            cause = new IOException ("Could not dispatch a D-Bus message.", ex);
+        }
+
+        this.isClosed = true;
+        try
+        {
+            this.channel.close ();
+        }
+        catch (final IOException ex)
+        {
+            // Already closed
+        }
+
+        for (final CompletableFuture<DBusMessage> future: this.pendingCalls.values ())
+            future.completeExceptionally (cause);
+        for (final SignalRegistration registration: this.signalHandlers)
+            registration.handler.closed (cause);
+    }
+
+
+    private void dispatch (final DBusMessage message) throws IOException
+    {
+        switch (message.getType ())
+        {
+            case DBusMessage.METHOD_RETURN:
+            case DBusMessage.ERROR:
+                final CompletableFuture<DBusMessage> future = this.pendingCalls.get (Integer.valueOf (message.getReplySerial ()));
+                if (future != null)
+                    future.complete (message);
+                break;
+
+            case DBusMessage.SIGNAL:
+                for (final SignalRegistration registration: this.signalHandlers)
+                {
+                    if (registration.matches (message))
+                        registration.handler.handle (message);
+                }
+                break;
+
+            case DBusMessage.METHOD_CALL:
+                final DBusMessage reply = this.handleCall (message);
+                if (!message.isNoReplyExpected ())
+                    this.send (reply);
+                break;
+
+            default:
+                // Unknown message types must be ignored
+                break;
+        }
+    }
+
+
+    private DBusMessage handleCall (final DBusMessage call)
+    {
+        final MethodHandler handler = this.methodHandler;
+        try
+        {
+            final DBusMessage reply = handler == null ? null : handler.handle (call);
+            if (reply != null)
+                return reply;
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            return DBusMessage.error (call, ex instanceof DBusException ? ((DBusException) ex).getErrorName () : ERROR_FAILED, String.valueOf (ex.getMessage ()));
+        }
+        return DBusMessage.error (call, ERROR_UNKNOWN_METHOD, "Unknown method " + call.getInterface () + "." + call.getMember ());
+    }
+
+
+    /**
+     * Get the socket path of a D-Bus address.
+     *
+     * @param address A single address, e.g. 'unix:path=/run/user/1000/bus,guid=...'
+     * @return The path or null if the address is not a supported Unix socket address
+     */
+    private static String parseSocketPath (final String address)
+    {
+        if (!address.startsWith ("unix:"))
+            return null;
+        for (final String parameter: address.substring (5).split (","))
+        {
+            if (parameter.startsWith ("path="))
+                return unescape (parameter.substring (5));
+        }
+        return null;
+    }
+
+
+    /**
+     * Decode the %-escaped bytes of an address value.
+     *
+     * @param value The value
+     * @return The decoded value
+     */
+    static String unescape (final String value)
+    {
+        final byte [] bytes = new byte [value.length ()];
+        int length = 0;
+        for (int i = 0; i < value.length (); i++)
+        {
+            final char c = value.charAt (i);
+            // A complete escape may end exactly at the end of the value
+            if (c == '%' && i + 3 <= value.length ())
+            {
+                bytes[length++] = (byte) Integer.parseInt (value.substring (i + 1, i + 3), 16);
+                i += 2;
+            }
+            else
+                bytes[length++] = (byte) c;
+        }
+        return new String (bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+
+    /** A registered signal handler with its filter. */
+    private static class SignalRegistration
+    {
+        final String        path;
+        final String        interfaceName;
+        final String        member;
+        final SignalHandler handler;
+
+        SignalRegistration (final String path, final String interfaceName, final String member, final SignalHandler handler)
+        {
+            this.path = path;
+            this.interfaceName = interfaceName;
+            this.member = member;
+            this.handler = handler;
+        }
+
+
+        boolean matches (final DBusMessage signal)
+        {
+            return (this.path == null || this.path.equals (signal.getPath ())) && (this.interfaceName == null || this.interfaceName.equals (signal.getInterface ())) && (this.member == null || this.member.equals (signal.getMember ()));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.io.IOException;
+
+
+/**
+ * An error reply to a D-Bus method call.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class DBusException extends IOException
+{
+    private static final long serialVersionUID = -6112043279412873011L;
+
+    private final String      errorName;
+
+    /**
+     * Constructor.
+     *
+     * @param errorName The D-Bus name of the error, e.g. 'org.freedesktop.DBus.Error.ServiceUnknown'
+     * @param message The message
+     */
+    public DBusException (final String errorName, final String message)
+    {
+        super (errorName + ": " + message);
+
+        this.errorName = errorName;
+    }
+
+
+    /**
+     * Get the D-Bus name of the error.
+     *
+     * @return The name
+     */
+    public String getErrorName ()
+    {
+        return this.errorName;
+    }
+}
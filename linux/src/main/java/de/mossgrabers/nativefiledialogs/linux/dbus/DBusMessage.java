@@ -0,0 +1,498 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * A D-Bus message: a method call, a method return, an error or a signal.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public final class DBusMessage
+{
+    /** A method call. */
+    public static final int    METHOD_CALL            = 1;
+    /** The reply to a method call. */
+    public static final int    METHOD_RETURN          = 2;
+    /** The error reply to a method call. */
+    public static final int    ERROR                  = 3;
+    /** A signal. */
+    public static final int    SIGNAL                 = 4;
+
+    /** The flag for a method call which does not expect a reply. */
+    public static final int    FLAG_NO_REPLY_EXPECTED = 1;
+
+    /** The length of the fixed part of the header. */
+    static final int           FIXED_HEADER_LENGTH    = 16;
+    /** The maximum length of a message, defined by the specification. */
+    private static final int   MAX_MESSAGE_LENGTH     = 1 << 27;
+    private static final int   PROTOCOL_VERSION       = 1;
+
+    private static final int   FIELD_PATH             = 1;
+    private static final int   FIELD_INTERFACE        = 2;
+    private static final int   FIELD_MEMBER           = 3;
+    private static final int   FIELD_ERROR_NAME       = 4;
+    private static final int   FIELD_REPLY_SERIAL     = 5;
+    private static final int   FIELD_DESTINATION      = 6;
+    private static final int   FIELD_SENDER           = 7;
+    private static final int   FIELD_SIGNATURE        = 8;
+
+    private final int          type;
+    private final int          flags;
+    private final int          serial;
+    private final String       path;
+    private final String       interfaceName;
+    private final String       member;
+    private final String       errorName;
+    private final int          replySerial;
+    private final String       destination;
+    private final String       sender;
+    private final String       signature;
+    private final List<Object> body;
+
+    /**
+     * Constructor.
+     *
+     * @param type The type of the message
+     * @param flags The flags
+     * @param serial The serial, 0 if the message was not yet sent
+     * @param path The object path, may be null
+     * @param interfaceName The interface name, may be null
+     * @param member The method or signal name, may be null
+     * @param errorName The error name, may be null
+     * @param replySerial The serial of the call to which this is the reply, 0 if none
+     * @param destination The destination bus name, may be null
+     * @param sender The bus name of the sender, may be null
+     * @param signature The signature of the body
+     * @param body The values of the body
+     */
+    private DBusMessage (final int type, final int flags, final int serial, final String path, final String interfaceName, final String member, final String errorName, final int replySerial, final String destination, final String sender, final String signature, final List<Object> body)
+    {
+        this.type = type;
+        this.flags = flags;
+        this.serial = serial;
+        this.path = path;
+        this.interfaceName = interfaceName;
+        this.member = member;
+        this.errorName = errorName;
+        this.replySerial = replySerial;
+        this.destination = destination;
+        this.sender = sender;
+        this.signature = signature;
+        this.body = Collections.unmodifiableList (body);
+    }
+
+
+    /**
+     * Create a method call.
+     *
+     * @param destination The bus name of the service
+     * @param path The object path
+     * @param interfaceName The interface of the method
+     * @param member The name of the method
+     * @param signature The signature of the arguments
+     * @param arguments The arguments
+     * @return The message
+     */
+    public static DBusMessage methodCall (final String destination, final String path, final String interfaceName, final String member, final String signature, final Object... arguments)
+    {
+        return new DBusMessage (METHOD_CALL, 0, 0, path, interfaceName, member, null, 0, destination, null, signature, Arrays.asList (arguments));
+    }
+
+
+    /**
+     * Create a signal.
+     *
+     * @param destination The bus name of the receiver, null to broadcast the signal
+     * @param path The object path which emits the signal
+     * @param interfaceName The interface of the signal
+     * @param member The name of the signal
+     * @param signature The signature of the arguments
+     * @param arguments The arguments
+     * @return The message
+     */
+    public static DBusMessage signal (final String destination, final String path, final String interfaceName, final String member, final String signature, final Object... arguments)
+    {
+        return new DBusMessage (SIGNAL, 0, 0, path, interfaceName, member, null, 0, destination, null, signature, Arrays.asList (arguments));
+    }
+
+
+    /**
+     * Create the reply to a method call.
+     *
+     * @param call The method call
+     * @param signature The signature of the return values
+     * @param values The return values
+     * @return The message
+     */
+    public static DBusMessage methodReturn (final DBusMessage call, final String signature, final Object... values)
+    {
+        return new DBusMessage (METHOD_RETURN, 0, 0, null, null, null, null, call.serial, call.sender, null, signature, Arrays.asList (values));
+    }
+
+
+    /**
+     * Create the error reply to a method call.
+     *
+     * @param call The method call
+     * @param errorName The name of the error, e.g. 'org.freedesktop.DBus.Error.Failed'
+     * @param message The description of the error
+     * @return The message
+     */
+    public static DBusMessage error (final DBusMessage call, final String errorName, final String message)
+    {
+        return new DBusMessage (ERROR, 0, 0, null, null, null, errorName, call.serial, call.sender, null, "s", Collections.singletonList (message));
+    }
+
+
+    /**
+     * Get a copy of this message which does not expect a reply.
+     *
+     * @return The copy
+     */
+    public DBusMessage withNoReplyExpected ()
+    {
+        return new DBusMessage (this.type, this.flags | FLAG_NO_REPLY_EXPECTED, this.serial, this.path, this.interfaceName, this.member, this.errorName, this.replySerial, this.destination, this.sender, this.signature, this.body);
+    }
+
+
+    /**
+     * Get the type of the message.
+     *
+     * @return METHOD_CALL, METHOD_RETURN, ERROR or SIGNAL
+     */
+    public int getType ()
+    {
+        return this.type;
+    }
+
+
+    /**
+     * Check if the sender of a method call does not expect a reply.
+     *
+     * @return True if no reply is expected
+     */
+    public boolean isNoReplyExpected ()
+    {
+        return (this.flags & FLAG_NO_REPLY_EXPECTED) != 0;
+    }
+
+
+    /**
+     * Get the serial of the message.
+     *
+     * @return The serial, 0 if the message was not yet sent
+     */
+    public int getSerial ()
+    {
+        return this.serial;
+    }
+
+
+    /**
+     * Get the serial of the method call to which this message is the reply.
+     *
+     * @return The serial, 0 if this is not a reply
+     */
+    public int getReplySerial ()
+    {
+        return this.replySerial;
+    }
+
+
+    /**
+     * Get the object path of a method call or signal.
+     *
+     * @return The path, may be null
+     */
+    public String getPath ()
+    {
+        return this.path;
+    }
+
+
+    /**
+     * Get the interface of a method call or signal.
+     *
+     * @return The interface name, may be null
+     */
+    public String getInterface ()
+    {
+        return this.interfaceName;
+    }
+
+
+    /**
+     * Get the name of the method or signal.
+     *
+     * @return The name, may be null
+     */
+    public String getMember ()
+    {
+        return this.member;
+    }
+
+
+    /**
+     * Get the name of an error.
+     *
+     * @return The name, may be null
+     */
+    public String getErrorName ()
+    {
+        return this.errorName;
+    }
+
+
+    /**
+     * Get the bus name of the receiver.
+     *
+     * @return The bus name, may be null
+     */
+    public String getDestination ()
+    {
+        return this.destination;
+    }
+
+
+    /**
+     * Get the unique bus name of the sender, which is set by the bus.
+     *
+     * @return The bus name, may be null
+     */
+    public String getSender ()
+    {
+        return this.sender;
+    }
+
+
+    /**
+     * Get the signature of the body.
+     *
+     * @return The signature, empty if there is no body
+     */
+    public String getSignature ()
+    {
+        return this.signature;
+    }
+
+
+    /**
+     * Get the values of the body.
+     *
+     * @return The values
+     */
+    public List<Object> getBody ()
+    {
+        return this.body;
+    }
+
+
+    /**
+     * Get a value of the body.
+     *
+     * @param index The index of the value
+     * @return The value
+     * @throws IOException The body does not contain enough values
+     */
+    public Object getArgument (final int index) throws IOException
+    {
+        if (index >= this.body.size ())
+            throw new IOException ("The D-Bus message " + this.member + " has only " + this.body.size () + " values.");
+        return this.body.get (index);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString ()
+    {
+        final StringBuilder sb = new StringBuilder ();
+        sb.append ("DBusMessage [type=").append (this.type).append (", serial=").append (this.serial);
+        if (this.replySerial != 0)
+            sb.append (", replySerial=").append (this.replySerial);
+        if (this.path != null)
+            sb.append (", path=").append (this.path);
+        if (this.interfaceName != null)
+            sb.append (", interface=").append (this.interfaceName);
+        if (this.member != null)
+            sb.append (", member=").append (this.member);
+        if (this.errorName != null)
+            sb.append (", error=").append (this.errorName);
+        return sb.append (", body=").append (this.body).append (']').toString ();
+    }
+
+
+    /**
+     * Encode the message in the wire format.
+     *
+     * @param newSerial The serial to use for the message
+     * @return The bytes
+     */
+    byte [] encode (final int newSerial)
+    {
+        final DBusWriter bodyWriter = new DBusWriter ();
+        bodyWriter.write (this.signature, this.body);
+
+        final List<Object []> fields = new ArrayList<> ();
+        addField (fields, FIELD_PATH, "o", this.path);
+        addField (fields, FIELD_INTERFACE, "s", this.interfaceName);
+        addField (fields, FIELD_MEMBER, "s", this.member);
+        addField (fields, FIELD_ERROR_NAME, "s", this.errorName);
+        if (this.replySerial != 0)
+            addField (fields, FIELD_REPLY_SERIAL, "u", Integer.valueOf (this.replySerial));
+        addField (fields, FIELD_DESTINATION, "s", this.destination);
+        if (!this.signature.isEmpty ())
+            addField (fields, FIELD_SIGNATURE, "g", this.signature);
+
+        final DBusWriter writer = new DBusWriter ();
+        writer.writeByte ('l');
+        writer.writeByte (this.type);
+        writer.writeByte (this.flags);
+        writer.writeByte (PROTOCOL_VERSION);
+        writer.writeInt (bodyWriter.getLength ());
+        writer.writeInt (newSerial);
+        writer.writeValue ("a(yv)", fields);
+        // The body starts at a multiple of 8
+        writer.align (8);
+
+        final byte [] header = writer.toByteArray ();
+        final byte [] message = Arrays.copyOf (header, header.length + bodyWriter.getLength ());
+        System.arraycopy (bodyWriter.toByteArray (), 0, message, header.length, bodyWriter.getLength ());
+        return message;
+    }
+
+
+    /**
+     * Get the total length of a message from the fixed part of its header.
+     *
+     * @param header The first FIXED_HEADER_LENGTH bytes of the message
+     * @return The length of the whole message
+     * @throws IOException The header is invalid
+     */
+    static int getLength (final byte [] header) throws IOException
+    {
+        final DBusReader reader = new DBusReader (header, getByteOrder (header));
+        // Skip the byte order, type, flags and version
+        reader.readValue ("u");
+        final long bodyLength = ((Integer) reader.readValue ("u")).intValue () & 0xFFFFFFFFL;
+        reader.readValue ("u");
+        final long fieldsLength = ((Integer) reader.readValue ("u")).intValue () & 0xFFFFFFFFL;
+        // The header fields are followed by a padding to a multiple of 8
+        final long length = (FIXED_HEADER_LENGTH + fieldsLength + 7) / 8 * 8 + bodyLength;
+        if (length > MAX_MESSAGE_LENGTH)
+            throw new IOException ("The D-Bus message is too large: " + length + " bytes.");
+        return (int) length;
+    }
+
+
+    /**
+     * Decode a message from the wire format.
+     *
+     * @param data The bytes of the complete message
+     * @return The message
+     * @throws IOException The data is not a valid message
+     */
+    static DBusMessage decode (final byte [] data) throws IOException
+    {
+        try
+        {
+            final DBusReader reader = new DBusReader (data, getByteOrder (data));
+            reader.readValue ("y");
+            final int type = ((Byte) reader.readValue ("y")).intValue () & 0xFF;
+            final int flags = ((Byte) reader.readValue ("y")).intValue () & 0xFF;
+            reader.readValue ("y");
+            reader.readValue ("u");
+            final int serial = ((Integer) reader.readValue ("u")).intValue ();
+
+            String path = null;
+            String interfaceName = null;
+            String member = null;
+            String errorName = null;
+            int replySerial = 0;
+            String destination = null;
+            String sender = null;
+            String signature = "";
+            @SuppressWarnings("unchecked")
+            final List<Object []> fields = (List<Object []>) reader.readValue ("a(yv)");
+            for (final Object [] field: fields)
+            {
+                final Object value = ((DBusVariant) field[1]).getValue ();
+                switch (((Byte) field[0]).intValue ())
+                {
+                    case FIELD_PATH:
+                        path = (String) value;
+                        break;
+                    case FIELD_INTERFACE:
+                        interfaceName = (String) value;
+                        break;
+                    case FIELD_MEMBER:
+                        member = (String) value;
+                        break;
+                    case FIELD_ERROR_NAME:
+                        errorName = (String) value;
+                        break;
+                    case FIELD_REPLY_SERIAL:
+                        replySerial = ((Integer) value).intValue ();
+                        break;
+                    case FIELD_DESTINATION:
+                        destination = (String) value;
+                        break;
+                    case FIELD_SENDER:
+                        sender = (String) value;
+                        break;
+                    case FIELD_SIGNATURE:
+                        signature = (String) value;
+                        break;
+                    default:
+                        // Unknown fields must be ignored
+                        break;
+                }
+            }
+
+            reader.align (8);
+            final List<Object> body = reader.read (signature);
+            if (reader.getPosition () != data.length)
+                throw new IOException ("The D-Bus message body does not match its signature " + signature + ".");
+            return new DBusMessage (type, flags, serial, path, interfaceName, member, errorName, replySerial, destination, sender, signature, body);
+        }
+        catch (final RuntimeException ex)
+        {
+            throw new IOException ("Malformed D-Bus message.", ex);
+        }
+    }
+
+
+    private static ByteOrder getByteOrder (final byte [] data) throws IOException
+    {
+        switch (data[0])
+        {
+            case 'l':
+                return ByteOrder.LITTLE_ENDIAN;
+            case 'B':
+                return ByteOrder.BIG_ENDIAN;
+            default:
+                throw new IOException ("Unknown D-Bus byte order: " + data[0]);
+        }
+    }
+
+
+    private static void addField (final List<Object []> fields, final int code, final String signature, final Object value)
+    {
+        if (value != null)
+            fields.add (new Object []
+            {
+                Byte.valueOf ((byte) code),
+                new DBusVariant (signature, value)
+            });
+    }
+}
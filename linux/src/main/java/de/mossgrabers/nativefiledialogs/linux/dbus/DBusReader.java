@@ -0,0 +1,201 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Unmarshals values from the D-Bus wire format. The Java types of the values are: Byte, Short,
+ * Integer, Long and Double for the numeric types (unsigned values keep their bits), Boolean for
+ * 'b', String for 's', 'o' and 'g', DBusVariant for 'v', LinkedHashMap for dictionaries, byte []
+ * for 'ay', List for other arrays and Object [] for structures.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+final class DBusReader
+{
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructor.
+     *
+     * @param data The data, the alignment is relative to its start
+     * @param order The byte order of the data
+     */
+    DBusReader (final byte [] data, final ByteOrder order)
+    {
+        this.buffer = ByteBuffer.wrap (data).order (order);
+    }
+
+
+    /**
+     * Unmarshal values.
+     *
+     * @param signature The signature of the values
+     * @return The values, one per complete type of the signature
+     * @throws IOException The data does not match the signature
+     */
+    List<Object> read (final String signature) throws IOException
+    {
+        final List<Object> values = new ArrayList<> ();
+        for (final String type: DBusSignature.split (signature))
+            values.add (this.readValue (type));
+        return values;
+    }
+
+
+    /**
+     * Unmarshal a value.
+     *
+     * @param type The complete type of the value
+     * @return The value
+     * @throws IOException The data does not match the type
+     */
+    Object readValue (final String type) throws IOException
+    {
+        switch (type.charAt (0))
+        {
+            case 'y':
+                return Byte.valueOf (this.buffer.get ());
+
+            case 'b':
+                return Boolean.valueOf (this.readInt () != 0);
+
+            case 'n':
+            case 'q':
+                this.align (2);
+                return Short.valueOf (this.buffer.getShort ());
+
+            case 'i':
+            case 'u':
+            case 'h':
+                return Integer.valueOf (this.readInt ());
+
+            case 'x':
+            case 't':
+                this.align (8);
+                return Long.valueOf (this.buffer.getLong ());
+
+            case 'd':
+                this.align (8);
+                return Double.valueOf (this.buffer.getDouble ());
+
+            case 's':
+            case 'o':
+                return this.readText (this.readInt ());
+
+            case 'g':
+                return this.readText (this.buffer.get () & 0xFF);
+
+            case 'v':
+                final String signature = (String) this.readValue ("g");
+                if (DBusSignature.end (signature, 0) != signature.length ())
+                    throw new IOException ("The variant signature is not a single type: " + signature);
+                return new DBusVariant (signature, this.readValue (signature));
+
+            case 'a':
+                return this.readArray (type.substring (1));
+
+            case '(':
+                this.align (8);
+                final List<String> memberTypes = DBusSignature.split (type.substring (1, type.length () - 1));
+                final Object [] members = new Object [memberTypes.size ()];
+                for (int i = 0; i < members.length; i++)
+                    members[i] = this.readValue (memberTypes.get (i));
+                return members;
+
+            default:
+                throw new IOException ("Unsupported D-Bus type: " + type);
+        }
+    }
+
+
+    /**
+     * Get the current read position.
+     *
+     * @return The position
+     */
+    int getPosition ()
+    {
+        return this.buffer.position ();
+    }
+
+
+    /**
+     * Skip bytes until the position is a multiple of the alignment.
+     *
+     * @param alignment The alignment
+     */
+    void align (final int alignment)
+    {
+        final int position = this.buffer.position ();
+        final int remainder = position % alignment;
+        if (remainder != 0)
+            this.buffer.position (position + alignment - remainder);
+    }
+
+
+    private int readInt ()
+    {
+        this.align (4);
+        return this.buffer.getInt ();
+    }
+
+
+    private String readText (final int length) throws IOException
+    {
+        final int start = this.buffer.position ();
+        if (length < 0 || start + length >= this.buffer.limit ())
+            throw new IOException ("A D-Bus text exceeds the message.");
+        final String text = new String (this.buffer.array (), start, length, StandardCharsets.UTF_8);
+        // Skip the text and its terminating NUL
+        this.buffer.position (start + length + 1);
+        return text;
+    }
+
+
+    private Object readArray (final String elementType) throws IOException
+    {
+        final int length = this.readInt ();
+        this.align (DBusSignature.alignment (elementType.charAt (0)));
+        final int start = this.buffer.position ();
+        final int end = start + length;
+        if (length < 0 || end > this.buffer.limit ())
+            throw new IOException ("A D-Bus array exceeds the message.");
+
+        switch (elementType.charAt (0))
+        {
+            case 'y':
+                this.buffer.position (end);
+                return Arrays.copyOfRange (this.buffer.array (), start, end);
+
+            case '{':
+                final List<String> entryTypes = DBusSignature.split (elementType.substring (1, elementType.length () - 1));
+                final Map<Object, Object> entries = new LinkedHashMap<> ();
+                while (this.buffer.position () < end)
+                {
+                    this.align (8);
+                    final Object key = this.readValue (entryTypes.get (0));
+                    entries.put (key, this.readValue (entryTypes.get (1)));
+                }
+                return entries;
+
+            default:
+                final List<Object> elements = new ArrayList<> ();
+                while (this.buffer.position () < end)
+                    elements.add (this.readValue (elementType));
+                return elements;
+        }
+    }
+}
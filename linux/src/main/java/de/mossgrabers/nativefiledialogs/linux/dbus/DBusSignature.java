@@ -0,0 +1,110 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Helper functions for D-Bus type signatures.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+final class DBusSignature
+{
+    /**
+     * Constructor.
+     */
+    private DBusSignature ()
+    {
+        // Intentionally empty
+    }
+
+
+    /**
+     * Split a signature into its complete types, e.g. 'sa{sv}' into 's' and 'a{sv}'.
+     *
+     * @param signature The signature
+     * @return The complete types
+     */
+    static List<String> split (final String signature)
+    {
+        final List<String> types = new ArrayList<> ();
+        int start = 0;
+        while (start < signature.length ())
+        {
+            final int end = end (signature, start);
+            types.add (signature.substring (start, end));
+            start = end;
+        }
+        return types;
+    }
+
+
+    /**
+     * Get the end of the complete type which starts at an index of a signature.
+     *
+     * @param signature The signature
+     * @param start The index of the first character of the type
+     * @return The index after the last character of the type
+     */
+    static int end (final String signature, final int start)
+    {
+        if (start >= signature.length ())
+            throw new IllegalArgumentException ("Incomplete D-Bus signature: " + signature);
+
+        switch (signature.charAt (start))
+        {
+            case 'a':
+                return end (signature, start + 1);
+
+            case '(':
+            case '{':
+                final char close = signature.charAt (start) == '(' ? ')' : '}';
+                int index = start + 1;
+                while (index < signature.length () && signature.charAt (index) != close)
+                    index = end (signature, index);
+                if (index >= signature.length ())
+                    throw new IllegalArgumentException ("Incomplete D-Bus signature: " + signature);
+                return index + 1;
+
+            default:
+                return start + 1;
+        }
+    }
+
+
+    /**
+     * Get the alignment of the values of a type.
+     *
+     * @param type The first character of the type
+     * @return The alignment in bytes
+     */
+    static int alignment (final char type)
+    {
+        switch (type)
+        {
+            case 'y':
+            case 'g':
+            case 'v':
+                return 1;
+
+            case 'n':
+            case 'q':
+                return 2;
+
+            case 'x':
+            case 't':
+            case 'd':
+            case '(':
+            case '{':
+                return 8;
+
+            default:
+                return 4;
+        }
+    }
+}
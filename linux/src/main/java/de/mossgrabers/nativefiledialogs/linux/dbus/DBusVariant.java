@@ -0,0 +1,102 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * A D-Bus value together with its type signature, e.g. the values of an 'a{sv}' options
+ * dictionary.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public final class DBusVariant
+{
+    private final String signature;
+    private final Object value;
+
+    /**
+     * Constructor.
+     *
+     * @param signature The signature of the value, must be a single complete type, e.g. 's'
+     * @param value The value
+     */
+    public DBusVariant (final String signature, final Object value)
+    {
+        this.signature = Objects.requireNonNull (signature);
+        this.value = Objects.requireNonNull (value);
+    }
+
+
+    /**
+     * Get the signature of the value.
+     *
+     * @return The signature
+     */
+    public String getSignature ()
+    {
+        return this.signature;
+    }
+
+
+    /**
+     * Get the value.
+     *
+     * @return The value
+     */
+    public Object getValue ()
+    {
+        return this.value;
+    }
+
+
+    /**
+     * Get a value of a dictionary of variants, e.g. the options or results of a portal request.
+     *
+     * @param dictionary The dictionary
+     * @param key The key of the value
+     * @param signature The expected signature of the variant
+     * @return The value of the variant or null if there is no such value or it has a different
+     *         type
+     */
+    public static Object getValue (final Map<?, ?> dictionary, final String key, final String signature)
+    {
+        final Object value = dictionary.get (key);
+        if (value instanceof DBusVariant && ((DBusVariant) value).signature.equals (signature))
+            return ((DBusVariant) value).value;
+        return null;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals (final Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof DBusVariant))
+            return false;
+        final DBusVariant other = (DBusVariant) obj;
+        return this.signature.equals (other.signature) && this.value.equals (other.value);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode ()
+    {
+        return Objects.hash (this.signature, this.value);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString ()
+    {
+        return "<" + this.signature + "> " + this.value;
+    }
+}
@@ -0,0 +1,256 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Marshals values into the D-Bus wire format (little endian). The Java types of the values are:
+ * Number for the integer and double types, Boolean for 'b', String for 's', 'o' and 'g',
+ * DBusVariant for 'v', Map for dictionaries, byte [] or a collection for 'ay', a collection or an
+ * array for other arrays and an array or a list for structures.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+final class DBusWriter
+{
+    private byte [] data   = new byte [256];
+    private int     length = 0;
+
+    /**
+     * Marshal values.
+     *
+     * @param signature The signature of the values
+     * @param values The values, one per complete type of the signature
+     */
+    void write (final String signature, final List<?> values)
+    {
+        final List<String> types = DBusSignature.split (signature);
+        if (types.size () != values.size ())
+            throw new IllegalArgumentException ("The signature " + signature + " does not match the " + values.size () + " values.");
+        for (int i = 0; i < types.size (); i++)
+            this.writeValue (types.get (i), values.get (i));
+    }
+
+
+    /**
+     * Marshal a value.
+     *
+     * @param type The complete type of the value
+     * @param value The value
+     */
+    void writeValue (final String type, final Object value)
+    {
+        switch (type.charAt (0))
+        {
+            case 'y':
+                this.writeByte (((Number) value).byteValue ());
+                break;
+
+            case 'b':
+                this.writeInt (((Boolean) value).booleanValue () ? 1 : 0);
+                break;
+
+            case 'n':
+            case 'q':
+                this.align (2);
+                final int shortValue = ((Number) value).shortValue ();
+                this.writeByte (shortValue);
+                this.writeByte (shortValue >> 8);
+                break;
+
+            case 'i':
+            case 'u':
+            case 'h':
+                this.writeInt (((Number) value).intValue ());
+                break;
+
+            case 'x':
+            case 't':
+                this.writeLong (((Number) value).longValue ());
+                break;
+
+            case 'd':
+                this.writeLong (Double.doubleToLongBits (((Number) value).doubleValue ()));
+                break;
+
+            case 's':
+            case 'o':
+                final byte [] text = ((String) value).getBytes (StandardCharsets.UTF_8);
+                this.writeInt (text.length);
+                this.writeBytes (text);
+                this.writeByte (0);
+                break;
+
+            case 'g':
+                final byte [] signature = ((String) value).getBytes (StandardCharsets.UTF_8);
+                this.writeByte (signature.length);
+                this.writeBytes (signature);
+                this.writeByte (0);
+                break;
+
+            case 'v':
+                final DBusVariant variant = (DBusVariant) value;
+                this.writeValue ("g", variant.getSignature ());
+                this.writeValue (variant.getSignature (), variant.getValue ());
+                break;
+
+            case 'a':
+                this.writeArray (type.substring (1), value);
+                break;
+
+            case '(':
+                final List<String> memberTypes = DBusSignature.split (type.substring (1, type.length () - 1));
+                final List<?> members = value instanceof Object [] ? Arrays.asList ((Object []) value) : (List<?>) value;
+                if (memberTypes.size () != members.size ())
+                    throw new IllegalArgumentException ("The structure " + type + " does not match the " + members.size () + " values.");
+                this.align (8);
+                for (int i = 0; i < memberTypes.size (); i++)
+                    this.writeValue (memberTypes.get (i), members.get (i));
+                break;
+
+            default:
+                throw new IllegalArgumentException ("Unsupported D-Bus type: " + type);
+        }
+    }
+
+
+    /**
+     * Get the number of marshaled bytes.
+     *
+     * @return The number of bytes
+     */
+    int getLength ()
+    {
+        return this.length;
+    }
+
+
+    /**
+     * Get the marshaled bytes.
+     *
+     * @return The bytes
+     */
+    byte [] toByteArray ()
+    {
+        return Arrays.copyOf (this.data, this.length);
+    }
+
+
+    /**
+     * Add zero bytes until the length is a multiple of the alignment.
+     *
+     * @param alignment The alignment
+     */
+    void align (final int alignment)
+    {
+        while (this.length % alignment != 0)
+            this.writeByte (0);
+    }
+
+
+    /**
+     * Append a byte.
+     *
+     * @param value The value, only the lowest 8 bits are used
+     */
+    void writeByte (final int value)
+    {
+        this.ensureCapacity (1);
+        this.data[this.length++] = (byte) value;
+    }
+
+
+    /**
+     * Append an aligned 32 bit integer.
+     *
+     * @param value The value
+     */
+    void writeInt (final int value)
+    {
+        this.align (4);
+        this.setInt (this.length, value);
+    }
+
+
+    private void writeLong (final long value)
+    {
+        this.align (8);
+        this.writeInt ((int) value);
+        this.writeInt ((int) (value >>> 32));
+    }
+
+
+    private void writeBytes (final byte [] bytes)
+    {
+        this.ensureCapacity (bytes.length);
+        System.arraycopy (bytes, 0, this.data, this.length, bytes.length);
+        this.length += bytes.length;
+    }
+
+
+    /**
+     * Set a 32 bit integer at a position, the length is increased if necessary.
+     *
+     * @param position The position
+     * @param value The value
+     */
+    private void setInt (final int position, final int value)
+    {
+        if (position + 4 > this.length)
+        {
+            this.ensureCapacity (position + 4 - this.length);
+            this.length = position + 4;
+        }
+        this.data[position] = (byte) value;
+        this.data[position + 1] = (byte) (value >> 8);
+        this.data[position + 2] = (byte) (value >> 16);
+        this.data[position + 3] = (byte) (value >> 24);
+    }
+
+
+    private void writeArray (final String elementType, final Object value)
+    {
+        this.writeInt (0);
+        final int lengthPosition = this.length - 4;
+        // The padding to the first element does not count to the array length
+        this.align (DBusSignature.alignment (elementType.charAt (0)));
+        final int start = this.length;
+
+        if (elementType.charAt (0) == '{')
+        {
+            final List<String> entryTypes = DBusSignature.split (elementType.substring (1, elementType.length () - 1));
+            for (final Map.Entry<?, ?> entry: ((Map<?, ?>) value).entrySet ())
+            {
+                this.align (8);
+                this.writeValue (entryTypes.get (0), entry.getKey ());
+                this.writeValue (entryTypes.get (1), entry.getValue ());
+            }
+        }
+        else if (value instanceof byte [])
+            this.writeBytes ((byte []) value);
+        else
+        {
+            final Iterator<?> elements = value instanceof Object [] ? Arrays.asList ((Object []) value).iterator () : ((Collection<?>) value).iterator ();
+            while (elements.hasNext ())
+                this.writeValue (elementType, elements.next ());
+        }
+
+        this.setInt (lengthPosition, this.length - start);
+    }
+
+
+    private void ensureCapacity (final int additional)
+    {
+        if (this.length + additional > this.data.length)
+            this.data = Arrays.copyOf (this.data, Math.max (this.data.length * 2, this.length + additional));
+    }
+}
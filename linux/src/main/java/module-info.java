@@ -0,0 +1,21 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+/**
+ * The Linux dialogs. JNA is only required for the in-process GTK file chooser.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+module de.mossgrabers.nativefiledialogs.linux
+{
+    requires transitive de.mossgrabers.nativefiledialogs;
+    requires static com.sun.jna;
+
+    exports de.mossgrabers.nativefiledialogs.linux;
+    exports de.mossgrabers.nativefiledialogs.linux.dbus;
+
+    opens de.mossgrabers.nativefiledialogs.linux to com.sun.jna;
+
+    provides de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider with de.mossgrabers.nativefiledialogs.linux.LinuxFileDialogsProvider;
+}
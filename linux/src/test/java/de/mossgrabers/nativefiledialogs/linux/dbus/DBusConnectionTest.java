@@ -0,0 +1,42 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Tests the decoding of the bus addresses.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class DBusConnectionTest
+{
+    @Test
+    void unescapesAddressValues ()
+    {
+        assertEquals ("/run/user/1000/bus", DBusConnection.unescape ("/run/user/1000/bus"));
+        assertEquals ("/tmp/dbus-test", DBusConnection.unescape ("%2ftmp%2Fdbus%2Dtest"));
+        assertEquals ("/tmp/ü", DBusConnection.unescape ("/tmp/%C3%BC"));
+    }
+
+
+    @Test
+    void unescapesAtEndOfValue ()
+    {
+        assertEquals ("bus=", DBusConnection.unescape ("bus%3D"));
+        assertEquals ("%", DBusConnection.unescape ("%25"));
+    }
+
+
+    @Test
+    void keepsIncompleteEscape ()
+    {
+        assertEquals ("bus%3", DBusConnection.unescape ("bus%3"));
+        assertEquals ("bus%", DBusConnection.unescape ("bus%"));
+    }
+}
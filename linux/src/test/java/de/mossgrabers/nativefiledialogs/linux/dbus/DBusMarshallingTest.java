@@ -0,0 +1,268 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.linux.dbus;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Tests that values and messages, which are marshaled by the writer, are unmarshaled unchanged by
+ * the reader and that the wire format follows the alignment rules of the specification.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+class DBusMarshallingTest
+{
+    @Test
+    void alignsValues () throws IOException
+    {
+        assertArrayEquals (bytes (1, 0, 0, 0, 2, 0, 0, 0), write ("yu", Byte.valueOf ((byte) 1), Integer.valueOf (2)));
+        assertArrayEquals (bytes (1, 0, 2, 0), write ("yq", Byte.valueOf ((byte) 1), Short.valueOf ((short) 2)));
+        assertArrayEquals (bytes (1, 0, 0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0), write ("yt", Byte.valueOf ((byte) 1), Long.valueOf (2)));
+        // Structures start at a multiple of 8
+        assertArrayEquals (bytes (1, 0, 0, 0, 0, 0, 0, 0, 2), write ("y(y)", Byte.valueOf ((byte) 1), List.of (Byte.valueOf ((byte) 2))));
+
+        assertRoundTrip ("yuyqyxydyb", Byte.valueOf ((byte) 1), Integer.valueOf (-2), Byte.valueOf ((byte) 3), Short.valueOf ((short) -4), Byte.valueOf ((byte) 5), Long.valueOf (Long.MIN_VALUE), Byte.valueOf ((byte) 7), Double.valueOf (0.5), Byte.valueOf ((byte) 9), Boolean.TRUE);
+    }
+
+
+    @Test
+    void excludesPaddingFromArrayLength () throws IOException
+    {
+        // The length is followed by the padding to the first element, even if there is none
+        assertArrayEquals (bytes (8, 0, 0, 0, 0, 0, 0, 0, 5, 0, 0, 0, 0, 0, 0, 0), write ("at", List.of (Long.valueOf (5))));
+        assertArrayEquals (bytes (0, 0, 0, 0, 0, 0, 0, 0), write ("at", List.of ()));
+
+        assertRoundTrip ("yat", Byte.valueOf ((byte) 1), List.of (Long.valueOf (5), Long.valueOf (6)));
+        assertRoundTrip ("yat", Byte.valueOf ((byte) 1), List.of ());
+    }
+
+
+    @Test
+    void terminatesTexts () throws IOException
+    {
+        // The length of strings does not contain the terminating NUL
+        assertArrayEquals (bytes (2, 0, 0, 0, 'a', 'b', 0), write ("s", "ab"));
+        // Signatures have a one byte length
+        assertArrayEquals (bytes (5, 'a', '{', 's', 'v', '}', 0), write ("g", "a{sv}"));
+
+        assertRoundTrip ("sogs", "Hällo", "/org/freedesktop/portal/desktop", "a(sa(us))", "");
+    }
+
+
+    @Test
+    void keepsNulOfByteArray () throws IOException
+    {
+        // A byte array is not terminated, the NUL of a path is part of the array
+        final byte [] path = nulTerminated ("/tmp/ü");
+        final byte [] data = write ("ay", path);
+        assertEquals (path.length, data[0]);
+        assertEquals (4 + path.length, data.length);
+        assertEquals (0, data[data.length - 1]);
+
+        final Object value = read ("ay", data).get (0);
+        assertArrayEquals (path, (byte []) value);
+    }
+
+
+    @Test
+    void nestsVariants () throws IOException
+    {
+        // The signature of the variant is followed by the padding of its value
+        assertArrayEquals (bytes (1, 'u', 0, 0, 7, 0, 0, 0), write ("v", new DBusVariant ("u", Integer.valueOf (7))));
+
+        assertRoundTrip ("yvv", Byte.valueOf ((byte) 1), new DBusVariant ("t", Long.valueOf (2)), new DBusVariant ("v", new DBusVariant ("as", List.of ("a", "b"))));
+
+        // A variant must contain exactly one complete type
+        assertThrows (IOException.class, () -> read ("v", write ("g", "ss")));
+    }
+
+
+    @Test
+    void encodesPortalFilters () throws IOException
+    {
+        final List<Object> filters = List.of (List.of ("Audio", List.of (List.of (Integer.valueOf (0), "*.wav"), List.of (Integer.valueOf (0), "*.aif"))), List.of ("All files", List.of (List.of (Integer.valueOf (0), "*"))));
+        assertRoundTrip ("ya(sa(us))", Byte.valueOf ((byte) 1), filters);
+        assertRoundTrip ("a(sa(us))", List.of ());
+    }
+
+
+    @Test
+    void keepsOrderOfDictionary () throws IOException
+    {
+        final Map<String, Object> options = createOptions ();
+        assertRoundTrip ("ya{sv}", Byte.valueOf ((byte) 1), options);
+
+        @SuppressWarnings("unchecked")
+        final Map<Object, Object> decoded = (Map<Object, Object>) read ("a{sv}", write ("a{sv}", options)).get (0);
+        assertEquals (new ArrayList<> (options.keySet ()), new ArrayList<> (decoded.keySet ()));
+    }
+
+
+    @Test
+    void rejectsTextsExceedingData ()
+    {
+        assertThrows (IOException.class, () -> read ("s", bytes (10, 0, 0, 0, 'a', 0)));
+        assertThrows (IOException.class, () -> read ("ay", bytes (10, 0, 0, 0, 'a', 0)));
+    }
+
+
+    @Test
+    void readsBigEndian () throws IOException
+    {
+        final List<Object> values = new DBusReader (bytes (0, 0, 0, 5, 0, 0, 0, 2, 'a', 'b', 0), ByteOrder.BIG_ENDIAN).read ("us");
+        assertEquals (List.of (Integer.valueOf (5), "ab"), values);
+    }
+
+
+    @Test
+    void encodesAndDecodesMessages () throws IOException
+    {
+        final DBusMessage call = DBusMessage.methodCall ("org.freedesktop.portal.Desktop", "/org/freedesktop/portal/desktop", "org.freedesktop.portal.FileChooser", "OpenFile", "ssa{sv}", "", "Open", createOptions ());
+        final byte [] data = call.encode (42);
+        assertEquals (data.length, DBusMessage.getLength (Arrays.copyOf (data, DBusMessage.FIXED_HEADER_LENGTH)));
+
+        final DBusMessage decoded = DBusMessage.decode (data);
+        assertEquals (DBusMessage.METHOD_CALL, decoded.getType ());
+        assertEquals (42, decoded.getSerial ());
+        assertEquals ("org.freedesktop.portal.Desktop", decoded.getDestination ());
+        assertEquals ("/org/freedesktop/portal/desktop", decoded.getPath ());
+        assertEquals ("org.freedesktop.portal.FileChooser", decoded.getInterface ());
+        assertEquals ("OpenFile", decoded.getMember ());
+        assertEquals ("ssa{sv}", decoded.getSignature ());
+        assertEquals (normalize (call.getBody ()), normalize (decoded.getBody ()));
+        assertFalse (decoded.isNoReplyExpected ());
+        assertTrue (DBusMessage.decode (call.withNoReplyExpected ().encode (43)).isNoReplyExpected ());
+
+        final DBusMessage error = DBusMessage.decode (DBusMessage.error (decoded, "org.freedesktop.DBus.Error.Failed", "Broken").encode (7));
+        assertEquals (DBusMessage.ERROR, error.getType ());
+        assertEquals (42, error.getReplySerial ());
+        assertEquals ("org.freedesktop.DBus.Error.Failed", error.getErrorName ());
+        assertEquals (List.of ("Broken"), error.getBody ());
+
+        final DBusMessage reply = DBusMessage.decode (DBusMessage.methodReturn (decoded, "").encode (8));
+        assertEquals (DBusMessage.METHOD_RETURN, reply.getType ());
+        assertEquals ("", reply.getSignature ());
+        assertTrue (reply.getBody ().isEmpty ());
+    }
+
+
+    @Test
+    void rejectsMalformedMessages ()
+    {
+        final byte [] data = DBusMessage.signal (null, "/test", "org.test.Signals", "Changed", "u", Integer.valueOf (1)).encode (1);
+        assertThrows (IOException.class, () -> DBusMessage.decode (Arrays.copyOf (data, data.length + 8)));
+        assertThrows (IOException.class, () -> DBusMessage.decode (Arrays.copyOf (data, data.length - 2)));
+
+        final byte [] unknownOrder = data.clone ();
+        unknownOrder[0] = 'x';
+        assertThrows (IOException.class, () -> DBusMessage.decode (unknownOrder));
+    }
+
+
+    private static Map<String, Object> createOptions ()
+    {
+        final Map<String, Object> options = new LinkedHashMap<> ();
+        options.put ("modal", new DBusVariant ("b", Boolean.TRUE));
+        options.put ("multiple", new DBusVariant ("b", Boolean.FALSE));
+        options.put ("filters", new DBusVariant ("a(sa(us))", List.of (List.of ("Audio", List.of (List.of (Integer.valueOf (0), "*.wav"))))));
+        options.put ("current_folder", new DBusVariant ("ay", nulTerminated ("/tmp")));
+        return options;
+    }
+
+
+    private static void assertRoundTrip (final String signature, final Object... values) throws IOException
+    {
+        final byte [] data = write (signature, values);
+        final DBusReader reader = new DBusReader (data, ByteOrder.LITTLE_ENDIAN);
+        assertEquals (normalize (Arrays.asList (values)), normalize (reader.read (signature)), signature);
+        assertEquals (data.length, reader.getPosition (), signature);
+    }
+
+
+    private static byte [] write (final String signature, final Object... values)
+    {
+        final DBusWriter writer = new DBusWriter ();
+        writer.write (signature, Arrays.asList (values));
+        return writer.toByteArray ();
+    }
+
+
+    private static List<Object> read (final String signature, final byte [] data) throws IOException
+    {
+        return new DBusReader (data, ByteOrder.LITTLE_ENDIAN).read (signature);
+    }
+
+
+    /**
+     * Convert the structures and byte arrays of a value into lists, so that they can be compared.
+     *
+     * @param value The value
+     * @return The comparable value
+     */
+    private static Object normalize (final Object value)
+    {
+        if (value instanceof byte [])
+        {
+            final List<Object> bytes = new ArrayList<> ();
+            for (final byte b: (byte []) value)
+                bytes.add (Byte.valueOf (b));
+            return bytes;
+        }
+        if (value instanceof Object [])
+            return normalize (Arrays.asList ((Object []) value));
+        if (value instanceof List)
+        {
+            final List<Object> elements = new ArrayList<> ();
+            for (final Object element: (List<?>) value)
+                elements.add (normalize (element));
+            return elements;
+        }
+        if (value instanceof Map)
+        {
+            final Map<Object, Object> entries = new LinkedHashMap<> ();
+            for (final Map.Entry<?, ?> entry: ((Map<?, ?>) value).entrySet ())
+                entries.put (entry.getKey (), normalize (entry.getValue ()));
+            return entries;
+        }
+        if (value instanceof DBusVariant)
+        {
+            final DBusVariant variant = (DBusVariant) value;
+            return new DBusVariant (variant.getSignature (), normalize (variant.getValue ()));
+        }
+        return value;
+    }
+
+
+    private static byte [] nulTerminated (final String text)
+    {
+        final byte [] bytes = text.getBytes (StandardCharsets.UTF_8);
+        return Arrays.copyOf (bytes, bytes.length + 1);
+    }
+
+
+    private static byte [] bytes (final int... values)
+    {
+        final byte [] bytes = new byte [values.length];
+        for (int i = 0; i < values.length; i++)
+            bytes[i] = (byte) values[i];
+        return bytes;
+    }
+}
@@ -0,0 +1,43 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.macos;
+
+import de.mossgrabers.nativefiledialogs.NativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider;
+import de.mossgrabers.nativefiledialogs.OperatingSystem;
+
+import java.io.File;
+
+
+/**
+ * Provides the macOS dialogs, which are displayed with osascript.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class MacosFileDialogsProvider implements NativeFileDialogsProvider
+{
+    /** {@inheritDoc} */
+    @Override
+    public boolean isSupported ()
+    {
+        return OperatingSystem.get () == OperatingSystem.MAC;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAvailable ()
+    {
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public NativeFileDialogs create (final File currentDirectory)
+    {
+        return new NativeMacosFileDialogs (currentDirectory);
+    }
+}
@@ -0,0 +1,279 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.macos;
+
+import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
+import de.mossgrabers.nativefiledialogs.ExecutableResolver;
+import de.mossgrabers.nativefiledialogs.FilterMatcher;
+import de.mossgrabers.nativefiledialogs.FilterSet;
+import de.mossgrabers.nativefiledialogs.ProcessResult;
+import de.mossgrabers.nativefiledialogs.ProcessRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * The Macos implementation for the file dialogs. Triggers file dialogs via Applescript.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class NativeMacosFileDialogs extends AbstractNativeFileDialogs
+{
+    private static final String                      FOLDER_START   = "tell application \"Finder\"\nActivate\ntry\nPOSIX path of ( choose folder ";
+    private static final String                      OPEN_START     = "tell application \"Finder\"\nActivate\ntry\nPOSIX path of ( choose file ";
+    private static final String                      SAVE_START     = "tell application \"Finder\"\nActivate\ntry\nPOSIX path of ( choose file name ";
+    private static final String                      END            = ")\non error number -128\nend try\nend tell";
+    private static final String                      MULTI_START    = "tell application \"Finder\"\nActivate\ntry\nset selectedFiles to ( choose file ";
+    private static final String                      MULTI_END      = "with multiple selections allowed )\nset output to \"\"\nrepeat with selectedFile in selectedFiles\nset output to output & POSIX path of selectedFile & (character id 31)\nend repeat\noutput\non error number -128\nend try\nend tell";
+
+    /** Separates several selected files, the ASCII unit separator is not used in filenames. */
+    private static final int                         SEPARATOR      = 0x1F;
+
+    private static final Function<FilterSet, String> FILTER_ENCODER = NativeMacosFileDialogs::encodeFilters;
+
+    /**
+     * Creates a new file dialog instance with the initial directory.
+     *
+     * @param currentDirectory The initial directory, may be null
+     */
+    public NativeMacosFileDialogs (final File currentDirectory)
+    {
+        super (currentDirectory);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        if (request.getKind () == DialogKind.OPEN_FILES)
+        {
+            try (final Stream<Path> paths = this.showStreamingDialog (request, directory))
+            {
+                return paths.map (Path::toFile).collect (Collectors.toList ());
+            }
+            catch (final UncheckedIOException ex)
+            {
+                throw ex.getCause ();
+            }
+        }
+
+        final List<File> files = new ArrayList<> (1);
+        final String filename = runApplescript (createCommand (request, directory));
+        if (!filename.isEmpty ())
+            files.add (new File (filename));
+        return files;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected Stream<Path> showStreamingDialog (final DialogRequest request, final File directory) throws IOException
+    {
+        return ProcessRunner.stream (new String []
+        {
+            "osascript",
+            "-e",
+            createMultipleCommand (request, directory)
+        }, SEPARATOR, NativeMacosFileDialogs::checkResult).map (Paths::get);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void warmUpPlatform () throws IOException
+    {
+        if (ExecutableResolver.find ("osascript") == null)
+            throw new IOException ("osascript was not found.");
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void prepareDialog (final DialogRequest request, final File directory)
+    {
+        if (request.getKind () == DialogKind.OPEN_FILES)
+            createMultipleCommand (request, directory);
+        else
+            createCommand (request, directory);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected void startToolkit () throws IOException
+    {
+        // Loads the scripting components without displaying anything
+        runApplescript ("return");
+    }
+
+
+    /**
+     * Create the script of a dialog for selecting one file or folder.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The script
+     */
+    private static String createCommand (final DialogRequest request, final File directory)
+    {
+        final String title = request.getTitle ();
+        final StringBuilder applescriptCommand;
+        switch (request.getKind ())
+        {
+            case SAVE_FILE:
+                // 'choose file name' has no type filter, a name which does not match is rejected
+                // after the selection
+                applescriptCommand = new StringBuilder (SAVE_START);
+                addTitleAndDirectory (applescriptCommand, title, directory, true);
+                break;
+
+            case SELECT_FOLDER:
+                applescriptCommand = new StringBuilder (FOLDER_START);
+                addTitleAndDirectory (applescriptCommand, title, directory, false);
+                break;
+
+            default:
+                applescriptCommand = new StringBuilder (OPEN_START);
+                addTitleAndDirectory (applescriptCommand, title, directory, false);
+                applescriptCommand.append (request.getFilterSet ().getEncoding (FILTER_ENCODER));
+                break;
+        }
+        return applescriptCommand.append (END).toString ();
+    }
+
+
+    /**
+     * Create the script of a dialog for selecting several files.
+     *
+     * @param request The parameters of the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @return The script
+     */
+    private static String createMultipleCommand (final DialogRequest request, final File directory)
+    {
+        final StringBuilder applescriptCommand = new StringBuilder (MULTI_START);
+        addTitleAndDirectory (applescriptCommand, request.getTitle (), directory, false);
+        applescriptCommand.append (request.getFilterSet ().getEncoding (FILTER_ENCODER));
+        return applescriptCommand.append (MULTI_END).toString ();
+    }
+
+
+    /**
+     * Add the title and current directory to the script. The default location must be a folder,
+     * if a file is given its folder is used.
+     *
+     * @param applescriptCommand The apple script
+     * @param title The title
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
+     * @param addFilename True to add the name as pre-selection
+     */
+    static void addTitleAndDirectory (final StringBuilder applescriptCommand, final String title, final File directory, final boolean addFilename)
+    {
+        if (title != null && !title.isEmpty ())
+            applescriptCommand.append (String.format ("with prompt \"%s\" ", title));
+
+        if (directory == null || !directory.exists ())
+            return;
+        final File dir = directory.isDirectory () ? directory : directory.getParentFile ();
+        applescriptCommand.append (String.format ("default location \"%s\" ", dir.getAbsolutePath ()));
+
+        if (addFilename && directory.isFile ())
+            applescriptCommand.append (String.format ("default name \"%s\" ", directory.getName ()));
+    }
+
+
+    /**
+     * Create the file type filter of the script. The types are the extensions of all filters,
+     * AppleScript only compares the last part of multi-dot extensions (e.g. 'gz' of 'tar.gz'),
+     * the whole extension is checked after the selection. Returns an empty filter if a filter
+     * matches all files.
+     *
+     * @param filters The filters
+     * @return The filter part of the script
+     */
+    private static String encodeFilters (final FilterSet filters)
+    {
+        if (FilterMatcher.of (filters).matchesAll ())
+            return "";
+
+        final Set<String> types = new LinkedHashSet<> ();
+        for (int i = 0; i < filters.size (); i++)
+        {
+            for (final String extension: filters.get (i).getExtensionList ())
+            {
+                final String type = extension.substring (extension.lastIndexOf ('.') + 1).trim ();
+                if (!type.isEmpty () && !"*".equals (type))
+                    types.add (type);
+            }
+        }
+
+        final StringBuilder applescriptCommand = new StringBuilder ("of type {");
+        boolean isFirst = true;
+        for (final String type: types)
+        {
+            if (!isFirst)
+                applescriptCommand.append (',');
+            isFirst = false;
+            applescriptCommand.append ('"').append (type.replace ("\\", "\\\\").replace ("\"", "\\\"")).append ('"');
+        }
+        return applescriptCommand.append ("} ").toString ();
+    }
+
+
+    /**
+     * Run an apple script command und returns the result.
+     *
+     * @param command The Apple script command to execute
+     * @return THe result
+     * @throws IOException Could not execute the command
+     */
+    private static String runApplescript (final String command) throws IOException
+    {
+        final ProcessResult processResult = executeProcess (new String []
+        {
+            "osascript",
+            "-e",
+            command
+        });
+
+        final String error = processResult.getError ();
+        if (!error.isEmpty ())
+            throw new IOException (error);
+
+        return processResult.getResult ();
+    }
+
+
+    /**
+     * Check the result of a script, whose output was streamed. A canceled dialog (error -128) is
+     * handled by the script and exits normally.
+     *
+     * @param processResult The exit code and the error output of osascript
+     * @throws IOException The script failed
+     */
+    private static void checkResult (final ProcessResult processResult) throws IOException
+    {
+        final String error = processResult.getError ();
+        if (processResult.getExitCode () != 0 && !error.isEmpty ())
+            throw new IOException (error);
+    }
+}
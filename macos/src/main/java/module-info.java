@@ -0,0 +1,17 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+/**
+ * The macOS dialogs.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+module de.mossgrabers.nativefiledialogs.macos
+{
+    requires transitive de.mossgrabers.nativefiledialogs;
+
+    exports de.mossgrabers.nativefiledialogs.macos;
+
+    provides de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider with de.mossgrabers.nativefiledialogs.macos.MacosFileDialogsProvider;
+}
@@ -1,2 +1,2 @@
 export JAVA_HOME=/home/$USER/java/jdk-21.0.4+7
-mvn clean install
\ No newline at end of file
+mvn clean install -Pappcds
\ No newline at end of file
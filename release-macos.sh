@@ -1,2 +1,2 @@
 export JAVA_HOME=/Library/Java/JavaVirtualMachines/temurin-21.jdk/Contents/Home
-mvn clean install
\ No newline at end of file
+mvn clean install -Pappcds
\ No newline at end of file
@@ -10,6 +10,7 @@ import com.sun.jna.Structure;
 import com.sun.jna.WString;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -474,6 +475,35 @@ public class Comdlg32
         }
 
 
+        /**
+         * Get the selected files of a dialog which allows several selections. If several files
+         * are selected the buffer contains the directory followed by the file names, each
+         * terminated by a NULL character and the last one by two.
+         *
+         * @return The files, empty if none
+         */
+        public List<File> getSelectedFiles ()
+        {
+            final List<File> files = new ArrayList<> ();
+            if (this.lpstrFile == null)
+                return files;
+
+            final String first = this.lpstrFile.getWideString (0);
+            long offset = (first.length () + 1L) * Native.WCHAR_SIZE;
+            String name;
+            while (!(name = this.lpstrFile.getWideString (offset)).isEmpty ())
+            {
+                files.add (new File (first, name));
+                offset += (name.length () + 1L) * Native.WCHAR_SIZE;
+            }
+
+            // Only one file selected
+            if (files.isEmpty () && !first.isEmpty ())
+                files.add (new File (first));
+            return files;
+        }
+
+
         /** {@inheritDoc} */
         @Override
         protected List<String> getFieldOrder ()
@@ -481,4 +511,4 @@ public class Comdlg32
             return Arrays.asList ("lStructSize", "hwndOwner", "hInstance", "lpstrFilter", "lpstrCustomFilter", "nMaxCustFilter", "nFilterIndex", "lpstrFile", "nMaxFile", "lpstrFileTitle", "nMaxFileTitle", "lpstrInitialDir", "lpstrTitle", "Flags", "nFileOffset", "nFileExtension", "lpstrDefExt", "lCustData", "lpfnHook", "lpTemplateName");
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
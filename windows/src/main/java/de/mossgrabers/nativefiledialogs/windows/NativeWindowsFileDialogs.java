@@ -5,7 +5,10 @@
 package de.mossgrabers.nativefiledialogs.windows;
 
 import de.mossgrabers.nativefiledialogs.AbstractNativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.DialogKind;
+import de.mossgrabers.nativefiledialogs.DialogRequest;
 import de.mossgrabers.nativefiledialogs.FileFilter;
+import de.mossgrabers.nativefiledialogs.FilterSet;
 import de.mossgrabers.nativefiledialogs.windows.Shell32.BrowseInfoCallback;
 
 import com.sun.jna.Memory;
@@ -20,6 +23,10 @@ import com.sun.jna.platform.win32.WinDef.WPARAM;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 
 /**
@@ -29,9 +36,15 @@ import java.io.IOException;
  */
 public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
 {
-    private static final int MAX_PATH_LENGTH = 4000;
+    private static final int                          MAX_PATH_LENGTH        = 4000;
+    /** Number of characters for the file name buffer of single selections (MAX_PATH). */
+    private static final int                          SINGLE_BUFFER_LENGTH   = 260;
+    /** Number of characters for the file name buffer of multiple selections. */
+    private static final int                          MULTIPLE_BUFFER_LENGTH = 64 * 1024;
 
-    private final String     parentWindowClassName;
+    private static final Function<FilterSet, WString> FILTER_ENCODER         = filters -> new WString (buildFilterString (filters.getFilters ()));
+
+    private final String                              parentWindowClassName;
 
     /**
      * Creates a new file dialog instance with the initial directory.
@@ -48,29 +61,81 @@ public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
 
     /** {@inheritDoc} */
     @Override
-    public File selectFile (final String title, final FileFilter... filters) throws IOException
+    protected List<File> showDialog (final DialogRequest request, final File directory) throws IOException
     {
-        return this.showDialog (true, title, filters);
+        switch (request.getKind ())
+        {
+            case OPEN_FILES:
+                return this.selectFiles (request.getTitle (), directory, request.getFilterSet ());
+
+            case SELECT_FOLDER:
+                return toList (this.selectFolder (request.getTitle (), directory));
+
+            default:
+                return toList (this.showFileDialog (request.getKind () == DialogKind.OPEN_FILE, request.getTitle (), directory, request.getFilterSet ()));
+        }
+    }
+
+
+    /**
+     * Dialogs of the same parent window are displayed one after the other.
+     */
+    @Override
+    protected Object getOwner (final DialogRequest request)
+    {
+        return this.parentWindowClassName == null ? super.getOwner (request) : this.parentWindowClassName;
+    }
+
+
+    private List<File> selectFiles (final String title, final File directory, final FilterSet filters) throws IOException
+    {
+        final Comdlg32.OpenFileName params = this.configureParameters (title, directory, filters, MULTIPLE_BUFFER_LENGTH);
+        params.Flags |= Comdlg32.OFN_ALLOWMULTISELECT;
+        if (Comdlg32.GetOpenFileNameW (params))
+            return params.getSelectedFiles ();
+
+        checkError ();
+        return new ArrayList<> ();
     }
 
 
     /** {@inheritDoc} */
     @Override
-    public File selectNewFile (final String title, final FileFilter... filters) throws IOException
+    protected void warmUpPlatform () throws IOException
     {
-        return this.showDialog (false, title, filters);
+        // Loads the native libraries and registers the functions
+        try
+        {
+            MethodHandles.lookup ().ensureInitialized (Comdlg32.class);
+            MethodHandles.lookup ().ensureInitialized (Shell32.class);
+        }
+        catch (final IllegalAccessException ex)
+        {
+            throw new IOException (ex);
+        }
+        this.getParentWindow ();
     }
 
 
     /** {@inheritDoc} */
     @Override
-    public File selectFolder (final String title)
+    protected void prepareDialog (final DialogRequest request, final File directory)
+    {
+        // Computes the layout of the structures
+        if (request.getKind () == DialogKind.SELECT_FOLDER)
+            new Shell32.BrowseInfo ();
+        else
+            this.configureParameters (request.getTitle (), directory, request.getFilterSet (), SINGLE_BUFFER_LENGTH);
+    }
+
+
+    private File selectFolder (final String title, final File directory)
     {
         // Listens for callback events from changes within the Folder Chooser
         final BrowseInfoCallback proc = (wnd, msg, param, lpData) -> {
-            if (msg == Shell32.BFFM_INITIALIZED && this.currentDirectory != null)
+            if (msg == Shell32.BFFM_INITIALIZED && directory != null)
             {
-                final File dir = this.currentDirectory.isDirectory () ? this.currentDirectory : this.currentDirectory.getParentFile ();
+                final File dir = directory.isDirectory () ? directory : directory.getParentFile ();
                 final String path = dir.getAbsolutePath ();
                 final Pointer m = new Memory (Native.WCHAR_SIZE * (long) (path.length () + 1));
                 m.setWideString (0, path);
@@ -96,7 +161,6 @@ public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
         Shell32.SHGetPathFromIDListW (pidl, path);
         final File file = new File (path.getWideString (0));
         Ole32.INSTANCE.CoTaskMemFree (pidl);
-        this.currentDirectory = file;
         return file;
     }
 
@@ -106,28 +170,42 @@ public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
      *
      * @param open Whether to show the open dialog, if false save dialog is shown
      * @param title The title for the dialog
+     * @param directory The directory in which the dialog starts, might be a file for
+     *            pre-selection, may be null
      * @param filters Display only the files matching the given filters
      * @return The selected directory or null if the dialog was canceled
      * @throws IOException Could not create the dialog
      */
-    private File showDialog (final boolean open, final String title, final FileFilter [] filters) throws IOException
+    private File showFileDialog (final boolean open, final String title, final File directory, final FilterSet filters) throws IOException
     {
-        final Comdlg32.OpenFileName params = this.configureParameters (title, filters);
+        final Comdlg32.OpenFileName params = this.configureParameters (title, directory, filters, SINGLE_BUFFER_LENGTH);
         if (open ? Comdlg32.GetOpenFileNameW (params) : Comdlg32.GetSaveFileNameW (params))
-        {
-            this.currentDirectory = params.getSelectedFile ();
-            return this.currentDirectory;
-        }
+            return params.getSelectedFile ();
+
+        checkError ();
+        return null;
+    }
+
 
+    private static void checkError () throws IOException
+    {
         final int errCode = Comdlg32.CommDlgExtendedError ();
         // If the code is 0 the dialog was canceled
         if (errCode != 0)
             throw new IOException ("GetOpenFileName failed with error " + errCode);
-        return null;
     }
 
 
-    private Comdlg32.OpenFileName configureParameters (final String title, final FileFilter [] filters)
+    private static List<File> toList (final File file)
+    {
+        final List<File> files = new ArrayList<> (1);
+        if (file != null)
+            files.add (file);
+        return files;
+    }
+
+
+    private Comdlg32.OpenFileName configureParameters (final String title, final File directory, final FilterSet filters, final int bufferLength)
     {
         final Comdlg32.OpenFileName params = new Comdlg32.OpenFileName ();
         params.Flags = Comdlg32.OFN_EXPLORER | Comdlg32.OFN_NOCHANGEDIR | Comdlg32.OFN_HIDEREADONLY | Comdlg32.OFN_ENABLESIZING;
@@ -140,7 +218,6 @@ public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
         // the path to fit or GetOpenFileName returns an error (FNERR_BUFFERTOOSMALL). MAX_PATH is
         // 260 so 4*260+1 bytes should be big enough (I hope...)
         // http://msdn.microsoft.com/en-us/library/aa365247.aspx#maxpath
-        final int bufferLength = 260;
         // 4 bytes per char + 1 null byte
         final int bufferSize = 4 * bufferLength + 1;
         params.lpstrFile = new Memory (bufferSize);
@@ -154,16 +231,16 @@ public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
         // size plus one for the terminating null byte.
         params.nMaxFile = bufferLength;
 
-        if (this.currentDirectory != null)
+        if (directory != null)
         {
-            params.lpstrInitialDir = this.currentDirectory.getAbsolutePath ();
-            if (this.currentDirectory.isFile ())
-                params.lpstrFile.setWideString (0, this.currentDirectory.getAbsolutePath ());
+            params.lpstrInitialDir = directory.getAbsolutePath ();
+            if (directory.isFile ())
+                params.lpstrFile.setWideString (0, directory.getAbsolutePath ());
         }
 
-        if (filters != null && filters.length > 0)
+        if (!filters.isEmpty ())
         {
-            params.lpstrFilter = new WString (buildFilterString (filters));
+            params.lpstrFilter = filters.getEncoding (FILTER_ENCODER);
             // Select the first filter
             params.nFilterIndex = 1;
         }
@@ -178,18 +255,18 @@ public class NativeWindowsFileDialogs extends AbstractNativeFileDialogs
      * @param filters The filters to add
      * @return The created filter string
      */
-    private static String buildFilterString (final FileFilter [] filters)
+    static String buildFilterString (final FileFilter [] filters)
     {
         final StringBuilder filterStr = new StringBuilder ();
         for (final FileFilter spec: filters)
         {
             final StringBuilder exts = new StringBuilder ();
-            final String [] extensions = spec.getExtensions ();
-            for (int i = 0; i < extensions.length; i++)
+            final List<String> extensions = spec.getExtensionList ();
+            for (int i = 0; i < extensions.size (); i++)
             {
                 if (i > 0)
                     exts.append (';');
-                exts.append ("*.").append (extensions[i]);
+                exts.append ("*.").append (extensions.get (i));
             }
             filterStr.append (spec.getLabel ()).append (" (").append (exts).append (")\0");
             filterStr.append (exts).append ('\0');
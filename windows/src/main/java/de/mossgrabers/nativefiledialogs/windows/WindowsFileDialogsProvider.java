@@ -0,0 +1,46 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+package de.mossgrabers.nativefiledialogs.windows;
+
+import de.mossgrabers.nativefiledialogs.NativeFileDialogs;
+import de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider;
+import de.mossgrabers.nativefiledialogs.OperatingSystem;
+
+import java.io.File;
+
+
+/**
+ * Provides the Windows common dialogs, which are called with JNA.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+public class WindowsFileDialogsProvider implements NativeFileDialogsProvider
+{
+    private static final String PARENT_WINDOW_CLASS_NAME = "bitwig";
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isSupported ()
+    {
+        return OperatingSystem.get () == OperatingSystem.WINDOWS;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isAvailable ()
+    {
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public NativeFileDialogs create (final File currentDirectory)
+    {
+        return new NativeWindowsFileDialogs (currentDirectory, PARENT_WINDOW_CLASS_NAME);
+    }
+}
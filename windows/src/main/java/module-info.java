@@ -0,0 +1,21 @@
+// Written by Jürgen Moßgraber - mossgrabers.de
+// (c) 2019-2026
+// Licensed under LGPLv3 - http://www.gnu.org/licenses/lgpl-3.0.txt
+
+/**
+ * The Windows dialogs, which are called with JNA.
+ *
+ * @author J&uuml;rgen Mo&szlig;graber
+ */
+module de.mossgrabers.nativefiledialogs.windows
+{
+    requires transitive de.mossgrabers.nativefiledialogs;
+    requires com.sun.jna;
+    requires com.sun.jna.platform;
+
+    exports de.mossgrabers.nativefiledialogs.windows;
+
+    opens de.mossgrabers.nativefiledialogs.windows to com.sun.jna;
+
+    provides de.mossgrabers.nativefiledialogs.NativeFileDialogsProvider with de.mossgrabers.nativefiledialogs.windows.WindowsFileDialogsProvider;
+}